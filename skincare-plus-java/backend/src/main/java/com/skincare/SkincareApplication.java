@@ -3,7 +3,7 @@ package com.skincare;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.modelmapper.ModelMapper;
 
 /**
@@ -14,6 +14,7 @@ import org.modelmapper.ModelMapper;
  * @version 1.0
  */
 @SpringBootApplication
+@EnableScheduling
 public class SkincareApplication {
 
     public static void main(String[] args) {
@@ -26,14 +27,6 @@ public class SkincareApplication {
             "╚═══════════════════════════════════════════════════════╝\n");
     }
 
-    /**
-     * Bean for making HTTP requests to external APIs
-     */
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-
     /**
      * Bean for object mapping (Entity to DTO conversion)
      */
@@ -0,0 +1,39 @@
+package com.skincare.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * DataSource Pool Sizer
+ * In the prod profile, sizes the Hikari pool from the CPU count
+ * (cores * db.pool.connections-per-core + 1, capped at db.pool.max-size)
+ * unless spring.datasource.hikari.maximum-pool-size is set explicitly
+ */
+@Component
+@Profile("prod")
+public class DataSourcePoolSizer implements BeanPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource
+                && !environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+            int perCore = environment.getProperty("db.pool.connections-per-core", Integer.class, 2);
+            int cap = environment.getProperty("db.pool.max-size", Integer.class, 64);
+            int size = Math.min(cap, Runtime.getRuntime().availableProcessors() * perCore + 1);
+            dataSource.setMaximumPoolSize(size);
+            dataSource.setMinimumIdle(size);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,30 @@
+package com.skincare.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sampling Log Filter
+ * Lets one in every sampleRate events through (warnings and errors always pass),
+ * so high-volume debug logging like per-statement SQL stays cheap
+ */
+public class SamplingLogFilter extends Filter<ILoggingEvent> {
+
+    private final AtomicLong seen = new AtomicLong();
+    private int sampleRate = 1;
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (sampleRate <= 1 || event.getLevel().isGreaterOrEqual(ch.qos.logback.classic.Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        return seen.getAndIncrement() % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+}
@@ -0,0 +1,91 @@
+package com.skincare.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL Logging Self-Check
+ * Warns at startup when statement logging that runs on the request thread is
+ * enabled, and again (at most every few minutes) while the connection pool
+ * is busy and that logging is still on
+ */
+@Component
+public class SqlLoggingSelfCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlLoggingSelfCheck.class);
+
+    private static final long REPEAT_WARNING_MILLIS = 5 * 60 * 1000;
+
+    private final DataSource dataSource;
+    private final boolean showSql;
+    private final boolean formatSql;
+    private final double busyPoolRatio;
+    private volatile long lastWarning;
+
+    public SqlLoggingSelfCheck(DataSource dataSource,
+                               @Value("${spring.jpa.show-sql:false}") boolean showSql,
+                               @Value("${spring.jpa.properties.hibernate.format_sql:false}") boolean formatSql,
+                               @Value("${db.pool.busy-ratio:0.5}") double busyPoolRatio) {
+        this.dataSource = dataSource;
+        this.showSql = showSql;
+        this.formatSql = formatSql;
+        this.busyPoolRatio = busyPoolRatio;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkAtStartup() {
+        List<String> findings = findings();
+        if (!findings.isEmpty()) {
+            logger.warn("Per-query logging is enabled ({}); use the prod profile for load testing and production",
+                    String.join(", ", findings));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${db.pool.self-check-interval-ms:30000}")
+    public void checkUnderLoad() {
+        if (!(dataSource instanceof HikariDataSource hikari) || hikari.getHikariPoolMXBean() == null) {
+            return;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        boolean busy = pool.getThreadsAwaitingConnection() > 0
+                || pool.getActiveConnections() >= hikari.getMaximumPoolSize() * busyPoolRatio;
+        long now = System.currentTimeMillis();
+        if (!busy || now - lastWarning < REPEAT_WARNING_MILLIS) {
+            return;
+        }
+        List<String> findings = findings();
+        if (!findings.isEmpty()) {
+            lastWarning = now;
+            logger.warn("Connection pool is busy ({} active, {} waiting) while per-query logging is enabled ({})",
+                    pool.getActiveConnections(), pool.getThreadsAwaitingConnection(), String.join(", ", findings));
+        }
+    }
+
+    private List<String> findings() {
+        List<String> findings = new ArrayList<>();
+        if (showSql) {
+            findings.add("spring.jpa.show-sql");
+        }
+        if (formatSql) {
+            findings.add("hibernate.format_sql");
+        }
+        if (LoggerFactory.getLogger("org.hibernate.SQL").isDebugEnabled()) {
+            findings.add("org.hibernate.SQL at DEBUG");
+        }
+        if (LoggerFactory.getLogger("org.springframework.web").isDebugEnabled()) {
+            findings.add("org.springframework.web at DEBUG");
+        }
+        return findings;
+    }
+}
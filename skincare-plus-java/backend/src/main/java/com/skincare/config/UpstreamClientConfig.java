@@ -0,0 +1,95 @@
+package com.skincare.config;
+
+import com.skincare.integration.UpstreamGuard;
+import com.skincare.integration.UpstreamProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+/**
+ * Upstream Client Configuration
+ * One pooled, non-blocking WebClient per external API (Claude, Google Maps),
+ * each with its own connection pool, timeouts and guard.
+ */
+@Configuration
+public class UpstreamClientConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "upstream.claude")
+    public UpstreamProperties claudeUpstreamProperties() {
+        return new UpstreamProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "upstream.maps")
+    public UpstreamProperties mapsUpstreamProperties() {
+        return new UpstreamProperties();
+    }
+
+    @Bean
+    public WebClient claudeWebClient(WebClient.Builder builder,
+                                     @Qualifier("claudeUpstreamProperties") UpstreamProperties properties,
+                                     @Value("${claude.api.url}") String baseUrl) {
+        return builder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient("claude", properties, baseUrl)))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+                .build();
+    }
+
+    @Bean
+    public WebClient mapsWebClient(WebClient.Builder builder,
+                                   @Qualifier("mapsUpstreamProperties") UpstreamProperties properties,
+                                   @Value("${google.maps.api.url}") String baseUrl) {
+        return builder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient("maps", properties, baseUrl)))
+                .build();
+    }
+
+    @Bean
+    public UpstreamGuard claudeUpstreamGuard(@Qualifier("claudeUpstreamProperties") UpstreamProperties properties,
+                                             MeterRegistry meterRegistry) {
+        return new UpstreamGuard("claude", properties, meterRegistry);
+    }
+
+    @Bean
+    public UpstreamGuard mapsUpstreamGuard(@Qualifier("mapsUpstreamProperties") UpstreamProperties properties,
+                                           MeterRegistry meterRegistry) {
+        return new UpstreamGuard("maps", properties, meterRegistry);
+    }
+
+    /**
+     * HTTP/2 (with HTTP/1.1 fallback via ALPN) for TLS endpoints; plain HTTP/1.1
+     * for http:// URLs such as a local mock server
+     */
+    private static HttpClient httpClient(String name, UpstreamProperties properties, String baseUrl) {
+        ConnectionProvider pool = ConnectionProvider.builder(name)
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(properties.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(60))
+                .metrics(true)
+                .build();
+
+        HttpClient client = HttpClient.create(pool);
+        if (baseUrl.startsWith("https://")) {
+            client = client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        return client
+                .compress(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeoutMs())
+                // Per request: installed on send, removed once the response completes, so idle pooled connections stay open
+                .responseTimeout(Duration.ofMillis(properties.getReadTimeoutMs()));
+    }
+}
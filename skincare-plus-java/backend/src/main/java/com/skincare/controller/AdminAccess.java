@@ -0,0 +1,33 @@
+package com.skincare.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Role check shared by the admin controllers
+ */
+final class AdminAccess {
+
+    private AdminAccess() {
+    }
+
+    /**
+     * Error response for a caller who is not an authenticated administrator, or null to proceed
+     */
+    static ResponseEntity<?> deny(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse(false, "User not authenticated"));
+        }
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (!admin) {
+            return ResponseEntity
+                    .status(HttpStatus.FORBIDDEN)
+                    .body(new ApiResponse(false, "Administrator role required"));
+        }
+        return null;
+    }
+}
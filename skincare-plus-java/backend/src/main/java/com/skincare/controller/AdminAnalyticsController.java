@@ -0,0 +1,187 @@
+package com.skincare.controller;
+
+import com.skincare.dto.AnalyticsOverview;
+import com.skincare.dto.CohortReport;
+import com.skincare.dto.ContentDedupStats;
+import com.skincare.dto.LeaderboardEntry;
+import com.skincare.dto.SkinAnalysisSummary;
+import com.skincare.model.SkinConcern;
+import com.skincare.repository.SkinAnalysisRepository;
+import com.skincare.service.AnalyticsAggregateService;
+import com.skincare.service.LeaderboardService;
+import com.skincare.service.RecommendationEngine;
+import com.skincare.service.SkinConcernIndex;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Admin Analytics Controller
+ * Cohort and aggregate screens for administrators, answered from in-memory indexes
+ */
+@RestController
+@RequestMapping("/api/admin/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AdminAnalyticsController {
+
+    private static final int MAX_COHORT_ROWS = 200;
+    private static final int MAX_LEADERBOARD_ROWS = 100;
+
+    private final SkinConcernIndex skinConcernIndex;
+    private final SkinAnalysisRepository skinAnalysisRepository;
+    private final AnalyticsAggregateService analyticsAggregateService;
+    private final LeaderboardService leaderboardService;
+    private final RecommendationEngine recommendationEngine;
+
+    /**
+     * Totals, per skin type breakdown and concern counts
+     * GET /api/admin/analytics/summary
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary(Authentication authentication) {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+
+        AnalyticsOverview overview = analyticsAggregateService.overview();
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Analytics retrieved successfully")
+                .data(overview)
+                .build());
+    }
+
+    /**
+     * Rebuild the aggregates from skin_analysis and repair drift
+     * POST /api/admin/analytics/summary/verify
+     */
+    @PostMapping("/summary/verify")
+    public ResponseEntity<?> verifySummary(Authentication authentication) {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+
+        boolean consistent = analyticsAggregateService.verify();
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message(consistent ? "Aggregates are consistent" : "Aggregates drifted and were rebuilt")
+                .data(analyticsAggregateService.overview())
+                .build());
+    }
+
+    /**
+     * Filter analyses by concerns (all must match), skin type and recency
+     * GET /api/admin/analytics/cohort?concerns=ACNE,REDNESS&skinType=COMBINATION&days=30&limit=50
+     */
+    @GetMapping("/cohort")
+    public ResponseEntity<?> getCohort(Authentication authentication,
+                                       @RequestParam(required = false) List<String> concerns,
+                                       @RequestParam(required = false) String skinType,
+                                       @RequestParam(required = false) Integer days,
+                                       @RequestParam(defaultValue = "50") int limit) {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        if (!skinConcernIndex.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, "Concern index is still loading"));
+        }
+
+        Set<SkinConcern> required = EnumSet.noneOf(SkinConcern.class);
+        try {
+            if (concerns != null) {
+                concerns.forEach(name -> required.add(SkinConcern.valueOf(name.trim().toUpperCase(Locale.ROOT))));
+            }
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "Unknown concern in " + concerns));
+        }
+        LocalDate from = days != null ? LocalDate.now().minusDays(Math.max(0, days - 1)) : null;
+
+        RoaringBitmap cohort = skinConcernIndex.filter(required, skinType, from, null);
+        List<Long> ids = skinConcernIndex.newestIds(cohort, Math.max(0, Math.min(limit, MAX_COHORT_ROWS)));
+        List<SkinAnalysisSummary> analyses = ids.isEmpty() ? List.of() : skinAnalysisRepository.findSummariesByIdIn(ids);
+
+        CohortReport report = new CohortReport(cohort.getLongCardinality(),
+                skinConcernIndex.concernCounts(cohort), analyses);
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Cohort retrieved successfully")
+                .data(report)
+                .build());
+    }
+
+    /**
+     * Users ranked by number of analyses
+     * GET /api/admin/analytics/leaderboard?offset=0&limit=20
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<?> getLeaderboard(Authentication authentication,
+                                            @RequestParam(defaultValue = "0") int offset,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+
+        List<LeaderboardEntry> entries = leaderboardService.page(Math.max(0, offset),
+                Math.max(0, Math.min(limit, MAX_LEADERBOARD_ROWS)));
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Leaderboard retrieved successfully")
+                .data(entries)
+                .build());
+    }
+
+    /**
+     * One user's leaderboard position
+     * GET /api/admin/analytics/leaderboard/users/{userId}
+     */
+    @GetMapping("/leaderboard/users/{userId}")
+    public ResponseEntity<?> getStanding(Authentication authentication, @PathVariable Long userId) {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+
+        return leaderboardService.standingOf(userId)
+                .<ResponseEntity<?>>map(entry -> ResponseEntity.ok(ApiResponse.builder()
+                        .success(true)
+                        .message("Standing retrieved successfully")
+                        .data(entry)
+                        .build()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse(false, "User has no analyses")));
+    }
+
+    /**
+     * Shared recommendation content: bytes stored versus referenced, profile cache hit rate
+     * GET /api/admin/analytics/recommendations/content
+     */
+    @GetMapping("/recommendations/content")
+    public ResponseEntity<?> getContentDedup(Authentication authentication) {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+
+        ContentDedupStats stats = recommendationEngine.stats();
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Content statistics retrieved successfully")
+                .data(stats)
+                .build());
+    }
+}
@@ -0,0 +1,65 @@
+package com.skincare.controller;
+
+import com.skincare.model.Clinic;
+import com.skincare.service.ClinicDirectoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Admin Clinic Controller
+ * Seeding of the clinic directory and rebuilding of its spatial index
+ */
+@RestController
+@RequestMapping("/api/admin/clinics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AdminClinicController {
+
+    private final ClinicDirectoryService clinicDirectoryService;
+
+    /**
+     * Add clinics to the directory
+     * POST /api/admin/clinics
+     */
+    @PostMapping
+    public ResponseEntity<?> addClinics(Authentication authentication, @RequestBody List<Clinic> clinics) {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        for (Clinic clinic : clinics) {
+            if (clinic.getName() == null || clinic.getLatitude() == null || clinic.getLongitude() == null) {
+                return ResponseEntity.badRequest().body(new ApiResponse(false, "name, latitude and longitude are required"));
+            }
+            clinic.setId(null);
+            if (clinic.getSource() == null) {
+                clinic.setSource(Clinic.Source.SEEDED);
+            }
+        }
+
+        List<Clinic> saved = clinicDirectoryService.addClinics(clinics);
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Added " + saved.size() + " clinics")
+                .data(saved)
+                .build());
+    }
+
+    /**
+     * Rebuild the spatial index from the clinics table and past appointments
+     * POST /api/admin/clinics/reload
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload(Authentication authentication) {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        clinicDirectoryService.reload();
+        return ResponseEntity.ok(new ApiResponse(true, "Indexed " + clinicDirectoryService.size() + " clinic locations"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.skincare.controller;
+
+import com.skincare.dto.ImportResult;
+import com.skincare.service.BulkImportService;
+import com.skincare.service.ProductSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Admin Import Controller
+ * Bulk loading of historical data and the product catalog from NDJSON request bodies
+ */
+@RestController
+@RequestMapping("/api/admin/import")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AdminImportController {
+
+    private final BulkImportService bulkImportService;
+    private final ProductSearchService productSearchService;
+
+    /**
+     * Import skin analyses, one JSON object per line
+     * POST /api/admin/import/analyses (Content-Type: application/x-ndjson)
+     */
+    @PostMapping(value = "/analyses", consumes = {"application/x-ndjson", "text/plain"})
+    public ResponseEntity<?> importAnalyses(Authentication authentication, InputStream body) throws IOException {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        return imported(bulkImportService.importAnalyses(body));
+    }
+
+    /**
+     * Import appointments, one JSON object per line
+     * POST /api/admin/import/appointments (Content-Type: application/x-ndjson)
+     */
+    @PostMapping(value = "/appointments", consumes = {"application/x-ndjson", "text/plain"})
+    public ResponseEntity<?> importAppointments(Authentication authentication, InputStream body) throws IOException {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        return imported(bulkImportService.importAppointments(body));
+    }
+
+    /**
+     * Import catalog products, one JSON object per line, then rebuild the search index
+     * POST /api/admin/import/products (Content-Type: application/x-ndjson)
+     */
+    @PostMapping(value = "/products", consumes = {"application/x-ndjson", "text/plain"})
+    public ResponseEntity<?> importProducts(Authentication authentication, InputStream body) throws IOException {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        ImportResult result = bulkImportService.importProducts(body);
+        if (result.getImported() > 0) {
+            productSearchService.reload();
+        }
+        return imported(result);
+    }
+
+    private ResponseEntity<?> imported(ImportResult result) {
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Imported " + result.getImported() + " rows, skipped " + result.getSkipped())
+                .data(result)
+                .build());
+    }
+}
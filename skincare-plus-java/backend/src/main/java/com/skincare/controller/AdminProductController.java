@@ -0,0 +1,41 @@
+package com.skincare.controller;
+
+import com.skincare.service.ProductSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Admin Product Controller
+ * Rebuilds the in-memory product index after catalog changes
+ */
+@RestController
+@RequestMapping("/api/admin/products")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AdminProductController {
+
+    private final ProductSearchService productSearchService;
+
+    /**
+     * Reload the product index from the database; searches keep using the old index until the swap
+     * POST /api/admin/products/reload
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload(Authentication authentication) {
+        ResponseEntity<?> denied = AdminAccess.deny(authentication);
+        if (denied != null) {
+            return denied;
+        }
+        productSearchService.reload();
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Product index reloaded")
+                .data(Map.of("products", productSearchService.size(),
+                        "terms", productSearchService.termCount()))
+                .build());
+    }
+}
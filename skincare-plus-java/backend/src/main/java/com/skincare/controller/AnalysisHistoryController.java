@@ -0,0 +1,73 @@
+package com.skincare.controller;
+
+import com.skincare.dto.AnalysisHistoryPage;
+import com.skincare.service.AnalysisHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Analysis History Controller
+ * Paginated and streaming access to the current user's skin analyses
+ */
+@RestController
+@RequestMapping("/api/analysis")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AnalysisHistoryController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final AnalysisHistoryService analysisHistoryService;
+
+    /**
+     * Get one page of analysis history (newest first)
+     * GET /api/analysis/history?cursor=...&limit=20
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getHistory(Authentication authentication,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse(false, "User not authenticated"));
+        }
+
+        Long userId = analysisHistoryService.resolveUserId(authentication.getName());
+        try {
+            AnalysisHistoryPage page = analysisHistoryService.getPage(userId, cursor, limit);
+            return ResponseEntity.ok(ApiResponse.builder()
+                    .success(true)
+                    .message("History retrieved successfully")
+                    .data(page)
+                    .build());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Export the full analysis history as NDJSON
+     * GET /api/analysis/history/export
+     */
+    @GetMapping("/history/export")
+    public ResponseEntity<?> exportHistory(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse(false, "User not authenticated"));
+        }
+
+        Long userId = analysisHistoryService.resolveUserId(authentication.getName());
+        StreamingResponseBody body = out -> analysisHistoryService.exportNdjson(userId, out);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"analysis-history.ndjson\"")
+                .body(body);
+    }
+}
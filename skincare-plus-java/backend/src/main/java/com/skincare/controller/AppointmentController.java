@@ -0,0 +1,160 @@
+package com.skincare.controller;
+
+import com.skincare.dto.AppointmentSummary;
+import com.skincare.dto.BookAppointmentRequest;
+import com.skincare.dto.RescheduleAppointmentRequest;
+import com.skincare.exception.SlotUnavailableException;
+import com.skincare.repository.AppointmentRepository;
+import com.skincare.service.AnalysisHistoryService;
+import com.skincare.service.SchedulingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appointment Controller
+ * Slot booking, rescheduling, cancellation and free-slot search
+ */
+@RestController
+@RequestMapping("/api/appointments")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AppointmentController {
+
+    private static final int MAX_UPCOMING = 50;
+    private static final int MAX_SEARCH_DAYS = 31;
+
+    private final SchedulingService schedulingService;
+    private final AppointmentRepository appointmentRepository;
+    private final AnalysisHistoryService analysisHistoryService;
+
+    /**
+     * Book a slot
+     * POST /api/appointments
+     */
+    @PostMapping
+    public ResponseEntity<?> book(Authentication authentication, @Valid @RequestBody BookAppointmentRequest request) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return unauthorized();
+        }
+        Long userId = analysisHistoryService.resolveUserId(authentication.getName());
+        AppointmentSummary booked = AppointmentSummary.of(schedulingService.book(userId, request));
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.builder()
+                .success(true)
+                .message("Appointment booked successfully")
+                .data(booked)
+                .build());
+    }
+
+    /**
+     * The current user's upcoming appointments
+     * GET /api/appointments
+     */
+    @GetMapping
+    public ResponseEntity<?> upcoming(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return unauthorized();
+        }
+        Long userId = analysisHistoryService.resolveUserId(authentication.getName());
+        List<AppointmentSummary> appointments = appointmentRepository.findUpcomingSummariesByUserId(
+                userId, LocalDate.now(), Limit.of(MAX_UPCOMING));
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Appointments retrieved successfully")
+                .data(appointments)
+                .build());
+    }
+
+    /**
+     * Move an appointment to another slot
+     * PUT /api/appointments/{id}/reschedule
+     */
+    @PutMapping("/{id}/reschedule")
+    public ResponseEntity<?> reschedule(Authentication authentication, @PathVariable Long id,
+                                        @Valid @RequestBody RescheduleAppointmentRequest request) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return unauthorized();
+        }
+        Long userId = analysisHistoryService.resolveUserId(authentication.getName());
+        try {
+            AppointmentSummary moved = AppointmentSummary.of(schedulingService.reschedule(
+                    userId, id, request.getAppointmentDate(), request.getAppointmentTime()));
+            return ResponseEntity.ok(ApiResponse.builder()
+                    .success(true)
+                    .message("Appointment rescheduled successfully")
+                    .data(moved)
+                    .build());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Cancel an appointment
+     * POST /api/appointments/{id}/cancel
+     */
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<?> cancel(Authentication authentication, @PathVariable Long id) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return unauthorized();
+        }
+        Long userId = analysisHistoryService.resolveUserId(authentication.getName());
+        try {
+            AppointmentSummary cancelled = AppointmentSummary.of(schedulingService.cancel(userId, id));
+            return ResponseEntity.ok(ApiResponse.builder()
+                    .success(true)
+                    .message("Appointment cancelled successfully")
+                    .data(cancelled)
+                    .build());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Free slots of a doctor, per day
+     * GET /api/appointments/slots?doctor=...&date=2024-05-01&days=7
+     */
+    @GetMapping("/slots")
+    public ResponseEntity<?> freeSlots(Authentication authentication,
+                                       @RequestParam String doctor,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                       @RequestParam(defaultValue = "7") int days) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return unauthorized();
+        }
+        if (doctor.isBlank()) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "Doctor name is required"));
+        }
+        LocalDate from = date != null ? date : LocalDate.now();
+        Map<LocalDate, List<LocalTime>> free = schedulingService.freeSlots(
+                doctor, from, Math.min(Math.max(days, 1), MAX_SEARCH_DAYS));
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Free slots retrieved successfully")
+                .data(free)
+                .build());
+    }
+
+    @ExceptionHandler(SlotUnavailableException.class)
+    public ResponseEntity<?> handleSlotUnavailable(SlotUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(false, ex.getMessage()));
+    }
+
+    private static ResponseEntity<?> unauthorized() {
+        return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(new ApiResponse(false, "User not authenticated"));
+    }
+}
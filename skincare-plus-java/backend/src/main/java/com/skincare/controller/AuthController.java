@@ -1,20 +1,35 @@
 package com.skincare.controller;
 
 import com.skincare.dto.*;
+import com.skincare.exception.HashingCapacityExceededException;
 import com.skincare.model.User;
 import com.skincare.repository.UserRepository;
 import com.skincare.security.JwtTokenProvider;
+import com.skincare.security.PasswordHashingExecutor;
+import com.skincare.security.UserPrincipal;
+import com.skincare.service.AvailabilityService;
+import com.skincare.service.ProfileCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
 /**
  * Authentication Controller
  * Handles user registration, login, and authentication
@@ -29,57 +44,78 @@ public class AuthController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    // Spring Boot's general-purpose task pool (resolved by name); takes the DB and JWT work off the hashing pool
+    private final Executor applicationTaskExecutor;
+    private final AvailabilityService availabilityService;
+    private final ProfileCache profileCache;
+    private final ObjectMapper objectMapper;
 
     /**
      * Register new user
      * POST /api/auth/register
      */
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest request) {
-        // Check if username exists
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody RegisterRequest request) {
+        // Check if username exists (authoritative query; the Bloom filters only serve the check endpoints)
         if (userRepository.existsByUsername(request.getUsername())) {
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                     .badRequest()
-                    .body(new ApiResponse(false, "Username is already taken!"));
+                    .body(new ApiResponse(false, "Username is already taken!")));
         }
 
         // Check if email exists
         if (userRepository.existsByEmail(request.getEmail())) {
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                     .badRequest()
-                    .body(new ApiResponse(false, "Email is already registered!"));
+                    .body(new ApiResponse(false, "Email is already registered!")));
         }
 
-        // Create new user
-        User user = User.builder()
-                .username(request.getUsername())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .fullName(request.getFullName())
-                .phone(request.getPhone())
-                .skinType(request.getSkinType())
-                .role(User.Role.USER)
-                .isActive(true)
-                .build();
-
-        User savedUser = userRepository.save(user);
-
-        // Generate JWT token
-        String token = jwtTokenProvider.generateTokenFromUsername(savedUser.getUsername());
-
-        JwtResponse jwtResponse = new JwtResponse(
-                token,
-                savedUser.getId(),
-                savedUser.getUsername(),
-                savedUser.getEmail(),
-                savedUser.getRole().toString()
-        );
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.builder()
-                .success(true)
-                .message("User registered successfully!")
-                .data(jwtResponse)
-                .build());
+        // Hash the password off the request thread; only the hash itself runs on the bounded pool
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(request.getPassword()))
+                .<ResponseEntity<?>>thenApplyAsync(encodedPassword -> {
+                    // Create new user
+                    User user = User.builder()
+                            .username(request.getUsername())
+                            .email(request.getEmail())
+                            .password(encodedPassword)
+                            .fullName(request.getFullName())
+                            .phone(request.getPhone())
+                            .skinType(request.getSkinType())
+                            .role(User.Role.USER)
+                            .isActive(true)
+                            .build();
+
+                    User savedUser;
+                    try {
+                        savedUser = userRepository.save(user);
+                    } catch (DataIntegrityViolationException ex) {
+                        // Lost a race with a concurrent registration of the same name or email
+                        return ResponseEntity
+                                .badRequest()
+                                .body(new ApiResponse(false, userRepository.existsByUsername(request.getUsername())
+                                        ? "Username is already taken!"
+                                        : "Email is already registered!"));
+                    }
+                    availabilityService.recordRegistration(savedUser.getUsername(), savedUser.getEmail());
+
+                    // Generate JWT token
+                    String token = jwtTokenProvider.generateTokenFromUsername(savedUser.getUsername());
+
+                    JwtResponse jwtResponse = new JwtResponse(
+                            token,
+                            savedUser.getId(),
+                            savedUser.getUsername(),
+                            savedUser.getEmail(),
+                            savedUser.getRole().toString()
+                    );
+
+                    return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.builder()
+                            .success(true)
+                            .message("User registered successfully!")
+                            .data(jwtResponse)
+                            .build());
+                }, applicationTaskExecutor);
     }
 
     /**
@@ -87,52 +123,68 @@ public class AuthController {
      * POST /api/auth/login
      */
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest request) {
-        try {
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getUsernameOrEmail(),
-                            request.getPassword()
-                    )
-            );
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-
-            // Generate JWT token
-            String token = jwtTokenProvider.generateToken(authentication);
-
-            // Get user details
-            User user = userRepository.findByUsernameOrEmail(request.getUsernameOrEmail())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            JwtResponse jwtResponse = new JwtResponse(
-                    token,
-                    user.getId(),
-                    user.getUsername(),
-                    user.getEmail(),
-                    user.getRole().toString()
-            );
-
-            return ResponseEntity.ok(ApiResponse.builder()
-                    .success(true)
-                    .message("Login successful!")
-                    .data(jwtResponse)
-                    .build());
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest request) {
+        // Authenticate user (user lookup + BCrypt check) on the hashing executor
+        return passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(
+                                request.getUsernameOrEmail(),
+                                request.getPassword()
+                        )
+                ))
+                .<ResponseEntity<?>>thenApplyAsync(authentication -> {
+                    // Generate JWT token
+                    String token = jwtTokenProvider.generateToken(authentication);
+
+                    // User details were resolved once during authentication
+                    UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+
+                    JwtResponse jwtResponse = new JwtResponse(
+                            token,
+                            principal.getId(),
+                            principal.getUsername(),
+                            principal.getEmail(),
+                            principal.getRole()
+                    );
+
+                    return ResponseEntity.ok(ApiResponse.builder()
+                            .success(true)
+                            .message("Login successful!")
+                            .data(jwtResponse)
+                            .build());
+                }, applicationTaskExecutor)
+                .exceptionally(ex -> {
+                    // Only bad credentials are a 401; anything else (database down, ...) propagates
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (!(cause instanceof AuthenticationException)) {
+                        throw ex instanceof CompletionException completion ? completion : new CompletionException(ex);
+                    }
+                    return ResponseEntity
+                            .status(HttpStatus.UNAUTHORIZED)
+                            .body(new ApiResponse(false, "Invalid username or password!"));
+                });
+    }
 
-        } catch (Exception e) {
-            return ResponseEntity
-                    .status(HttpStatus.UNAUTHORIZED)
-                    .body(new ApiResponse(false, "Invalid username or password!"));
-        }
+    /**
+     * Hashing executor saturated
+     * Returns 429 with Retry-After instead of queueing behind BCrypt
+     */
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<?> handleHashingCapacityExceeded(HashingCapacityExceededException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ApiResponse(false, ex.getMessage()));
     }
 
     /**
      * Get current user profile
      * GET /api/auth/profile
+     * Served from the profile cache; a matching If-None-Match returns 304
      */
     @GetMapping("/profile")
-    public ResponseEntity<?> getCurrentUser(Authentication authentication) {
+    public ResponseEntity<?> getCurrentUser(
+            Authentication authentication,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
@@ -140,6 +192,21 @@ public class AuthController {
         }
 
         String username = authentication.getName();
+        ProfileCache.CachedProfile profile = profileCache.get(username, () -> loadProfile(username));
+
+        if (profile.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(profile.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(profile.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(profile.body());
+    }
+
+    /**
+     * Build and serialize the profile response (cache miss path)
+     */
+    private byte[] loadProfile(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -154,11 +221,15 @@ public class AuthController {
                 .createdAt(user.getCreatedAt())
                 .build();
 
-        return ResponseEntity.ok(ApiResponse.builder()
-                .success(true)
-                .message("Profile retrieved successfully")
-                .data(userDTO)
-                .build());
+        try {
+            return objectMapper.writeValueAsBytes(ApiResponse.builder()
+                    .success(true)
+                    .message("Profile retrieved successfully")
+                    .data(userDTO)
+                    .build());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize profile", ex);
+        }
     }
 
     /**
@@ -166,7 +237,11 @@ public class AuthController {
      * POST /api/auth/logout
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logoutUser() {
+    public ResponseEntity<?> logoutUser(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            jwtTokenProvider.revokeToken(authorization.substring(7));
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok(new ApiResponse(true, "Logout successful!"));
     }
@@ -177,7 +252,7 @@ public class AuthController {
      */
     @GetMapping("/check-username")
     public ResponseEntity<?> checkUsername(@RequestParam String username) {
-        Boolean available = !userRepository.existsByUsername(username);
+        Boolean available = availabilityService.isUsernameAvailable(username);
         return ResponseEntity.ok(ApiResponse.builder()
                 .success(true)
                 .message(available ? "Username is available" : "Username is taken")
@@ -191,7 +266,7 @@ public class AuthController {
      */
     @GetMapping("/check-email")
     public ResponseEntity<?> checkEmail(@RequestParam String email) {
-        Boolean available = !userRepository.existsByEmail(email);
+        Boolean available = availabilityService.isEmailAvailable(email);
         return ResponseEntity.ok(ApiResponse.builder()
                 .success(true)
                 .message(available ? "Email is available" : "Email is already registered")
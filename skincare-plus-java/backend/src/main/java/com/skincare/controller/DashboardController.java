@@ -0,0 +1,46 @@
+package com.skincare.controller;
+
+import com.skincare.service.AnalysisHistoryService;
+import com.skincare.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Dashboard Controller
+ * Single composite read of everything the user dashboard shows
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+    private final AnalysisHistoryService analysisHistoryService;
+
+    /**
+     * Get profile, recent analyses, upcoming appointments and latest recommendations
+     * GET /api/dashboard
+     */
+    @GetMapping
+    public CompletableFuture<ResponseEntity<?>> getDashboard(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return CompletableFuture.completedFuture(ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse(false, "User not authenticated")));
+        }
+
+        Long userId = analysisHistoryService.resolveUserId(authentication.getName());
+        return dashboardService.getDashboard(userId)
+                .thenApply(view -> ResponseEntity.ok(ApiResponse.builder()
+                        .success(true)
+                        .message("Dashboard retrieved successfully")
+                        .data(view)
+                        .build()));
+    }
+}
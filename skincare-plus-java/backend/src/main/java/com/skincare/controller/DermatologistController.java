@@ -0,0 +1,64 @@
+package com.skincare.controller;
+
+import com.skincare.service.ClinicDirectoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Dermatologist Controller
+ * Nearby dermatologist search by coordinates or address
+ */
+@RestController
+@RequestMapping("/api/dermatologists")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class DermatologistController {
+
+    private static final int MAX_RESULTS = 50;
+    private static final double MAX_RADIUS_KM = 50;
+
+    private final ClinicDirectoryService clinicDirectoryService;
+
+    /**
+     * Find dermatologists near a point or an address
+     * GET /api/dermatologists/nearby?lat=13.08&lng=80.27&radiusKm=10&limit=10
+     * GET /api/dermatologists/nearby?address=T.+Nagar,+Chennai
+     */
+    @GetMapping("/nearby")
+    public Mono<ResponseEntity<?>> findNearby(@RequestParam(required = false) Double lat,
+                                              @RequestParam(required = false) Double lng,
+                                              @RequestParam(required = false) String address,
+                                              @RequestParam(defaultValue = "10") double radiusKm,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        int radiusMeters = (int) (Math.max(0.1, Math.min(radiusKm, MAX_RADIUS_KM)) * 1000);
+        int size = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        if (lat != null && lng != null) {
+            return search(lat, lng, radiusMeters, size);
+        }
+        if (address == null || address.isBlank()) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Either lat and lng or address is required")));
+        }
+        return clinicDirectoryService.geocode(address)
+                .flatMap(point -> point
+                        .map(p -> search(p.latitude(), p.longitude(), radiusMeters, size))
+                        .orElseGet(() -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body(new ApiResponse(false, "Address could not be located")))));
+    }
+
+    private Mono<ResponseEntity<?>> search(double lat, double lng, int radiusMeters, int limit) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            return Mono.just(ResponseEntity.badRequest().body(new ApiResponse(false, "Coordinates out of range")));
+        }
+        return clinicDirectoryService.findNearby(lat, lng, radiusMeters, limit)
+                .map(clinics -> ResponseEntity.ok(ApiResponse.builder()
+                        .success(true)
+                        .message("Found " + clinics.size() + " dermatologists")
+                        .data(clinics)
+                        .build()));
+    }
+}
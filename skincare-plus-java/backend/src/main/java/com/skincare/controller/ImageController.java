@@ -0,0 +1,211 @@
+package com.skincare.controller;
+
+import com.skincare.repository.AnalysisJobRepository;
+import com.skincare.repository.SkinAnalysisRepository;
+import com.skincare.service.AnalysisHistoryService;
+import com.skincare.service.ImageDerivativeService;
+import com.skincare.service.ImageStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Image Controller
+ * Serves content-addressed skin images with strong ETags, HTTP Range support
+ * and zero-copy transfer (Tomcat sendfile, or FileChannel.transferTo).
+ * Only the uploader (or an administrator) may read an image or its derivatives.
+ */
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ImageController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** Content never changes for a given hash; private so shared caches never store a user's photo */
+    private static final String IMMUTABLE = "private, max-age=31536000, immutable";
+
+    private final ImageStore imageStore;
+    private final ImageDerivativeService imageDerivativeService;
+    private final SkinAnalysisRepository skinAnalysisRepository;
+    private final AnalysisJobRepository analysisJobRepository;
+    private final AnalysisHistoryService analysisHistoryService;
+
+    /**
+     * Get an image
+     * GET /api/images/{hash}.{ext}
+     */
+    @GetMapping("/{name:.+}")
+    public void getImage(Authentication authentication,
+                         @PathVariable String name,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        Optional<ImageStore.StoredImage> found = imageStore.find(name);
+        if (found.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!mayRead(authentication, found.get())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        serve(found.get(), IMMUTABLE, request, response);
+    }
+
+    /**
+     * Get a downscaled derivative of an image
+     * GET /api/images/{hash}.{ext}/thumbnail or /analysis
+     */
+    @GetMapping("/{name:.+}/{variant}")
+    public void getDerivative(Authentication authentication,
+                              @PathVariable String name,
+                              @PathVariable String variant,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        Optional<ImageStore.StoredImage> found = imageStore.find(name);
+        Optional<ImageDerivativeService.Variant> size = ImageDerivativeService.Variant.fromKey(variant);
+        if (found.isEmpty() || size.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!mayRead(authentication, found.get())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        serve(imageDerivativeService.get(found.get(), size.get()), IMMUTABLE, request, response);
+    }
+
+    /**
+     * Administrators, or the user who uploaded the image: it is on one of their
+     * analyses, or on one of their jobs that has not produced an analysis yet
+     */
+    private boolean mayRead(Authentication authentication, ImageStore.StoredImage image) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (admin) {
+            return true;
+        }
+        Long userId = analysisHistoryService.resolveUserId(authentication.getName());
+        return skinAnalysisRepository.existsByUserIdAndImageUrl(userId, image.url())
+                || analysisJobRepository.existsByUserIdAndImagePath(userId, image.path().toString());
+    }
+
+    /**
+     * Write a stored file honouring If-None-Match and a single-part Range header
+     */
+    static void serve(ImageStore.StoredImage image, String cacheControl,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, image.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(image.etag()) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = image.size();
+        long start = 0;
+        long end = length - 1;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        boolean rangeApplies = range != null && (ifRange == null || ifRange.equals(image.etag()));
+        if (rangeApplies) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(image.contentType());
+        response.setContentLengthLong(count);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Let Tomcat hand the file to the kernel (sendfile) after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, image.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(image.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * Parse "bytes=a-b", "bytes=a-" or "bytes=-n"
+     * @return {start, end}; an empty array to ignore the header (multi-range); null if unsatisfiable
+     */
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+            }
+            return start < length && start <= end ? new long[]{start, end} : null;
+        } catch (NumberFormatException ex) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.skincare.controller;
+
+import com.skincare.dto.ProductSearchPage;
+import com.skincare.dto.ProductSuggestion;
+import com.skincare.model.SkinConcern;
+import com.skincare.service.AnalysisHistoryService;
+import com.skincare.service.ProductSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Product Controller
+ * Catalog search with facets and autocomplete; signed-in users get results
+ * ranked toward their latest skin analysis
+ */
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ProductController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_OFFSET = 1000;
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final ProductSearchService productSearchService;
+    private final AnalysisHistoryService analysisHistoryService;
+
+    /**
+     * Search products
+     * GET /api/products/search?q=niacinamide serum&brand=...&category=...&skinType=OILY&concern=ACNE&offset=0&limit=20
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(Authentication authentication,
+                                    @RequestParam(required = false) String q,
+                                    @RequestParam(required = false) String brand,
+                                    @RequestParam(required = false) String category,
+                                    @RequestParam(required = false) String skinType,
+                                    @RequestParam(required = false) SkinConcern concern,
+                                    @RequestParam(defaultValue = "0") int offset,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        Long userId = authentication != null && authentication.isAuthenticated()
+                ? analysisHistoryService.resolveUserId(authentication.getName())
+                : null;
+        ProductSearchPage page = productSearchService.search(q, brand, category, skinType, concern, userId,
+                Math.min(Math.max(offset, 0), MAX_OFFSET), Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Products retrieved successfully")
+                .data(page)
+                .build());
+    }
+
+    /**
+     * Complete the last word of a search box
+     * GET /api/products/autocomplete?prefix=hyal&limit=10
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocomplete(@RequestParam String prefix,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        List<ProductSuggestion> suggestions = productSearchService.autocomplete(
+                prefix, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+        return ResponseEntity.ok(ApiResponse.builder()
+                .success(true)
+                .message("Suggestions retrieved successfully")
+                .data(suggestions)
+                .build());
+    }
+}
@@ -0,0 +1,90 @@
+package com.skincare.controller;
+
+import com.skincare.model.AnalysisJob;
+import com.skincare.service.AnalysisHistoryService;
+import com.skincare.service.AnalysisPipelineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+
+/**
+ * Skin Analysis Controller
+ * Accepts skin images for asynchronous AI analysis and reports job status
+ */
+@RestController
+@RequestMapping("/api/analysis")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SkinAnalysisController {
+
+    private static final long MAX_WAIT_SECONDS = 30;
+
+    private final AnalysisPipelineService analysisPipelineService;
+    private final AnalysisHistoryService analysisHistoryService;
+
+    /**
+     * Upload skin image for analysis
+     * POST /api/analysis/upload
+     * Returns 202 with a job id as soon as the image is stored
+     */
+    @PostMapping("/upload")
+    public ResponseEntity<?> uploadImage(Authentication authentication,
+                                         @RequestParam("file") MultipartFile file) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse(false, "User not authenticated"));
+        }
+        if (file.isEmpty() || file.getContentType() == null || !file.getContentType().startsWith("image/")) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "Please upload an image file"));
+        }
+
+        AnalysisJob job = analysisPipelineService.submit(authentication.getName(), file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.builder()
+                .success(true)
+                .message("Image accepted for analysis")
+                .data(toStatus(job))
+                .build());
+    }
+
+    /**
+     * Get analysis job status, optionally waiting for it to finish
+     * GET /api/analysis/jobs/{id}?waitSeconds=25
+     */
+    @GetMapping("/jobs/{id}")
+    public DeferredResult<ResponseEntity<?>> getJobStatus(Authentication authentication,
+                                                          @PathVariable Long id,
+                                                          @RequestParam(defaultValue = "0") long waitSeconds) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            DeferredResult<ResponseEntity<?>> unauthorized = new DeferredResult<>();
+            unauthorized.setResult(ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse(false, "User not authenticated")));
+            return unauthorized;
+        }
+
+        Long userId = analysisHistoryService.resolveUserId(authentication.getName());
+        long timeoutMillis = Math.min(Math.max(waitSeconds, 0), MAX_WAIT_SECONDS) * 1000;
+        return analysisPipelineService.awaitJob(id, userId, timeoutMillis, job ->
+                ResponseEntity.ok(ApiResponse.builder()
+                        .success(true)
+                        .message("Job status retrieved")
+                        .data(toStatus(job))
+                        .build()));
+    }
+
+    private static Map<String, Object> toStatus(AnalysisJob job) {
+        return Map.of(
+                "jobId", job.getId(),
+                "status", job.getStatus().toString(),
+                "analysisId", job.getAnalysisId() != null ? job.getAnalysisId() : "",
+                "error", job.getErrorMessage() != null ? job.getErrorMessage() : ""
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package com.skincare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of analysis history
+ * nextCursor is null on the last page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisHistoryPage {
+
+    private List<SkinAnalysisSummary> items;
+    private String nextCursor;
+}
@@ -0,0 +1,30 @@
+package com.skincare.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One line of a historical skin analysis import (NDJSON)
+ */
+@Data
+@NoArgsConstructor
+public class AnalysisImportRecord {
+
+    private Long userId;
+    private String imageUrl;
+    private String analysisResult;
+    private List<String> skinConcerns;
+    private BigDecimal confidenceScore;
+    private String skinTypeDetected;
+    private Boolean acneDetected;
+    private Boolean darkSpotsDetected;
+    private Boolean wrinklesDetected;
+    private Boolean drynessDetected;
+    private Boolean rednessDetected;
+    private String recommendations;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,38 @@
+package com.skincare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Result returned by a skin analyzer for one image
+ * Field names match the JSON the AI model is asked to produce.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalysisOutcome {
+
+    private String skinType;
+    private BigDecimal confidenceScore;
+    private List<String> concerns;
+    private boolean acne;
+    private boolean darkSpots;
+    private boolean wrinkles;
+    private boolean dryness;
+    private boolean redness;
+    private String summary;
+    private String recommendations;
+
+    private String morningRoutine;
+    private String eveningRoutine;
+    private String dietAdvice;
+    private String lifestyleAdvice;
+    private String dos;
+    private String donts;
+}
@@ -0,0 +1,24 @@
+package com.skincare.dto;
+
+import com.skincare.model.SkinConcern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Admin analytics overview: totals, per skin type breakdown and concern counts
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsOverview {
+
+    private long totalAnalyses;
+    private BigDecimal averageConfidence;
+    private Map<String, Long> analysesBySkinType;
+    private Map<String, BigDecimal> averageConfidenceBySkinType;
+    private Map<SkinConcern, Long> concernCounts;
+}
@@ -0,0 +1,33 @@
+package com.skincare.dto;
+
+import com.skincare.model.Appointment;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * One line of a historical appointment import (NDJSON)
+ */
+@Data
+@NoArgsConstructor
+public class AppointmentImportRecord {
+
+    private Long userId;
+    private String doctorName;
+    private String doctorSpecialization;
+    private String doctorPhone;
+    private String doctorEmail;
+    private LocalDate appointmentDate;
+    private LocalTime appointmentTime;
+    private String location;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private Appointment.AppointmentStatus status;
+    private String notes;
+    private String patientConcerns;
+    private LocalDateTime createdAt;
+}
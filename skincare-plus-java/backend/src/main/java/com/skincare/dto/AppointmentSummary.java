@@ -0,0 +1,33 @@
+package com.skincare.dto;
+
+import com.skincare.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Lightweight view of an Appointment row
+ * Leaves out the TEXT columns (notes, patient_concerns)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSummary {
+
+    private Long id;
+    private String doctorName;
+    private String doctorSpecialization;
+    private LocalDate appointmentDate;
+    private LocalTime appointmentTime;
+    private String location;
+    private Appointment.AppointmentStatus status;
+
+    public static AppointmentSummary of(Appointment appointment) {
+        return new AppointmentSummary(appointment.getId(), appointment.getDoctorName(),
+                appointment.getDoctorSpecialization(), appointment.getAppointmentDate(),
+                appointment.getAppointmentTime(), appointment.getLocation(), appointment.getStatus());
+    }
+}
@@ -0,0 +1,38 @@
+package com.skincare.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Request to book an appointment slot
+ */
+@Data
+@NoArgsConstructor
+public class BookAppointmentRequest {
+
+    @NotBlank(message = "Doctor name is required")
+    @Size(max = 100)
+    private String doctorName;
+
+    private String doctorSpecialization;
+    private String doctorPhone;
+    private String doctorEmail;
+
+    @NotNull(message = "Appointment date is required")
+    private LocalDate appointmentDate;
+
+    @NotNull(message = "Appointment time is required")
+    private LocalTime appointmentTime;
+
+    private String location;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private String patientConcerns;
+}
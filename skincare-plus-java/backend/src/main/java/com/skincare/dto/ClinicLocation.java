@@ -0,0 +1,36 @@
+package com.skincare.dto;
+
+import com.skincare.model.Clinic;
+
+/**
+ * A clinic as held in the spatial index
+ * doctorName is set for locations learned from past appointments
+ */
+public record ClinicLocation(
+        Long clinicId,
+        String name,
+        String doctorName,
+        String specialization,
+        String address,
+        String phone,
+        double latitude,
+        double longitude,
+        String placeId,
+        Clinic.Source source
+) {
+
+    public static ClinicLocation of(Clinic clinic) {
+        return new ClinicLocation(clinic.getId(), clinic.getName(), null, clinic.getSpecialization(),
+                clinic.getAddress(), clinic.getPhone(), clinic.getLatitude(), clinic.getLongitude(),
+                clinic.getPlaceId(), clinic.getSource());
+    }
+
+    /**
+     * JPQL projection of a past appointment's location
+     */
+    public ClinicLocation(String location, String doctorName, String specialization, String address,
+                          String phone, Double latitude, Double longitude) {
+        this(null, location != null ? location : doctorName, doctorName, specialization, address, phone,
+                latitude, longitude, null, Clinic.Source.APPOINTMENT);
+    }
+}
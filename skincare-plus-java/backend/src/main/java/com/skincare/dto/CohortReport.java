@@ -0,0 +1,23 @@
+package com.skincare.dto;
+
+import com.skincare.model.SkinConcern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin cohort screen: size of the filtered cohort, how often each concern
+ * occurs inside it, and the newest matching analyses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortReport {
+
+    private long total;
+    private Map<SkinConcern, Long> concernCounts;
+    private List<SkinAnalysisSummary> analyses;
+}
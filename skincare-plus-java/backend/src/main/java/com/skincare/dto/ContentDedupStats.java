@@ -0,0 +1,24 @@
+package com.skincare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Shared recommendation content: what is stored versus what is referenced,
+ * and how often template routines came from the per-profile cache
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentDedupStats {
+
+    private long contentBlocks;
+    private long storedBytes;
+    private long referencedBytes;
+    private long savedBytes;
+    private long profileCacheHits;
+    private long profileCacheMisses;
+    private double profileCacheHitRatio;
+    private int cachedProfiles;
+}
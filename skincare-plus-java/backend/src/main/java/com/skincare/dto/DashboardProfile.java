@@ -0,0 +1,23 @@
+package com.skincare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Profile section of the dashboard, projected without the password or lazy collections
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardProfile {
+
+    private Long id;
+    private String username;
+    private String email;
+    private String fullName;
+    private String skinType;
+    private LocalDateTime createdAt;
+}
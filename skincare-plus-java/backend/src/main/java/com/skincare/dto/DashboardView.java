@@ -0,0 +1,21 @@
+package com.skincare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything the dashboard shows for one user, assembled in a single response
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardView {
+
+    private DashboardProfile profile;
+    private List<SkinAnalysisSummary> recentAnalyses;
+    private List<AppointmentSummary> upcomingAppointments;
+    private List<RecommendationSummary> latestRecommendations;
+}
@@ -0,0 +1,22 @@
+package com.skincare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: rows written, rows rejected (with the first few reasons) and throughput
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+
+    private long imported;
+    private long skipped;
+    private List<String> errors;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+}
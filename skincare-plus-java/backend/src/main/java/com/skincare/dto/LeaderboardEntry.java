@@ -0,0 +1,19 @@
+package com.skincare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One leaderboard row; rank is 1-based, ties broken by user id
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+
+    private long rank;
+    private Long userId;
+    private String username;
+    private long analysisCount;
+}
@@ -0,0 +1,32 @@
+package com.skincare.dto;
+
+import com.skincare.model.Clinic;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One nearby-dermatologist search result
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyClinic {
+
+    private String name;
+    private String doctorName;
+    private String specialization;
+    private String address;
+    private String phone;
+    private double latitude;
+    private double longitude;
+    private long distanceMeters;
+    private String placeId;
+    private Clinic.Source source;
+
+    public static NearbyClinic of(ClinicLocation location, double distanceMeters) {
+        return new NearbyClinic(location.name(), location.doctorName(), location.specialization(),
+                location.address(), location.phone(), location.latitude(), location.longitude(),
+                Math.round(distanceMeters), location.placeId(), location.source());
+    }
+}
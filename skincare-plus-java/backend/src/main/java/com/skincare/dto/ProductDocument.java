@@ -0,0 +1,20 @@
+package com.skincare.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A product as held in the search index and returned by search
+ */
+public record ProductDocument(
+        Long id,
+        String sku,
+        String name,
+        String brand,
+        String category,
+        String ingredients,
+        String skinTypes,
+        String concerns,
+        BigDecimal price,
+        String imageUrl
+) {
+}
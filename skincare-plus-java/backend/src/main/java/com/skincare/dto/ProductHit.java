@@ -0,0 +1,7 @@
+package com.skincare.dto;
+
+/**
+ * One ranked search result
+ */
+public record ProductHit(ProductDocument product, float score) {
+}
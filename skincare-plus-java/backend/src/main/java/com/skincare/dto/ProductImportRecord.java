@@ -0,0 +1,25 @@
+package com.skincare.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a product catalog import (NDJSON)
+ */
+@Data
+@NoArgsConstructor
+public class ProductImportRecord {
+
+    private String sku;
+    private String name;
+    private String brand;
+    private String category;
+    private String ingredients;
+    private String skinTypes;
+    private String concerns;
+    private BigDecimal price;
+    private String imageUrl;
+    private Boolean active;
+}
@@ -0,0 +1,27 @@
+package com.skincare.dto;
+
+import com.skincare.model.SkinConcern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One page of product search results with facet counts over all matches
+ * boostedSkinType/boostedConcerns come from the searcher's latest analysis, if any
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchPage {
+
+    private long total;
+    private int offset;
+    private List<ProductHit> items;
+    private Map<String, Map<String, Long>> facets;
+    private String boostedSkinType;
+    private Set<SkinConcern> boostedConcerns;
+}
@@ -0,0 +1,7 @@
+package com.skincare.dto;
+
+/**
+ * Autocomplete completion and the number of products containing it
+ */
+public record ProductSuggestion(String text, long count) {
+}
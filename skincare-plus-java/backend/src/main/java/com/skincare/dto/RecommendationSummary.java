@@ -0,0 +1,22 @@
+package com.skincare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Routine part of a Recommendation row, as shown on the dashboard
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationSummary {
+
+    private Long id;
+    private Long analysisId;
+    private String morningRoutine;
+    private String eveningRoutine;
+    private LocalDateTime createdAt;
+}
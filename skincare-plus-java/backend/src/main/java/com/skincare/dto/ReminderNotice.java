@@ -0,0 +1,50 @@
+package com.skincare.dto;
+
+import com.skincare.model.Appointment;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * What a reminder sender needs about one appointment
+ * reminderId and remindAt are filled in once the reminder is claimed; senders
+ * can use reminderId as an idempotency key, since a batch that failed is retried.
+ */
+@Data
+@NoArgsConstructor
+public class ReminderNotice {
+
+    private Long reminderId;
+    private LocalDateTime remindAt;
+
+    private Long appointmentId;
+    private Long userId;
+    private String email;
+    private String fullName;
+    private String doctorName;
+    private LocalDate appointmentDate;
+    private LocalTime appointmentTime;
+    private String location;
+    private Appointment.AppointmentStatus status;
+
+    public ReminderNotice(Long appointmentId, Long userId, String email, String fullName, String doctorName,
+                          LocalDate appointmentDate, LocalTime appointmentTime, String location,
+                          Appointment.AppointmentStatus status) {
+        this.appointmentId = appointmentId;
+        this.userId = userId;
+        this.email = email;
+        this.fullName = fullName;
+        this.doctorName = doctorName;
+        this.appointmentDate = appointmentDate;
+        this.appointmentTime = appointmentTime;
+        this.location = location;
+        this.status = status;
+    }
+
+    public LocalDateTime appointmentStart() {
+        return appointmentDate.atTime(appointmentTime);
+    }
+}
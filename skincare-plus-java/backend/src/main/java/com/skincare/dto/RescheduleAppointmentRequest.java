@@ -0,0 +1,22 @@
+package com.skincare.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Request to move an appointment to another slot with the same doctor
+ */
+@Data
+@NoArgsConstructor
+public class RescheduleAppointmentRequest {
+
+    @NotNull(message = "Appointment date is required")
+    private LocalDate appointmentDate;
+
+    @NotNull(message = "Appointment time is required")
+    private LocalTime appointmentTime;
+}
@@ -0,0 +1,52 @@
+package com.skincare.dto;
+
+import com.skincare.model.SkinAnalysis;
+import com.skincare.model.SkinConcern;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * The indexable columns of one skin analysis: ids, normalized skin type,
+ * concern mask, confidence and creation time
+ */
+public record SkinAnalysisFacts(
+        Long id,
+        Long userId,
+        String skinType,
+        int concernMask,
+        BigDecimal confidenceScore,
+        LocalDateTime createdAt
+) {
+
+    /**
+     * Constructor used by JPQL projections
+     */
+    public SkinAnalysisFacts(Long id, Long userId, String skinType,
+                             Boolean acne, Boolean darkSpots, Boolean wrinkles, Boolean dryness, Boolean redness,
+                             BigDecimal confidenceScore, LocalDateTime createdAt) {
+        this(id, userId, normalizeSkinType(skinType),
+                SkinConcern.mask(acne, darkSpots, wrinkles, dryness, redness),
+                confidenceScore, createdAt);
+    }
+
+    public static SkinAnalysisFacts of(SkinAnalysis analysis) {
+        return new SkinAnalysisFacts(
+                analysis.getId(),
+                analysis.getUser() != null ? analysis.getUser().getId() : null,
+                analysis.getSkinTypeDetected(),
+                analysis.getAcneDetected(),
+                analysis.getDarkSpotsDetected(),
+                analysis.getWrinklesDetected(),
+                analysis.getDrynessDetected(),
+                analysis.getRednessDetected(),
+                analysis.getConfidenceScore(),
+                analysis.getCreatedAt()
+        );
+    }
+
+    public static String normalizeSkinType(String skinType) {
+        return skinType == null || skinType.isBlank() ? "UNKNOWN" : skinType.trim().toUpperCase(Locale.ROOT);
+    }
+}
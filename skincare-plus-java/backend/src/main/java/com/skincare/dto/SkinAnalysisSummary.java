@@ -0,0 +1,29 @@
+package com.skincare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight view of a SkinAnalysis row
+ * Leaves out the TEXT/JSON columns (analysis_result, skin_concerns, recommendations)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkinAnalysisSummary {
+
+    private Long id;
+    private String imageUrl;
+    private BigDecimal confidenceScore;
+    private String skinTypeDetected;
+    private Boolean acneDetected;
+    private Boolean darkSpotsDetected;
+    private Boolean wrinklesDetected;
+    private Boolean drynessDetected;
+    private Boolean rednessDetected;
+    private LocalDateTime createdAt;
+}
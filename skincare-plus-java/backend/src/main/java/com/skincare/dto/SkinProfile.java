@@ -0,0 +1,50 @@
+package com.skincare.dto;
+
+import com.skincare.model.SkinConcern;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Canonical skin profile: one of a fixed set of skin types plus a concern mask.
+ * Free-text skin types from the analyzer ("Combination skin", "oily") map onto
+ * the fixed set, so there are at most 6 x 32 profiles.
+ */
+public record SkinProfile(String skinType, int concernMask) {
+
+    public static final String UNKNOWN = "UNKNOWN";
+
+    /**
+     * Known skin types, in matching order (COMBINATION before OILY and DRY)
+     */
+    public static final List<String> SKIN_TYPES = List.of("COMBINATION", "SENSITIVE", "OILY", "DRY", "NORMAL");
+
+    public static SkinProfile of(String skinType, int concernMask) {
+        return new SkinProfile(canonicalSkinType(skinType), concernMask & ((1 << SkinConcern.values().length) - 1));
+    }
+
+    public static SkinProfile of(AnalysisOutcome outcome) {
+        return of(outcome.getSkinType(), SkinConcern.mask(outcome.isAcne(), outcome.isDarkSpots(),
+                outcome.isWrinkles(), outcome.isDryness(), outcome.isRedness()));
+    }
+
+    public boolean has(SkinConcern concern) {
+        return concern.isIn(concernMask);
+    }
+
+    /**
+     * First known type named in the text, else UNKNOWN
+     */
+    public static String canonicalSkinType(String skinType) {
+        if (skinType == null) {
+            return UNKNOWN;
+        }
+        String upper = skinType.toUpperCase(Locale.ROOT);
+        for (String known : SKIN_TYPES) {
+            if (upper.contains(known)) {
+                return known;
+            }
+        }
+        return UNKNOWN;
+    }
+}
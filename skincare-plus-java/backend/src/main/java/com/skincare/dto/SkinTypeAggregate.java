@@ -0,0 +1,19 @@
+package com.skincare.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregates of the analyses of one detected skin type, as computed by the database
+ */
+public record SkinTypeAggregate(
+        String skinType,
+        Long count,
+        BigDecimal confidenceSum,
+        Long acneCount,
+        Long darkSpotsCount,
+        Long wrinklesCount,
+        Long drynessCount,
+        Long rednessCount,
+        Long maxId
+) {
+}
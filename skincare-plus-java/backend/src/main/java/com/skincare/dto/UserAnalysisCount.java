@@ -0,0 +1,7 @@
+package com.skincare.dto;
+
+/**
+ * Number of analyses of one user, projected without loading the User entity
+ */
+public record UserAnalysisCount(Long userId, String username, Long analysisCount) {
+}
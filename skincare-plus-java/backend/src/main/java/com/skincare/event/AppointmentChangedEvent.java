@@ -0,0 +1,26 @@
+package com.skincare.event;
+
+import com.skincare.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Published whenever an Appointment row is inserted, updated or deleted
+ */
+public record AppointmentChangedEvent(
+        ChangeType type,
+        Long appointmentId,
+        Long userId,
+        String doctorName,
+        LocalDate appointmentDate,
+        LocalTime appointmentTime,
+        Appointment.AppointmentStatus status
+) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,47 @@
+package com.skincare.event;
+
+import com.skincare.model.Appointment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appointment Entity Listener
+ * Turns JPA lifecycle callbacks into {@link AppointmentChangedEvent}s
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreate(Appointment appointment) {
+        publish(AppointmentChangedEvent.ChangeType.CREATED, appointment);
+    }
+
+    @PostUpdate
+    public void onUpdate(Appointment appointment) {
+        publish(AppointmentChangedEvent.ChangeType.UPDATED, appointment);
+    }
+
+    @PostRemove
+    public void onRemove(Appointment appointment) {
+        publish(AppointmentChangedEvent.ChangeType.DELETED, appointment);
+    }
+
+    private void publish(AppointmentChangedEvent.ChangeType type, Appointment appointment) {
+        eventPublisher.publishEvent(new AppointmentChangedEvent(
+                type,
+                appointment.getId(),
+                appointment.getUser() != null ? appointment.getUser().getId() : null,
+                appointment.getDoctorName(),
+                appointment.getAppointmentDate(),
+                appointment.getAppointmentTime(),
+                appointment.getStatus()
+        ));
+    }
+}
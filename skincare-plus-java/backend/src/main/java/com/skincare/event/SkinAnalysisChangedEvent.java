@@ -0,0 +1,15 @@
+package com.skincare.event;
+
+import com.skincare.dto.SkinAnalysisFacts;
+
+/**
+ * Published whenever a SkinAnalysis row is inserted, updated or deleted
+ */
+public record SkinAnalysisChangedEvent(ChangeType type, SkinAnalysisFacts facts) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,41 @@
+package com.skincare.event;
+
+import com.skincare.dto.SkinAnalysisFacts;
+import com.skincare.model.SkinAnalysis;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * SkinAnalysis Entity Listener
+ * Turns JPA lifecycle callbacks into {@link SkinAnalysisChangedEvent}s carrying
+ * a snapshot of the indexed columns, so in-memory indexes never touch the entity
+ */
+@Component
+@RequiredArgsConstructor
+public class SkinAnalysisEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreate(SkinAnalysis analysis) {
+        publish(SkinAnalysisChangedEvent.ChangeType.CREATED, analysis);
+    }
+
+    @PostUpdate
+    public void onUpdate(SkinAnalysis analysis) {
+        publish(SkinAnalysisChangedEvent.ChangeType.UPDATED, analysis);
+    }
+
+    @PostRemove
+    public void onRemove(SkinAnalysis analysis) {
+        publish(SkinAnalysisChangedEvent.ChangeType.DELETED, analysis);
+    }
+
+    private void publish(SkinAnalysisChangedEvent.ChangeType type, SkinAnalysis analysis) {
+        eventPublisher.publishEvent(new SkinAnalysisChangedEvent(type, SkinAnalysisFacts.of(analysis)));
+    }
+}
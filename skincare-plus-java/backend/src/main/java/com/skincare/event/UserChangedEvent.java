@@ -0,0 +1,7 @@
+package com.skincare.event;
+
+/**
+ * Published whenever a User row is inserted, updated or deleted
+ */
+public record UserChangedEvent(Long userId, String username) {
+}
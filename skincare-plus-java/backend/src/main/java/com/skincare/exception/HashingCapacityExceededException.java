@@ -0,0 +1,18 @@
+package com.skincare.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the password-hashing executor is saturated
+ * Surfaced to clients as 429 Too Many Requests with a Retry-After hint.
+ */
+@Getter
+public class HashingCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public HashingCapacityExceededException(long retryAfterSeconds) {
+        super("Too many concurrent login/registration requests, please retry shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
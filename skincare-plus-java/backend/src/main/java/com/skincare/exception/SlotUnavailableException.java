@@ -0,0 +1,12 @@
+package com.skincare.exception;
+
+/**
+ * Thrown when a requested appointment slot is taken, outside working hours, or
+ * lost to a concurrent booking; surfaced to clients as 409 Conflict
+ */
+public class SlotUnavailableException extends RuntimeException {
+
+    public SlotUnavailableException(String message) {
+        super(message);
+    }
+}
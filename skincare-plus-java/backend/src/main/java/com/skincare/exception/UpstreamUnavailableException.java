@@ -0,0 +1,12 @@
+package com.skincare.exception;
+
+/**
+ * Thrown when an external API cannot be called right now
+ * (circuit breaker open or bulkhead full)
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,56 @@
+package com.skincare.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Google Maps Client
+ * Non-blocking access to the Places and Geocoding APIs
+ */
+@Component
+public class GoogleMapsClient {
+
+    private final WebClient webClient;
+    private final UpstreamGuard guard;
+
+    @Value("${google.maps.api.key}")
+    private String apiKey;
+
+    public GoogleMapsClient(@Qualifier("mapsWebClient") WebClient webClient,
+                            @Qualifier("mapsUpstreamGuard") UpstreamGuard guard) {
+        this.webClient = webClient;
+        this.guard = guard;
+    }
+
+    /**
+     * Nearby dermatologists around a point (Places Nearby Search)
+     */
+    public Mono<JsonNode> findNearbyDermatologists(double latitude, double longitude, int radiusMeters) {
+        return guard.call(() -> webClient.get()
+                .uri(uri -> uri.path("/place/nearbysearch/json")
+                        .queryParam("location", latitude + "," + longitude)
+                        .queryParam("radius", radiusMeters)
+                        .queryParam("keyword", "dermatologist")
+                        .queryParam("key", apiKey)
+                        .build())
+                .retrieve()
+                .bodyToMono(JsonNode.class));
+    }
+
+    /**
+     * Geocode a free-text address
+     */
+    public Mono<JsonNode> geocode(String address) {
+        return guard.call(() -> webClient.get()
+                .uri(uri -> uri.path("/geocode/json")
+                        .queryParam("address", address)
+                        .queryParam("key", apiKey)
+                        .build())
+                .retrieve()
+                .bodyToMono(JsonNode.class));
+    }
+}
@@ -0,0 +1,112 @@
+package com.skincare.integration;
+
+import com.skincare.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Upstream Guard
+ * Bulkhead + circuit breaker + latency histogram around calls to one external API.
+ * The bulkhead never waits: when all permits are taken the call fails fast, so a
+ * slow upstream cannot pile up callers. After failureThreshold consecutive failures
+ * the circuit opens for openDurationMs, then lets a single trial call through.
+ */
+public class UpstreamGuard {
+
+    private final String name;
+    private final UpstreamProperties properties;
+    private final Semaphore bulkhead;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamGuard(String name, UpstreamProperties properties, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.properties = properties;
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+        this.meterRegistry = meterRegistry;
+        this.successTimer = latencyTimer("success");
+        this.failureTimer = latencyTimer("failure");
+    }
+
+    /**
+     * Run a call through the breaker and bulkhead
+     */
+    public <T> Mono<T> call(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            boolean trial = false;
+            long now = System.currentTimeMillis();
+            if (openUntil.get() > now) {
+                return rejected("circuit open");
+            }
+            if (openUntil.get() != 0) {
+                // Half-open: only one trial call at a time
+                if (!trialInFlight.compareAndSet(false, true)) {
+                    return rejected("circuit half-open");
+                }
+                trial = true;
+            }
+            if (!bulkhead.tryAcquire()) {
+                if (trial) {
+                    trialInFlight.set(false);
+                }
+                return rejected("bulkhead full");
+            }
+
+            boolean isTrial = trial;
+            long start = System.nanoTime();
+            return call.get()
+                    .doOnSuccess(value -> onSuccess(start))
+                    .doOnError(error -> onFailure(start))
+                    .doFinally(signal -> {
+                        bulkhead.release();
+                        if (isTrial) {
+                            trialInFlight.set(false);
+                        }
+                    });
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void onSuccess(long start) {
+        successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        consecutiveFailures.set(0);
+        openUntil.set(0);
+    }
+
+    private void onFailure(long start) {
+        failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (consecutiveFailures.incrementAndGet() >= properties.getFailureThreshold()) {
+            openUntil.set(System.currentTimeMillis() + properties.getOpenDurationMs());
+        }
+    }
+
+    private <T> Mono<T> rejected(String reason) {
+        meterRegistry.counter("upstream.rejected", "upstream", name, "reason", reason).increment();
+        return Mono.error(new UpstreamUnavailableException(name + " unavailable: " + reason));
+    }
+
+    private Timer latencyTimer(String outcome) {
+        return Timer.builder("upstream.latency")
+                .tag("upstream", name)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.skincare.integration;
+
+import lombok.Data;
+
+/**
+ * Connection, timeout and resilience settings for one external API
+ * Bound from upstream.claude.* and upstream.maps.*
+ */
+@Data
+public class UpstreamProperties {
+
+    private int maxConnections = 50;
+    private long pendingAcquireTimeoutMs = 2000;
+    private long connectTimeoutMs = 2000;
+    private long readTimeoutMs = 30000;
+
+    /** Maximum concurrent in-flight calls (bulkhead) */
+    private int maxConcurrentCalls = 20;
+
+    /** Consecutive failures that open the circuit */
+    private int failureThreshold = 5;
+
+    /** How long the circuit stays open before a trial call */
+    private long openDurationMs = 30000;
+}
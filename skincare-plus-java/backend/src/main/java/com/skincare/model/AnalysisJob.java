@@ -0,0 +1,80 @@
+package com.skincare.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * AnalysisJob Entity
+ * Durable queue entry for an uploaded skin image awaiting AI analysis
+ */
+@Entity
+@Table(name = "analysis_jobs", indexes = {
+    @Index(name = "idx_job_status", columnList = "status, id"),
+    @Index(name = "idx_job_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalysisJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "analysis_job_ids")
+    @TableGenerator(name = "analysis_job_ids", table = "id_sequences", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "analysis_jobs", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    @Column(name = "image_path", nullable = false, length = 500)
+    private String imagePath;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private JobStatus status = JobStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "analysis_id")
+    private Long analysisId;
+
+    // Earliest time a failed job may be retried (exponential backoff)
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Job status enum
+    public enum JobStatus {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public boolean isFinished() {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED;
+    }
+}
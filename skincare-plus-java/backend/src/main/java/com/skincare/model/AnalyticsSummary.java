@@ -0,0 +1,56 @@
+package com.skincare.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * AnalyticsSummary Entity
+ * Periodic checkpoint of the in-memory analysis aggregates, one row per skin type
+ */
+@Entity
+@Table(name = "analytics_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsSummary {
+
+    @Id
+    @Column(name = "skin_type", length = 50)
+    private String skinType;
+
+    @Column(name = "analysis_count", nullable = false)
+    private long analysisCount;
+
+    @Column(name = "confidence_sum", nullable = false, precision = 19, scale = 2)
+    private BigDecimal confidenceSum;
+
+    @Column(name = "acne_count", nullable = false)
+    private long acneCount;
+
+    @Column(name = "dark_spots_count", nullable = false)
+    private long darkSpotsCount;
+
+    @Column(name = "wrinkles_count", nullable = false)
+    private long wrinklesCount;
+
+    @Column(name = "dryness_count", nullable = false)
+    private long drynessCount;
+
+    @Column(name = "redness_count", nullable = false)
+    private long rednessCount;
+
+    /**
+     * Highest skin_analysis id folded into this checkpoint
+     */
+    @Column(name = "high_water_id", nullable = false)
+    private long highWaterId;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
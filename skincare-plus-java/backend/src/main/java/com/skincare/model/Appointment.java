@@ -1,8 +1,8 @@
 package com.skincare.model;
 
+import com.skincare.event.AppointmentEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -13,9 +13,12 @@ import java.time.LocalTime;
  * Manages dermatologist appointment bookings
  */
 @Entity
+@EntityListeners(AppointmentEntityListener.class)
 @Table(name = "appointments", indexes = {
     @Index(name = "idx_user_appointment", columnList = "user_id"),
-    @Index(name = "idx_appointment_date", columnList = "appointment_date")
+    @Index(name = "idx_appointment_date", columnList = "appointment_date"),
+    @Index(name = "idx_user_appointment_date", columnList = "user_id, appointment_date"),
+    @Index(name = "idx_doctor_appointment_date", columnList = "doctor_name, appointment_date")
 })
 @Data
 @NoArgsConstructor
@@ -24,7 +27,9 @@ import java.time.LocalTime;
 public class Appointment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "appointment_ids")
+    @TableGenerator(name = "appointment_ids", table = "id_sequences", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "appointments", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -56,10 +61,10 @@ public class Appointment {
     @Column
     private String address;
 
-    @Column(length = 20)
+    @Column
     private Double latitude;
 
-    @Column(length = 20)
+    @Column
     private Double longitude;
 
     @Enumerated(EnumType.STRING)
@@ -72,20 +77,38 @@ public class Appointment {
     @Column(name = "patient_concerns", columnDefinition = "TEXT")
     private String patientConcerns;
 
-    @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Appointment status enum
     public enum AppointmentStatus {
         SCHEDULED,
         CONFIRMED,
         COMPLETED,
         CANCELLED,
-        RESCHEDULED
+        RESCHEDULED;
+
+        /**
+         * Whether an appointment in this status holds its slot
+         */
+        public boolean occupiesSlot() {
+            return this != CANCELLED;
+        }
+    }
+
+    // Set here rather than by @CreationTimestamp so imported history keeps its own date
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 
     @PreUpdate
@@ -0,0 +1,53 @@
+package com.skincare.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * AppointmentReminder Entity
+ * One row per reminder ever claimed for sending. The unique key on
+ * (appointment_id, remind_at) lets exactly one dispatcher claim a reminder,
+ * across restarts and nodes; a reschedule gives the new time its own row.
+ */
+@Entity
+@Table(name = "appointment_reminders", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_reminder_appointment_time", columnNames = {"appointment_id", "remind_at"})
+}, indexes = {
+    @Index(name = "idx_reminder_status_claimed", columnList = "status, claimed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "appointment_reminder_ids")
+    @TableGenerator(name = "appointment_reminder_ids", table = "id_sequences", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "appointment_reminders", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Column(name = "remind_at", nullable = false)
+    private LocalDateTime remindAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public enum Status {
+        CLAIMED,
+        SENT,
+        EXPIRED
+    }
+}
@@ -0,0 +1,68 @@
+package com.skincare.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clinic Entity
+ * Known dermatology clinic locations for nearby search (seeded, learned from
+ * past appointments, or remembered from Google Places results)
+ */
+@Entity
+@Table(name = "clinics", indexes = {
+    @Index(name = "idx_clinic_place_id", columnList = "place_id", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Clinic {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "clinic_ids")
+    @TableGenerator(name = "clinic_ids", table = "id_sequences", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "clinics", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 200)
+    private String name;
+
+    @Column(length = 100)
+    private String specialization;
+
+    @Column(length = 500)
+    private String address;
+
+    @Column(length = 20)
+    private String phone;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    /**
+     * Google Places id when the clinic came from (or was matched to) Maps
+     */
+    @Column(name = "place_id", length = 255)
+    private String placeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private Source source = Source.SEEDED;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Source {
+        SEEDED,
+        APPOINTMENT,
+        MAPS
+    }
+}
@@ -0,0 +1,51 @@
+package com.skincare.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ContentBlock Entity
+ * Immutable, content-addressed piece of recommendation text. Identical text is
+ * stored once (unique SHA-256 of the normalized body) and referenced from any
+ * number of recommendations.
+ */
+@Entity
+@Table(name = "content_blocks", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_content_block_hash", columnNames = "content_hash")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "content_block_ids")
+    @TableGenerator(name = "content_block_ids", table = "id_sequences", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "content_blocks", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "content_hash", nullable = false, length = 64, updatable = false)
+    private String contentHash;
+
+    @Column(nullable = false, columnDefinition = "TEXT", updatable = false)
+    private String body;
+
+    /**
+     * UTF-8 size of body, kept for dedup accounting
+     */
+    @Column(name = "byte_length", nullable = false, updatable = false)
+    private int byteLength;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
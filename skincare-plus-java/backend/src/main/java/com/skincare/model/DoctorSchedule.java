@@ -0,0 +1,44 @@
+package com.skincare.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * DoctorSchedule Entity
+ * Booked slots of one doctor on one day as a bitmask; the optimistic version
+ * makes concurrent bookings across nodes conflict instead of double-booking
+ */
+@Entity
+@Table(name = "doctor_schedules", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_doctor_schedule_day", columnNames = {"doctor_name", "schedule_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoctorSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "doctor_schedule_ids")
+    @TableGenerator(name = "doctor_schedule_ids", table = "id_sequences", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "doctor_schedules", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "doctor_name", nullable = false, length = 100)
+    private String doctorName;
+
+    @Column(name = "schedule_date", nullable = false)
+    private LocalDate scheduleDate;
+
+    /**
+     * Bit i set = slot i of the working day is taken
+     */
+    @Column(name = "booked_slots", nullable = false)
+    private long bookedSlots;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,71 @@
+package com.skincare.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Product Entity
+ * Skincare product catalog entry. Skin types and concerns are comma-separated
+ * lists ("OILY,COMBINATION", "ACNE,REDNESS"; ALL = every skin type); ingredients
+ * is the INCI list as printed on the pack.
+ */
+@Entity
+@Table(name = "products", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_product_sku", columnNames = "sku")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Product {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_ids")
+    @TableGenerator(name = "product_ids", table = "id_sequences", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "products", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String sku;
+
+    @Column(nullable = false, length = 255)
+    private String name;
+
+    @Column(length = 100)
+    private String brand;
+
+    @Column(length = 100)
+    private String category;
+
+    @Column(columnDefinition = "TEXT")
+    private String ingredients;
+
+    @Column(name = "skin_types", length = 100)
+    private String skinTypes;
+
+    @Column(length = 100)
+    private String concerns;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "image_url", length = 500)
+    private String imageUrl;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 
 /**
  * Recommendation Entity
- * Stores personalized skincare recommendations
+ * Stores personalized skincare recommendations. Routine and advice text is
+ * referenced as shared {@link ContentBlock}s; the TEXT columns only hold rows
+ * written before content blocks existed.
  */
 @Entity
 @Table(name = "recommendations")
@@ -19,7 +21,9 @@ import java.time.LocalDateTime;
 public class Recommendation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "recommendation_ids")
+    @TableGenerator(name = "recommendation_ids", table = "id_sequences", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "recommendations", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -32,6 +36,37 @@ public class Recommendation {
     @ToString.Exclude
     private SkinAnalysis skinAnalysis;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "morning_routine_block_id")
+    @ToString.Exclude
+    private ContentBlock morningRoutineBlock;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "evening_routine_block_id")
+    @ToString.Exclude
+    private ContentBlock eveningRoutineBlock;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "diet_advice_block_id")
+    @ToString.Exclude
+    private ContentBlock dietAdviceBlock;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lifestyle_advice_block_id")
+    @ToString.Exclude
+    private ContentBlock lifestyleAdviceBlock;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "dos_block_id")
+    @ToString.Exclude
+    private ContentBlock dosBlock;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "donts_block_id")
+    @ToString.Exclude
+    private ContentBlock dontsBlock;
+
+    // Legacy free text (rows written before content blocks)
     @Column(name = "morning_routine", columnDefinition = "TEXT")
     private String morningRoutine;
 
@@ -56,4 +91,32 @@ public class Recommendation {
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    public String getMorningRoutineText() {
+        return text(morningRoutineBlock, morningRoutine);
+    }
+
+    public String getEveningRoutineText() {
+        return text(eveningRoutineBlock, eveningRoutine);
+    }
+
+    public String getDietAdviceText() {
+        return text(dietAdviceBlock, dietAdvice);
+    }
+
+    public String getLifestyleAdviceText() {
+        return text(lifestyleAdviceBlock, lifestyleAdvice);
+    }
+
+    public String getDosText() {
+        return text(dosBlock, dos);
+    }
+
+    public String getDontsText() {
+        return text(dontsBlock, donts);
+    }
+
+    private static String text(ContentBlock block, String legacy) {
+        return block != null ? block.getBody() : legacy;
+    }
 }
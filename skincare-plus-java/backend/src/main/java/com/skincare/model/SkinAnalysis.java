@@ -1,8 +1,8 @@
 package com.skincare.model;
 
+import com.skincare.event.SkinAnalysisEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,9 +12,11 @@ import java.time.LocalDateTime;
  * Stores AI-powered skin analysis results
  */
 @Entity
+@EntityListeners(SkinAnalysisEntityListener.class)
 @Table(name = "skin_analysis", indexes = {
     @Index(name = "idx_user_id", columnList = "user_id"),
-    @Index(name = "idx_created_at", columnList = "created_at")
+    @Index(name = "idx_created_at", columnList = "created_at"),
+    @Index(name = "idx_user_analysis_date", columnList = "user_id, created_at DESC")
 })
 @Data
 @NoArgsConstructor
@@ -23,7 +25,9 @@ import java.time.LocalDateTime;
 public class SkinAnalysis {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "skin_analysis_ids")
+    @TableGenerator(name = "skin_analysis_ids", table = "id_sequences", pkColumnName = "sequence_name",
+                    valueColumnName = "next_val", pkColumnValue = "skin_analysis", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -64,7 +68,6 @@ public class SkinAnalysis {
     @Column(columnDefinition = "TEXT")
     private String recommendations; // AI-generated recommendations
 
-    @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -72,4 +75,12 @@ public class SkinAnalysis {
     @OneToOne(mappedBy = "skinAnalysis", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @ToString.Exclude
     private Recommendation recommendation;
+
+    // Set here rather than by @CreationTimestamp so imported history keeps its own date
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package com.skincare.model;
+
+/**
+ * Skin Concern
+ * The concerns tracked as flag columns on {@link SkinAnalysis}; each owns one
+ * bit of a concern mask
+ */
+public enum SkinConcern {
+    ACNE,
+    DARK_SPOTS,
+    WRINKLES,
+    DRYNESS,
+    REDNESS;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean isIn(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    public static int mask(Boolean acne, Boolean darkSpots, Boolean wrinkles, Boolean dryness, Boolean redness) {
+        int mask = 0;
+        if (Boolean.TRUE.equals(acne)) mask |= ACNE.bit();
+        if (Boolean.TRUE.equals(darkSpots)) mask |= DARK_SPOTS.bit();
+        if (Boolean.TRUE.equals(wrinkles)) mask |= WRINKLES.bit();
+        if (Boolean.TRUE.equals(dryness)) mask |= DRYNESS.bit();
+        if (Boolean.TRUE.equals(redness)) mask |= REDNESS.bit();
+        return mask;
+    }
+}
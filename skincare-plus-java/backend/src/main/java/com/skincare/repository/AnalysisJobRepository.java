@@ -0,0 +1,97 @@
+package com.skincare.repository;
+
+import com.skincare.model.AnalysisJob;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * AnalysisJob Repository
+ */
+@Repository
+public interface AnalysisJobRepository extends JpaRepository<AnalysisJob, Long> {
+
+    Optional<AnalysisJob> findByIdAndUserId(Long id, Long userId);
+
+    boolean existsByUserIdAndImagePath(Long userId, String imagePath);
+
+    /**
+     * Oldest pending job ids whose retry backoff has elapsed (queue scan)
+     */
+    @Query("SELECT j.id FROM AnalysisJob j WHERE j.status = com.skincare.model.AnalysisJob.JobStatus.PENDING "
+            + "AND (j.nextAttemptAt IS NULL OR j.nextAttemptAt <= :now) ORDER BY j.id ASC")
+    List<Long> findPendingIds(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Atomically claim a pending job that is due; returns 1 only for the caller that won
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AnalysisJob j SET j.status = com.skincare.model.AnalysisJob.JobStatus.RUNNING, "
+            + "j.attempts = j.attempts + 1, j.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE j.id = :id AND j.status = com.skincare.model.AnalysisJob.JobStatus.PENDING "
+            + "AND (j.nextAttemptAt IS NULL OR j.nextAttemptAt <= :now)")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Complete a job, but only while the caller still holds the lease it claimed (same attempt, still RUNNING)
+     */
+    @Modifying
+    @Query("UPDATE AnalysisJob j SET j.status = com.skincare.model.AnalysisJob.JobStatus.COMPLETED, "
+            + "j.analysisId = :analysisId, j.errorMessage = NULL, j.nextAttemptAt = NULL, "
+            + "j.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE j.id = :id AND j.status = com.skincare.model.AnalysisJob.JobStatus.RUNNING "
+            + "AND j.attempts = :attempts")
+    int complete(@Param("id") Long id, @Param("attempts") int attempts, @Param("analysisId") Long analysisId);
+
+    /**
+     * Hand a failed attempt back to the queue (or fail it) if the caller still holds its lease
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AnalysisJob j SET j.status = :status, j.errorMessage = :errorMessage, "
+            + "j.nextAttemptAt = :nextAttemptAt, j.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE j.id = :id AND j.status = com.skincare.model.AnalysisJob.JobStatus.RUNNING "
+            + "AND j.attempts = :attempts")
+    int release(@Param("id") Long id, @Param("attempts") int attempts,
+                @Param("status") AnalysisJob.JobStatus status, @Param("errorMessage") String errorMessage,
+                @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Renew the lease (updatedAt) of jobs this node is running
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AnalysisJob j SET j.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE j.id IN :ids AND j.status = com.skincare.model.AnalysisJob.JobStatus.RUNNING")
+    int heartbeat(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Fail RUNNING jobs whose lease expired after their last allowed attempt
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AnalysisJob j SET j.status = com.skincare.model.AnalysisJob.JobStatus.FAILED, "
+            + "j.errorMessage = 'Worker stopped responding' "
+            + "WHERE j.status = com.skincare.model.AnalysisJob.JobStatus.RUNNING AND j.updatedAt < :cutoff "
+            + "AND j.attempts >= :maxAttempts")
+    int failStale(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Return jobs whose worker stopped renewing its lease (crashed node) to the queue
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AnalysisJob j SET j.status = com.skincare.model.AnalysisJob.JobStatus.PENDING "
+            + "WHERE j.status = com.skincare.model.AnalysisJob.JobStatus.RUNNING AND j.updatedAt < :cutoff")
+    int requeueStale(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,13 @@
+package com.skincare.repository;
+
+import com.skincare.model.AnalyticsSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * AnalyticsSummary Repository
+ * Data access layer for the aggregate checkpoint table
+ */
+@Repository
+public interface AnalyticsSummaryRepository extends JpaRepository<AnalyticsSummary, String> {
+}
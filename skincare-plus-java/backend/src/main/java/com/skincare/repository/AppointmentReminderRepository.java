@@ -0,0 +1,41 @@
+package com.skincare.repository;
+
+import com.skincare.model.AppointmentReminder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * AppointmentReminder Repository
+ */
+@Repository
+public interface AppointmentReminderRepository extends JpaRepository<AppointmentReminder, Long> {
+
+    /**
+     * (appointmentId, remindAt) of reminders already claimed for these appointments
+     */
+    @Query("SELECT r.appointmentId, r.remindAt FROM AppointmentReminder r WHERE r.appointmentId IN :appointmentIds")
+    List<Object[]> findKeysByAppointmentIdIn(@Param("appointmentIds") Collection<Long> appointmentIds);
+
+    /**
+     * Claims whose send never completed (crash or sender failure)
+     */
+    List<AppointmentReminder> findByStatusAndClaimedAtBeforeOrderByClaimedAtAsc(
+        AppointmentReminder.Status status,
+        LocalDateTime cutoff,
+        Limit limit
+    );
+
+    @Modifying
+    @Query("UPDATE AppointmentReminder r SET r.status = :status, r.sentAt = :at WHERE r.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") AppointmentReminder.Status status,
+                     @Param("at") LocalDateTime at);
+}
@@ -1,13 +1,22 @@
 package com.skincare.repository;
 
+import com.skincare.dto.AppointmentSummary;
+import com.skincare.dto.ClinicLocation;
+import com.skincare.dto.ReminderNotice;
 import com.skincare.model.Appointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Appointment Repository
@@ -27,6 +36,59 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
         @Param("today") LocalDate today
     );
 
+    /**
+     * Next upcoming appointments as summaries (walks idx_user_appointment_date)
+     */
+    @Query("SELECT new com.skincare.dto.AppointmentSummary(a.id, a.doctorName, a.doctorSpecialization, "
+            + "a.appointmentDate, a.appointmentTime, a.location, a.status) FROM Appointment a "
+            + "WHERE a.user.id = :userId AND a.appointmentDate >= :today "
+            + "ORDER BY a.appointmentDate ASC, a.appointmentTime ASC")
+    List<AppointmentSummary> findUpcomingSummariesByUserId(
+        @Param("userId") Long userId,
+        @Param("today") LocalDate today,
+        Limit limit
+    );
+
+    /**
+     * Distinct clinic locations seen on past appointments (spatial index load)
+     */
+    @Query("SELECT DISTINCT new com.skincare.dto.ClinicLocation(a.location, a.doctorName, a.doctorSpecialization, "
+            + "a.address, a.doctorPhone, a.latitude, a.longitude) FROM Appointment a "
+            + "WHERE a.latitude IS NOT NULL AND a.longitude IS NOT NULL")
+    List<ClinicLocation> findDistinctClinicLocations();
+
+    /**
+     * A doctor's appointments on one day (slot bitmap rebuild)
+     */
+    @Query("SELECT a.appointmentTime, a.status FROM Appointment a "
+            + "WHERE a.doctorName = :doctorName AND a.appointmentDate = :date")
+    List<Object[]> findSlotsByDoctorAndDate(@Param("doctorName") String doctorName, @Param("date") LocalDate date);
+
+    /**
+     * (appointmentDate, appointmentTime, status) of a doctor's appointments over a date range
+     */
+    @Query("SELECT a.appointmentDate, a.appointmentTime, a.status FROM Appointment a "
+            + "WHERE a.doctorName = :doctorName AND a.appointmentDate BETWEEN :from AND :to")
+    List<Object[]> findSlotsByDoctorBetween(@Param("doctorName") String doctorName,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * (id, appointmentDate, appointmentTime) of appointments in these statuses between two dates, in time order.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id, a.appointmentDate, a.appointmentTime FROM Appointment a "
+            + "WHERE a.appointmentDate BETWEEN :from AND :to AND a.status IN :statuses "
+            + "ORDER BY a.appointmentDate ASC, a.appointmentTime ASC")
+    Stream<Object[]> streamTimesBetween(@Param("from") LocalDate from,
+                                        @Param("to") LocalDate to,
+                                        @Param("statuses") Collection<Appointment.AppointmentStatus> statuses);
+
+    @Query("SELECT new com.skincare.dto.ReminderNotice(a.id, a.user.id, a.user.email, a.user.fullName, "
+            + "a.doctorName, a.appointmentDate, a.appointmentTime, a.location, a.status) "
+            + "FROM Appointment a WHERE a.id IN :ids")
+    List<ReminderNotice> findReminderNoticesByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT a FROM Appointment a WHERE a.appointmentDate = :date ORDER BY a.appointmentTime ASC")
     List<Appointment> findByAppointmentDate(@Param("date") LocalDate date);
 
@@ -0,0 +1,17 @@
+package com.skincare.repository;
+
+import com.skincare.model.Clinic;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Clinic Repository
+ */
+@Repository
+public interface ClinicRepository extends JpaRepository<Clinic, Long> {
+
+    List<Clinic> findByPlaceIdIn(Collection<String> placeIds);
+}
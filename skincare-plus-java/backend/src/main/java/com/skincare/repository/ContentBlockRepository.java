@@ -0,0 +1,23 @@
+package com.skincare.repository;
+
+import com.skincare.model.ContentBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * ContentBlock Repository
+ */
+@Repository
+public interface ContentBlockRepository extends JpaRepository<ContentBlock, Long> {
+
+    Optional<ContentBlock> findByContentHash(String contentHash);
+
+    /**
+     * Bytes actually stored across all blocks
+     */
+    @Query("SELECT COALESCE(SUM(b.byteLength), 0) FROM ContentBlock b")
+    long sumByteLength();
+}
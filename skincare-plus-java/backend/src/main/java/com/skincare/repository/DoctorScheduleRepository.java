@@ -0,0 +1,20 @@
+package com.skincare.repository;
+
+import com.skincare.model.DoctorSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DoctorSchedule Repository
+ */
+@Repository
+public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule, Long> {
+
+    Optional<DoctorSchedule> findByDoctorNameAndScheduleDate(String doctorName, LocalDate scheduleDate);
+
+    List<DoctorSchedule> findByDoctorNameAndScheduleDateBetween(String doctorName, LocalDate from, LocalDate to);
+}
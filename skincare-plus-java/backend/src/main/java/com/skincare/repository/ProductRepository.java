@@ -0,0 +1,34 @@
+package com.skincare.repository;
+
+import com.skincare.dto.ProductDocument;
+import com.skincare.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Product Repository
+ */
+@Repository
+public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    /**
+     * Every active product as an index document (search index rebuild).
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.skincare.dto.ProductDocument(p.id, p.sku, p.name, p.brand, p.category, p.ingredients, "
+            + "p.skinTypes, p.concerns, p.price, p.imageUrl) FROM Product p WHERE p.active = true")
+    Stream<ProductDocument> streamActiveDocuments();
+
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+}
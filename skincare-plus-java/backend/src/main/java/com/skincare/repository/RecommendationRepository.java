@@ -1,8 +1,11 @@
 package com.skincare.repository;
 
+import com.skincare.dto.RecommendationSummary;
 import com.skincare.model.Recommendation;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,10 +19,29 @@ public interface RecommendationRepository extends JpaRepository<Recommendation,
 
     List<Recommendation> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    /**
+     * Latest recommendations as routine summaries
+     */
+    @Query("SELECT new com.skincare.dto.RecommendationSummary(r.id, r.skinAnalysis.id, "
+            + "COALESCE(m.body, r.morningRoutine), COALESCE(e.body, r.eveningRoutine), r.createdAt) "
+            + "FROM Recommendation r LEFT JOIN r.morningRoutineBlock m LEFT JOIN r.eveningRoutineBlock e "
+            + "WHERE r.user.id = :userId ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecommendationSummary> findSummariesByUserId(@Param("userId") Long userId, Limit limit);
+
     Optional<Recommendation> findBySkinAnalysisId(Long analysisId);
 
     @Query("SELECT r FROM Recommendation r WHERE r.user.id = :userId ORDER BY r.createdAt DESC LIMIT 1")
     Optional<Recommendation> findLatestByUserId(Long userId);
 
     Long countByUserId(Long userId);
+
+    /**
+     * Bytes of block text referenced by all recommendations, counting every reference
+     */
+    @Query("SELECT COALESCE(SUM(COALESCE(m.byteLength, 0) + COALESCE(e.byteLength, 0) + COALESCE(d.byteLength, 0) "
+            + "+ COALESCE(l.byteLength, 0) + COALESCE(y.byteLength, 0) + COALESCE(n.byteLength, 0)), 0) "
+            + "FROM Recommendation r LEFT JOIN r.morningRoutineBlock m LEFT JOIN r.eveningRoutineBlock e "
+            + "LEFT JOIN r.dietAdviceBlock d LEFT JOIN r.lifestyleAdviceBlock l "
+            + "LEFT JOIN r.dosBlock y LEFT JOIN r.dontsBlock n")
+    long sumReferencedContentBytes();
 }
@@ -1,13 +1,23 @@
 package com.skincare.repository;
 
+import com.skincare.dto.SkinAnalysisFacts;
+import com.skincare.dto.SkinAnalysisSummary;
+import com.skincare.dto.SkinTypeAggregate;
+import com.skincare.dto.UserAnalysisCount;
 import com.skincare.model.SkinAnalysis;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * SkinAnalysis Repository
@@ -16,11 +26,44 @@ import java.util.List;
 @Repository
 public interface SkinAnalysisRepository extends JpaRepository<SkinAnalysis, Long> {
 
+    String SUMMARY_SELECT = "SELECT new com.skincare.dto.SkinAnalysisSummary("
+            + "sa.id, sa.imageUrl, sa.confidenceScore, sa.skinTypeDetected, "
+            + "sa.acneDetected, sa.darkSpotsDetected, sa.wrinklesDetected, sa.drynessDetected, sa.rednessDetected, "
+            + "sa.createdAt) FROM SkinAnalysis sa ";
+
     /**
      * Find all analyses by user ID
      */
     List<SkinAnalysis> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    /**
+     * First keyset page of a user's history (newest first)
+     * Walks idx_user_analysis_date (user_id, created_at DESC); id breaks ties
+     */
+    @Query(SUMMARY_SELECT + "WHERE sa.user.id = :userId ORDER BY sa.createdAt DESC, sa.id DESC")
+    List<SkinAnalysisSummary> findSummariesByUserId(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Next keyset page: rows strictly after the (createdAt, id) cursor
+     */
+    @Query(SUMMARY_SELECT + "WHERE sa.user.id = :userId "
+            + "AND (sa.createdAt < :createdAt OR (sa.createdAt = :createdAt AND sa.id < :id)) "
+            + "ORDER BY sa.createdAt DESC, sa.id DESC")
+    List<SkinAnalysisSummary> findSummariesByUserIdBefore(
+        @Param("userId") Long userId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Limit limit
+    );
+
+    /**
+     * Stream a user's whole history as summaries
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "WHERE sa.user.id = :userId ORDER BY sa.createdAt DESC, sa.id DESC")
+    Stream<SkinAnalysisSummary> streamSummariesByUserId(@Param("userId") Long userId);
+
     /**
      * Find analyses by user within date range
      */
@@ -33,14 +76,34 @@ public interface SkinAnalysisRepository extends JpaRepository<SkinAnalysis, Long
 
     /**
      * Find analyses with acne detected
+     * @deprecated full table scan; filter through {@code SkinConcernIndex} and load with {@link #findSummariesByIdIn}
      */
+    @Deprecated
     List<SkinAnalysis> findByAcneDetectedTrue();
 
     /**
      * Find analyses by skin type
+     * @deprecated full table scan; filter through {@code SkinConcernIndex} and load with {@link #findSummariesByIdIn}
      */
+    @Deprecated
     List<SkinAnalysis> findBySkinTypeDetected(String skinType);
 
+    /**
+     * Load summaries for ids picked by an in-memory index (newest first)
+     */
+    @Query(SUMMARY_SELECT + "WHERE sa.id IN :ids ORDER BY sa.createdAt DESC, sa.id DESC")
+    List<SkinAnalysisSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stream the indexable columns of every analysis
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.skincare.dto.SkinAnalysisFacts(sa.id, sa.user.id, sa.skinTypeDetected, "
+            + "sa.acneDetected, sa.darkSpotsDetected, sa.wrinklesDetected, sa.drynessDetected, sa.rednessDetected, "
+            + "sa.confidenceScore, sa.createdAt) FROM SkinAnalysis sa")
+    Stream<SkinAnalysisFacts> streamAllFacts();
+
     /**
      * Count analyses by user
      */
@@ -52,6 +115,20 @@ public interface SkinAnalysisRepository extends JpaRepository<SkinAnalysis, Long
     @Query("SELECT sa FROM SkinAnalysis sa WHERE sa.user.id = :userId ORDER BY sa.createdAt DESC LIMIT 1")
     SkinAnalysis findLatestByUserId(@Param("userId") Long userId);
 
+    /**
+     * Whether an image URL belongs to one of the user's analyses
+     */
+    boolean existsByUserIdAndImageUrl(Long userId, String imageUrl);
+
+    /**
+     * Skin type and concerns of a user's latest analysis, without the TEXT columns
+     */
+    @Query("SELECT new com.skincare.dto.SkinAnalysisFacts(sa.id, sa.user.id, sa.skinTypeDetected, "
+            + "sa.acneDetected, sa.darkSpotsDetected, sa.wrinklesDetected, sa.drynessDetected, sa.rednessDetected, "
+            + "sa.confidenceScore, sa.createdAt) FROM SkinAnalysis sa WHERE sa.user.id = :userId "
+            + "ORDER BY sa.createdAt DESC, sa.id DESC")
+    List<SkinAnalysisFacts> findLatestFactsByUserId(@Param("userId") Long userId, Limit limit);
+
     /**
      * Find analyses with high confidence scores
      */
@@ -60,7 +137,56 @@ public interface SkinAnalysisRepository extends JpaRepository<SkinAnalysis, Long
 
     /**
      * Get analysis statistics
+     * @deprecated full table scan; read {@code AnalyticsAggregateService#overview()} instead
      */
+    @Deprecated
     @Query("SELECT COUNT(sa), AVG(sa.confidenceScore), sa.skinTypeDetected FROM SkinAnalysis sa GROUP BY sa.skinTypeDetected")
     List<Object[]> getAnalysisStatistics();
+
+    /**
+     * Per skin type counts, confidence sums and concern counts of analyses after an id
+     * Used to rebuild or catch up the in-memory aggregates (afterId = 0 scans everything)
+     */
+    @Query("SELECT new com.skincare.dto.SkinTypeAggregate(sa.skinTypeDetected, COUNT(sa), SUM(sa.confidenceScore), "
+            + "SUM(CASE WHEN sa.acneDetected = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN sa.darkSpotsDetected = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN sa.wrinklesDetected = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN sa.drynessDetected = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN sa.rednessDetected = true THEN 1 ELSE 0 END), "
+            + "MAX(sa.id)) FROM SkinAnalysis sa WHERE sa.id > :afterId GROUP BY sa.skinTypeDetected")
+    List<SkinTypeAggregate> aggregateBySkinTypeAfter(@Param("afterId") Long afterId);
+
+    /**
+     * Same aggregate over ids in (afterId, upToId]
+     */
+    @Query("SELECT new com.skincare.dto.SkinTypeAggregate(sa.skinTypeDetected, COUNT(sa), SUM(sa.confidenceScore), "
+            + "SUM(CASE WHEN sa.acneDetected = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN sa.darkSpotsDetected = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN sa.wrinklesDetected = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN sa.drynessDetected = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN sa.rednessDetected = true THEN 1 ELSE 0 END), "
+            + "MAX(sa.id)) FROM SkinAnalysis sa WHERE sa.id > :afterId AND sa.id <= :upToId "
+            + "GROUP BY sa.skinTypeDetected")
+    List<SkinTypeAggregate> aggregateBySkinTypeBetween(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    /**
+     * Which of these analysis ids exist
+     */
+    @Query("SELECT sa.id FROM SkinAnalysis sa WHERE sa.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Highest analysis id, or null when the table is empty
+     */
+    @Query("SELECT MAX(sa.id) FROM SkinAnalysis sa")
+    Long findMaxId();
+
+    /**
+     * Stream per-user analysis counts over rows up to an id (leaderboard load)
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.skincare.dto.UserAnalysisCount(sa.user.id, CAST(NULL AS String), COUNT(sa)) "
+            + "FROM SkinAnalysis sa WHERE sa.id <= :maxId GROUP BY sa.user.id")
+    Stream<UserAnalysisCount> streamCountsByUserUpTo(@Param("maxId") Long maxId);
 }
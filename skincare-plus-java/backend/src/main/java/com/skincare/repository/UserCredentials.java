@@ -0,0 +1,22 @@
+package com.skincare.repository;
+
+import com.skincare.model.User;
+
+/**
+ * Closed projection of the columns needed to authenticate a user
+ * Selecting only these keeps login away from the lazy collections and TEXT columns.
+ */
+public interface UserCredentials {
+
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getPassword();
+
+    User.Role getRole();
+
+    Boolean getIsActive();
+}
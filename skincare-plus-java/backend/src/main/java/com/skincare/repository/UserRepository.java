@@ -1,13 +1,21 @@
 package com.skincare.repository;
 
+import com.skincare.dto.DashboardProfile;
+import com.skincare.dto.UserAnalysisCount;
 import com.skincare.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * User Repository
@@ -21,6 +29,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Resolve a user id without loading the entity
+     */
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    /**
+     * Dashboard profile section by id (primary key probe, no password)
+     */
+    @Query("SELECT new com.skincare.dto.DashboardProfile(u.id, u.username, u.email, u.fullName, u.skinType, u.createdAt) "
+            + "FROM User u WHERE u.id = :id")
+    Optional<DashboardProfile> findDashboardProfileById(@Param("id") Long id);
+
     /**
      * Find user by email
      */
@@ -36,6 +57,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Boolean existsByEmail(String email);
 
+    /**
+     * Load login credentials by username (unique index probe)
+     */
+    Optional<UserCredentials> findCredentialsByUsername(String username);
+
+    /**
+     * Load login credentials by email (unique index probe)
+     */
+    Optional<UserCredentials> findCredentialsByEmail(String email);
+
+    /**
+     * Stream every username and email (availability filter warm-up)
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username, u.email FROM User u")
+    Stream<Object[]> streamUsernamesAndEmails();
+
     /**
      * Find user by username or email
      */
@@ -59,10 +98,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
      * Custom query to find users with most analyses
+     * @deprecated returns full entities whose lazy collections load one by one;
+     * use {@link #findTopUsersByAnalysisCount} or {@code LeaderboardService}
      */
+    @Deprecated
     @Query("SELECT u FROM User u LEFT JOIN u.skinAnalyses sa GROUP BY u.id ORDER BY COUNT(sa) DESC")
     List<User> findUsersWithMostAnalyses();
 
+    /**
+     * Users with the most analyses as (id, username, count) projections
+     */
+    @Query("SELECT new com.skincare.dto.UserAnalysisCount(u.id, u.username, COUNT(sa)) "
+            + "FROM SkinAnalysis sa JOIN sa.user u GROUP BY u.id, u.username ORDER BY COUNT(sa) DESC, u.id ASC")
+    List<UserAnalysisCount> findTopUsersByAnalysisCount(Limit limit);
+
+    /**
+     * Which of the given ids belong to existing users (bulk import validation)
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Usernames for a page of user ids
+     */
+    @Query("SELECT u.id, u.username FROM User u WHERE u.id IN :ids")
+    List<Object[]> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Count total active users
      */
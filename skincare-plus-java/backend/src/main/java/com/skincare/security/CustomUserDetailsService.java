@@ -0,0 +1,42 @@
+package com.skincare.security;
+
+import com.skincare.repository.UserCredentials;
+import com.skincare.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Custom UserDetailsService
+ * Resolves a login identifier with index-friendly probes: an identifier that
+ * looks like an email hits the email index first, anything else the username
+ * index first, falling back to the other only on a miss.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomUserDetailsService implements UserDetailsService {
+
+    private final UserRepository userRepository;
+
+    @Override
+    public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
+        boolean looksLikeEmail = usernameOrEmail.indexOf('@') >= 0;
+
+        Optional<UserCredentials> credentials = looksLikeEmail
+                ? userRepository.findCredentialsByEmail(usernameOrEmail)
+                : userRepository.findCredentialsByUsername(usernameOrEmail);
+        if (credentials.isEmpty()) {
+            credentials = looksLikeEmail
+                    ? userRepository.findCredentialsByUsername(usernameOrEmail)
+                    : userRepository.findCredentialsByEmail(usernameOrEmail);
+        }
+
+        return credentials
+                .map(UserPrincipal::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + usernameOrEmail));
+    }
+}
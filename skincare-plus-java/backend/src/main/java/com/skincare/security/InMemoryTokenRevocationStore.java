@@ -0,0 +1,90 @@
+package com.skincare.security;
+
+import com.skincare.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-Memory Token Revocation Store
+ * Local, single-node denylist. Revoked ids are grouped into buckets by token
+ * expiry; each bucket pairs a Bloom filter (fast negative answer) with an exact
+ * set (confirms positives). A bucket is dropped as soon as every token in it
+ * has expired, so memory is bounded by the logouts of one token lifetime.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.revocation.store", havingValue = "local", matchIfMissing = true)
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final long bucketMillis;
+    private final long bucketCapacity;
+
+    private final ConcurrentNavigableMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+
+    public InMemoryTokenRevocationStore(
+            @Value("${jwt.revocation.bucket-millis:3600000}") long bucketMillis,
+            @Value("${jwt.revocation.bucket-capacity:100000}") long bucketCapacity) {
+        this.bucketMillis = bucketMillis;
+        this.bucketCapacity = bucketCapacity;
+    }
+
+    @Override
+    public void revoke(String tokenId, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        buckets.computeIfAbsent(bucketOf(expiresAtMillis), key -> new Bucket(bucketCapacity))
+                .add(tokenId);
+        purgeExpired(now);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId, long expiresAtMillis) {
+        Bucket bucket = buckets.get(bucketOf(expiresAtMillis));
+        return bucket != null && bucket.contains(tokenId);
+    }
+
+    /**
+     * Number of revoked ids still tracked
+     */
+    public long size() {
+        return buckets.values().stream().mapToLong(bucket -> bucket.exact.size()).sum();
+    }
+
+    private long bucketOf(long expiresAtMillis) {
+        return expiresAtMillis / bucketMillis;
+    }
+
+    /**
+     * Drop buckets whose latest possible expiry has passed
+     */
+    private void purgeExpired(long now) {
+        buckets.headMap(bucketOf(now)).clear();
+    }
+
+    private static final class Bucket {
+        private final BloomFilter filter;
+        private final Set<String> exact = ConcurrentHashMap.newKeySet();
+
+        Bucket(long capacity) {
+            this.filter = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        }
+
+        void add(String tokenId) {
+            exact.add(tokenId);
+            filter.add(tokenId);
+        }
+
+        boolean contains(String tokenId) {
+            return filter.mightContain(tokenId) && exact.contains(tokenId);
+        }
+    }
+}
@@ -2,6 +2,10 @@ package com.skincare.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,22 +13,40 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * JWT Token Provider
  * Generates and validates JWT tokens
+ *
+ * The signing key and parser are built once at startup; both are immutable
+ * and thread-safe, so every request shares them.
  */
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationStore tokenRevocationStore;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     /**
@@ -32,15 +54,7 @@ public class JwtTokenProvider {
      */
     public String generateToken(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpiration);
-
-        return Jwts.builder()
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+        return generateTokenFromUsername(userDetails.getUsername());
     }
 
     /**
@@ -51,59 +65,109 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Parse and verify a token once
+     * Returns claims usable for username, expiry and validity checks;
+     * an invalid token yields {@link TokenClaims#isValid()} == false.
+     * Previously verified, unexpired tokens are served from the cache;
+     * revoked tokens are reported invalid.
+     */
+    public TokenClaims parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            logger.debug("JWT claims string is empty");
+            return TokenClaims.invalid();
+        }
+        try {
+            return verifyNotRevoked(token);
+        } catch (MalformedJwtException ex) {
+            logger.debug("Invalid JWT token: {}", ex.getMessage());
+        } catch (ExpiredJwtException ex) {
+            logger.debug("Expired JWT token: {}", ex.getMessage());
+        } catch (UnsupportedJwtException ex) {
+            logger.debug("Unsupported JWT token: {}", ex.getMessage());
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
+            logger.debug("Invalid JWT signature: {}", ex.getMessage());
+        } catch (JwtException ex) {
+            logger.debug("Invalid JWT: {}", ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            logger.debug("JWT claims string is empty: {}", ex.getMessage());
+        }
+        return TokenClaims.invalid();
+    }
+
+    /**
+     * Serve from the verified-token cache, or verify the signature and cache the result.
+     * Throws the parser's JwtException for invalid tokens.
+     */
+    private TokenClaims verify(String token) {
+        TokenClaims cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        TokenClaims claims = TokenClaims.of(jwtParser.parseClaimsJws(token).getBody());
+        verifiedTokenCache.put(token, claims);
+        return claims;
+    }
+
+    /**
+     * Verify a token and reject it if revoked
+     * Every read of a token's claims goes through here, so no caller can accept a revoked token.
+     */
+    private TokenClaims verifyNotRevoked(String token) {
+        TokenClaims claims = verify(token);
+        if (isRevoked(claims)) {
+            throw new JwtException("Revoked JWT token");
+        }
+        return claims;
+    }
+
+    private boolean isRevoked(TokenClaims claims) {
+        return claims.getTokenId() != null
+                && tokenRevocationStore.isRevoked(claims.getTokenId(), claims.getExpiration().getTime());
+    }
+
+    /**
+     * Revoke a token until it expires (logout)
+     * Tokens without a jti cannot be revoked and simply run out.
+     */
+    public void revokeToken(String token) {
+        TokenClaims claims = parseToken(token);
+        if (!claims.isValid() || claims.getTokenId() == null) {
+            return;
+        }
+        tokenRevocationStore.revoke(claims.getTokenId(), claims.getExpiration().getTime());
+        verifiedTokenCache.invalidate(token);
+    }
+
     /**
      * Get username from JWT token
+     * Throws JwtException for invalid or revoked tokens.
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+        return verifyNotRevoked(token).getUsername();
     }
 
     /**
      * Validate JWT token
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
-        } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
-        }
-        return false;
+        return parseToken(token).isValid();
     }
 
     /**
      * Get expiration date from token
+     * Throws JwtException for invalid or revoked tokens.
      */
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getExpiration();
+        return verifyNotRevoked(token).getExpiration();
     }
 
     /**
@@ -0,0 +1,40 @@
+package com.skincare.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Token Claims
+ * Result of a single parse/verify pass over a JWT, so username,
+ * expiry and validity can all be read without parsing the token again
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TokenClaims {
+
+    private static final TokenClaims INVALID = new TokenClaims(false, null, null, null);
+
+    private final boolean valid;
+    private final String username;
+    private final String tokenId;
+    private final Date expiration;
+
+    static TokenClaims of(Claims claims) {
+        return new TokenClaims(true, claims.getSubject(), claims.getId(), claims.getExpiration());
+    }
+
+    static TokenClaims invalid() {
+        return INVALID;
+    }
+
+    /**
+     * Check if token is expired at the given instant
+     */
+    public boolean isExpiredAt(long epochMillis) {
+        return expiration != null && expiration.getTime() <= epochMillis;
+    }
+}
@@ -0,0 +1,20 @@
+package com.skincare.security;
+
+/**
+ * Token Revocation Store
+ * Denylist of revoked token ids (jti). Implementations may be local or shared
+ * between nodes; entries only need to be kept until the token would expire anyway.
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * Revoke a token id until the token's own expiry
+     */
+    void revoke(String tokenId, long expiresAtMillis);
+
+    /**
+     * Check if a token id has been revoked
+     * The token's expiry is passed so implementations can go straight to the right bucket.
+     */
+    boolean isRevoked(String tokenId, long expiresAtMillis);
+}
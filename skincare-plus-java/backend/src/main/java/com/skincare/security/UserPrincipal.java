@@ -0,0 +1,64 @@
+package com.skincare.security;
+
+import com.skincare.repository.UserCredentials;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * User Principal
+ * Authenticated user carried through login, so the id, email and role
+ * needed for the JWT response don't require a second lookup
+ */
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String password;
+    private final String role;
+    private final boolean active;
+
+    public static UserPrincipal from(UserCredentials credentials) {
+        return new UserPrincipal(
+                credentials.getId(),
+                credentials.getUsername(),
+                credentials.getEmail(),
+                credentials.getPassword(),
+                credentials.getRole() != null ? credentials.getRole().toString() : "USER",
+                !Boolean.FALSE.equals(credentials.getIsActive())
+        );
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
@@ -0,0 +1,165 @@
+package com.skincare.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Verified Token Cache
+ * Bounded, concurrent cache of tokens whose signature has already been verified.
+ * Keyed by a SHA-256 digest of the token so raw bearer tokens are never held in memory.
+ * An entry is only served while the token's exp claim lies in the future; expired
+ * entries are swept on a schedule, never on the insert path.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    });
+
+    private final int maxSize;
+    private final Map<String, TokenClaims> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:100000}") int maxSize,
+                              MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        FunctionCounter.builder("jwt.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("jwt.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Get verified claims for a token, or null if absent or expired
+     */
+    public TokenClaims get(String token) {
+        String key = digest(token);
+        TokenClaims claims = entries.get(key);
+        if (claims == null) {
+            misses.increment();
+            return null;
+        }
+        if (claims.isExpiredAt(System.currentTimeMillis())) {
+            if (entries.remove(key, claims)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return claims;
+    }
+
+    /**
+     * Cache claims of a token that has just been verified
+     */
+    public void put(String token, TokenClaims claims) {
+        if (!claims.isValid() || claims.getExpiration() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(digest(token), claims);
+    }
+
+    /**
+     * Drop a single token (e.g. on logout)
+     */
+    public void invalidate(String token) {
+        if (entries.remove(digest(token)) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Drop every cached token matching the predicate (revocation hook)
+     */
+    public void invalidateIf(Predicate<TokenClaims> predicate) {
+        entries.values().removeIf(claims -> {
+            boolean match = predicate.test(claims);
+            if (match) {
+                evictions.increment();
+            }
+            return match;
+        });
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Purge expired entries
+     */
+    @Scheduled(fixedDelayString = "${jwt.cache.sweep-interval-ms:60000}",
+               initialDelayString = "${jwt.cache.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        invalidateIf(claims -> claims.isExpiredAt(now));
+    }
+
+    /**
+     * Evict the entry expiring soonest out of a small sample (approximate, O(1) per insert)
+     */
+    private void makeRoom() {
+        String victim = null;
+        long soonest = Long.MAX_VALUE;
+        Iterator<Map.Entry<String, TokenClaims>> it = entries.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && it.hasNext(); i++) {
+            Map.Entry<String, TokenClaims> candidate = it.next();
+            long expiresAt = candidate.getValue().getExpiration().getTime();
+            if (expiresAt < soonest) {
+                soonest = expiresAt;
+                victim = candidate.getKey();
+            }
+        }
+        if (victim != null && entries.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    }
+}
@@ -0,0 +1,116 @@
+package com.skincare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.skincare.dto.AnalysisHistoryPage;
+import com.skincare.dto.SkinAnalysisSummary;
+import com.skincare.repository.SkinAnalysisRepository;
+import com.skincare.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Analysis History Service
+ * Keyset-paginated and streaming access to a user's analysis history
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalysisHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final SkinAnalysisRepository skinAnalysisRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public Long resolveUserId(String username) {
+        return userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    /**
+     * Fetch one page, newest first
+     * @param cursor opaque cursor from a previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public AnalysisHistoryPage getPage(Long userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<SkinAnalysisSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = skinAnalysisRepository.findSummariesByUserId(userId, fetch);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            rows = skinAnalysisRepository.findSummariesByUserIdBefore(
+                    userId, position.createdAt(), position.id(), fetch);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new AnalysisHistoryPage(rows, null);
+        }
+        List<SkinAnalysisSummary> page = rows.subList(0, pageSize);
+        SkinAnalysisSummary last = page.get(pageSize - 1);
+        return new AnalysisHistoryPage(page, new Cursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Write the whole history as NDJSON, one row at a time
+     * Rows come from a server-side cursor, so memory use does not grow with history length.
+     */
+    @Transactional(readOnly = true)
+    public void exportNdjson(Long userId, OutputStream out) {
+        ObjectWriter writer = objectMapper.writerFor(SkinAnalysisSummary.class);
+        try (Stream<SkinAnalysisSummary> rows = skinAnalysisRepository.streamSummariesByUserId(userId)) {
+            Iterator<SkinAnalysisSummary> it = rows.iterator();
+            int written = 0;
+            while (it.hasNext()) {
+                out.write(writer.writeValueAsBytes(it.next()));
+                out.write('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Keyset position: last (createdAt, id) seen by the client
+     */
+    record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid history cursor", ex);
+            }
+        }
+    }
+}
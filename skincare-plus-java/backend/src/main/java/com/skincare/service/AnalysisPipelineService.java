@@ -0,0 +1,440 @@
+package com.skincare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skincare.dto.AnalysisOutcome;
+import com.skincare.model.AnalysisJob;
+import com.skincare.model.SkinAnalysis;
+import com.skincare.model.User;
+import com.skincare.repository.AnalysisJobRepository;
+import com.skincare.repository.RecommendationRepository;
+import com.skincare.repository.SkinAnalysisRepository;
+import com.skincare.repository.UserRepository;
+import com.skincare.util.PerceptualHash;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Analysis Pipeline Service
+ * Staged skin-image analysis: upload -> persist job -> enqueue -> analyze -> write
+ * SkinAnalysis/Recommendation rows. The analysis_jobs table is the durable queue;
+ * a bounded local worker pool drains it, and a periodic scan picks up jobs that
+ * did not fit in the pool. A running job's updated_at is its lease: this node
+ * renews it while the job runs, and any node requeues jobs whose lease lapsed
+ * (their worker crashed). Failed attempts are retried with exponential backoff.
+ * A worker only records its result while it still holds the lease it claimed.
+ */
+@Service
+public class AnalysisPipelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisPipelineService.class);
+
+    private final AnalysisJobRepository jobRepository;
+    private final SkinAnalysisRepository skinAnalysisRepository;
+    private final RecommendationRepository recommendationRepository;
+    private final RecommendationEngine recommendationEngine;
+    private final UserRepository userRepository;
+    private final SkinAnalyzer skinAnalyzer;
+    private final BatchingSkinAnalyzer batchingSkinAnalyzer;
+    private final ImageStore imageStore;
+    private final ImageDerivativeService imageDerivativeService;
+    private final AnalysisResultCache analysisResultCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final String modelId;
+    private final boolean batchingEnabled;
+    private final int maxAttempts;
+    private final long staleAfterMillis;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+
+    private final ThreadPoolExecutor workers;
+    private final Set<Long> dispatched = ConcurrentHashMap.newKeySet();
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Queue<Consumer<AnalysisJob>>> waiters = new ConcurrentHashMap<>();
+
+    private final Timer analyzeTimer;
+
+    public AnalysisPipelineService(AnalysisJobRepository jobRepository,
+                                   SkinAnalysisRepository skinAnalysisRepository,
+                                   RecommendationRepository recommendationRepository,
+                                   RecommendationEngine recommendationEngine,
+                                   UserRepository userRepository,
+                                   SkinAnalyzer skinAnalyzer,
+                                   BatchingSkinAnalyzer batchingSkinAnalyzer,
+                                   ImageStore imageStore,
+                                   ImageDerivativeService imageDerivativeService,
+                                   AnalysisResultCache analysisResultCache,
+                                   TransactionTemplate transactionTemplate,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${analysis.ai.provider:claude}:${claude.api.model}") String modelId,
+                                   @Value("${analysis.batch.enabled:true}") boolean batchingEnabled,
+                                   @Value("${analysis.workers:4}") int workerCount,
+                                   @Value("${analysis.queue-capacity:100}") int queueCapacity,
+                                   @Value("${analysis.max-attempts:3}") int maxAttempts,
+                                   @Value("${analysis.stale-after-ms:120000}") long staleAfterMillis,
+                                   @Value("${analysis.retry-backoff-ms:5000}") long retryBackoffMillis,
+                                   @Value("${analysis.retry-backoff-max-ms:300000}") long maxRetryBackoffMillis) {
+        this.jobRepository = jobRepository;
+        this.skinAnalysisRepository = skinAnalysisRepository;
+        this.recommendationRepository = recommendationRepository;
+        this.recommendationEngine = recommendationEngine;
+        this.userRepository = userRepository;
+        this.skinAnalyzer = skinAnalyzer;
+        this.batchingSkinAnalyzer = batchingSkinAnalyzer;
+        this.imageStore = imageStore;
+        this.imageDerivativeService = imageDerivativeService;
+        this.analysisResultCache = analysisResultCache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.modelId = modelId;
+        this.batchingEnabled = batchingEnabled;
+        this.maxAttempts = maxAttempts;
+        this.staleAfterMillis = staleAfterMillis;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxRetryBackoffMillis = maxRetryBackoffMillis;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "analysis-worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.analyzeTimer = Timer.builder("analysis.pipeline.analyze")
+                .description("Time spent in the AI analyzer per job")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("analysis.pipeline.queue.depth", workers, w -> w.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("analysis.pipeline.active", workers, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Store the upload, record a PENDING job and hand it to the workers
+     * Returns as soon as the file is on disk and the job row is committed.
+     */
+    public AnalysisJob submit(String username, MultipartFile file) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        ImageStore.StoredImage stored = storeUpload(file);
+        imageDerivativeService.generateAsync(stored);
+        AnalysisJob job = jobRepository.save(AnalysisJob.builder()
+                .user(user)
+                .imagePath(stored.path().toString())
+                .contentType(stored.contentType())
+                .build());
+
+        dispatch(job.getId());
+        return job;
+    }
+
+    /**
+     * Get a job owned by the user
+     */
+    public AnalysisJob getJob(Long jobId, Long userId) {
+        return jobRepository.findByIdAndUserId(jobId, userId)
+                .orElseThrow(() -> new RuntimeException("Analysis job not found"));
+    }
+
+    /**
+     * Long-poll for a job to finish
+     * Completes as soon as this node finishes the job, or with the current state on timeout.
+     * The returned DeferredResult must be handed back to Spring MVC for the timeout to apply.
+     */
+    public <T> DeferredResult<T> awaitJob(Long jobId, Long userId, long timeoutMillis,
+                                          Function<AnalysisJob, T> mapper) {
+        AnalysisJob job = getJob(jobId, userId);
+        DeferredResult<T> result = new DeferredResult<>(timeoutMillis);
+        if (job.isFinished() || timeoutMillis <= 0) {
+            result.setResult(mapper.apply(job));
+            return result;
+        }
+
+        Queue<Consumer<AnalysisJob>> queue =
+                waiters.computeIfAbsent(jobId, id -> new ConcurrentLinkedQueue<>());
+        Consumer<AnalysisJob> waiter = finished -> result.setResult(mapper.apply(finished));
+        queue.add(waiter);
+        result.onTimeout(() -> result.setResult(mapper.apply(jobRepository.findById(jobId).orElse(job))));
+        result.onCompletion(() -> queue.remove(waiter));
+
+        // The job may have finished between the first read and registering
+        jobRepository.findById(jobId).filter(AnalysisJob::isFinished).ifPresent(waiter);
+        return result;
+    }
+
+    /**
+     * Requeue jobs left RUNNING by a previous process, then drain the backlog
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        reclaimStale();
+        dispatchPending();
+    }
+
+    /**
+     * Renew the lease of every job running on this node
+     */
+    @Scheduled(fixedDelayString = "${analysis.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (!running.isEmpty()) {
+            jobRepository.heartbeat(List.copyOf(running));
+        }
+    }
+
+    /**
+     * Requeue RUNNING jobs whose lease lapsed, on whichever node runs this first;
+     * jobs that already used their last attempt are failed instead
+     */
+    @Scheduled(fixedDelayString = "${analysis.reclaim-interval-ms:60000}",
+               initialDelayString = "${analysis.reclaim-interval-ms:60000}")
+    public void reclaimStale() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(staleAfterMillis));
+        jobRepository.failStale(cutoff, maxAttempts);
+        jobRepository.requeueStale(cutoff);
+    }
+
+    /**
+     * Pick up pending jobs that did not fit in the worker queue or are due for a retry
+     */
+    @Scheduled(fixedDelayString = "${analysis.poll-interval-ms:5000}")
+    public void dispatchPending() {
+        int free = workers.getQueue().remainingCapacity();
+        if (free <= 0) {
+            return;
+        }
+        for (Long jobId : jobRepository.findPendingIds(LocalDateTime.now(), Limit.of(free))) {
+            dispatch(jobId);
+        }
+    }
+
+    private void dispatch(Long jobId) {
+        if (!dispatched.add(jobId)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    process(jobId);
+                } finally {
+                    dispatched.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Still PENDING in the database; the periodic scan will retry
+            dispatched.remove(jobId);
+        }
+    }
+
+    private void process(Long jobId) {
+        if (jobRepository.claim(jobId, LocalDateTime.now()) == 0) {
+            return;
+        }
+        running.add(jobId);
+        try {
+            AnalysisJob job = jobRepository.findById(jobId).orElseThrow();
+            // The claim bumped attempts; if the reaper requeues this job and another node claims it,
+            // attempts moves on and our conditional writes below match nothing
+            int claimedAttempts = job.getAttempts();
+
+            boolean owned;
+            try {
+                AnalysisOutcome outcome = analyze(job);
+                owned = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    Long analysisId = persist(job, outcome);
+                    if (jobRepository.complete(jobId, claimedAttempts, analysisId) == 0) {
+                        // Lease lost: drop the analysis rows, the new owner writes its own
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                    return true;
+                }));
+            } catch (Exception ex) {
+                boolean retry = claimedAttempts < maxAttempts;
+                owned = jobRepository.release(jobId, claimedAttempts,
+                        retry ? AnalysisJob.JobStatus.PENDING : AnalysisJob.JobStatus.FAILED,
+                        truncate(ex.getMessage()),
+                        retry ? LocalDateTime.now().plus(backoff(claimedAttempts)) : null) == 1;
+            }
+
+            if (!owned) {
+                logger.warn("Lost the lease on analysis job {} (attempt {}), discarding its result", jobId,
+                        claimedAttempts);
+                return;
+            }
+            jobRepository.findById(jobId)
+                    .filter(AnalysisJob::isFinished)
+                    .ifPresent(this::notifyWaiters);
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    /**
+     * retry-backoff-ms doubled per attempt already made, capped at retry-backoff-max-ms
+     */
+    private Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        return Duration.ofMillis(Math.min(maxRetryBackoffMillis, retryBackoffMillis << doublings));
+    }
+
+    /**
+     * Reuse a cached analysis of a perceptually identical photo, or call the analyzer
+     */
+    private AnalysisOutcome analyze(AnalysisJob job) {
+        Optional<ImageStore.StoredImage> original = imageStore.findByPath(Paths.get(job.getImagePath()));
+        Long perceptualHash = original.map(this::perceptualHashOf).orElse(null);
+        if (perceptualHash != null) {
+            Optional<AnalysisOutcome> cached = analysisResultCache.find(modelId, perceptualHash);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+
+        ImageStore.StoredImage input = analysisInput(job);
+        long start = System.nanoTime();
+        AnalysisOutcome outcome = analyzeTimer.record(() -> batchingEnabled
+                ? batchingSkinAnalyzer.submit(new SkinAnalyzer.AnalysisImage(
+                        input.path(), input.contentType(), input.size())).join()
+                : skinAnalyzer.analyze(input.path(), input.contentType()));
+        if (perceptualHash != null && outcome != null) {
+            analysisResultCache.put(modelId, perceptualHash, outcome, System.nanoTime() - start);
+        }
+        return outcome;
+    }
+
+    /**
+     * dHash of the thumbnail derivative (already small, so cheap to decode)
+     */
+    private Long perceptualHashOf(ImageStore.StoredImage image) {
+        try {
+            ImageStore.StoredImage thumbnail = imageDerivativeService.get(image, ImageDerivativeService.Variant.THUMBNAIL);
+            BufferedImage decoded = ImageIO.read(thumbnail.path().toFile());
+            return decoded != null ? PerceptualHash.dHash(decoded) : null;
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Downscaled copy of the upload for the AI call, falling back to the original
+     * if it cannot be decoded (e.g. HEIC)
+     */
+    private ImageStore.StoredImage analysisInput(AnalysisJob job) {
+        Path original = Paths.get(job.getImagePath());
+        return imageStore.findByPath(original)
+                .map(image -> {
+                    try {
+                        return imageDerivativeService.get(image, ImageDerivativeService.Variant.ANALYSIS);
+                    } catch (RuntimeException ex) {
+                        return image;
+                    }
+                })
+                .orElseGet(() -> new ImageStore.StoredImage("", "jpg", original, 0, false));
+    }
+
+    private Long persist(AnalysisJob job, AnalysisOutcome outcome) {
+        User user = userRepository.getReferenceById(job.getUser().getId());
+
+        SkinAnalysis analysis = skinAnalysisRepository.save(SkinAnalysis.builder()
+                .user(user)
+                .imageUrl(imageStore.findByPath(Paths.get(job.getImagePath()))
+                        .map(ImageStore.StoredImage::url)
+                        .orElse(job.getImagePath()))
+                .analysisResult(outcome.getSummary())
+                .skinConcerns(toJson(outcome.getConcerns()))
+                .confidenceScore(outcome.getConfidenceScore())
+                .skinTypeDetected(outcome.getSkinType())
+                .acneDetected(outcome.isAcne())
+                .darkSpotsDetected(outcome.isDarkSpots())
+                .wrinklesDetected(outcome.isWrinkles())
+                .drynessDetected(outcome.isDryness())
+                .rednessDetected(outcome.isRedness())
+                .recommendations(outcome.getRecommendations())
+                .build());
+
+        recommendationRepository.save(recommendationEngine.recommend(user, analysis, outcome));
+
+        return analysis.getId();
+    }
+
+    private void notifyWaiters(AnalysisJob job) {
+        Queue<Consumer<AnalysisJob>> queue = waiters.remove(job.getId());
+        if (queue != null) {
+            queue.forEach(waiter -> waiter.accept(job));
+        }
+    }
+
+    private ImageStore.StoredImage storeUpload(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return imageStore.store(in, file.getContentType());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store uploaded image", ex);
+        }
+    }
+
+    private String toJson(List<String> concerns) {
+        try {
+            return concerns == null ? null : objectMapper.writeValueAsString(concerns);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
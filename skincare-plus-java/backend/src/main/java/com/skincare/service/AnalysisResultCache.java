@@ -0,0 +1,236 @@
+package com.skincare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skincare.dto.AnalysisOutcome;
+import com.skincare.util.BkTree;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analysis Result Cache
+ * Reuses AI analyses for identical or near-identical photos. Entries are keyed
+ * by model id plus a 64-bit perceptual hash and looked up in a BK-tree within
+ * analysis.cache.max-distance bits. The cache is persisted as an append-only
+ * file of (model, hash, upstream latency, outcome JSON) records and replayed
+ * at startup.
+ */
+@Service
+public class AnalysisResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisResultCache.class);
+
+    private static final int RECORD_MAGIC = 0x53434143;
+    /** Upper bound on one outcome's JSON; a larger length field means the record is corrupt */
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final int maxDistance;
+    private final int maxEntries;
+
+    private final Map<String, BkTree<Entry>> trees = new ConcurrentHashMap<>();
+    private DataOutputStream log;
+    private int entryCount;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter savedUpstreamSeconds;
+
+    public AnalysisResultCache(ObjectMapper objectMapper,
+                               @Value("${analysis.cache.file:./uploads/analysis-cache.log}") String file,
+                               @Value("${analysis.cache.max-distance:4}") int maxDistance,
+                               @Value("${analysis.cache.max-entries:1000000}") int maxEntries,
+                               MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.file = Paths.get(file).toAbsolutePath().normalize();
+        this.maxDistance = maxDistance;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("analysis.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("analysis.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.savedUpstreamSeconds = Counter.builder("analysis.cache.saved.upstream")
+                .description("Upstream latency avoided by cache hits")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("analysis.cache.entries", this, cache -> cache.entryCount).register(meterRegistry);
+    }
+
+    /**
+     * Replay the append-only file, then open it for appending
+     * Replay stops at the first record that cannot be decoded (a torn tail from a
+     * crash mid-write, or corruption); the file is truncated back to the last good
+     * record so new appends are not written behind the garbage.
+     */
+    @PostConstruct
+    synchronized void load() throws IOException {
+        Files.createDirectories(file.getParent());
+        if (Files.exists(file)) {
+            long good = replay();
+            long size = Files.size(file);
+            if (good < size) {
+                logger.warn("Analysis cache {}: dropping {} undecodable bytes after offset {}", file, size - good, good);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(good);
+                }
+            }
+        }
+        log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+    }
+
+    /**
+     * Index every decodable record
+     * @return offset just past the last good record
+     */
+    private long replay() throws IOException {
+        long good = 0;
+        CountingInputStream counted = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        try (DataInputStream in = new DataInputStream(counted)) {
+            while (true) {
+                if (in.readInt() != RECORD_MAGIC) {
+                    return good;
+                }
+                String model = in.readUTF();
+                long hash = in.readLong();
+                long latencyNanos = in.readLong();
+                int length = in.readInt();
+                if (length < 0 || length > MAX_RECORD_BYTES) {
+                    return good;
+                }
+                byte[] json = new byte[length];
+                in.readFully(json);
+                AnalysisOutcome outcome = objectMapper.readValue(json, AnalysisOutcome.class);
+                index(model, hash, new Entry(outcome, latencyNanos));
+                good = counted.count;
+            }
+        } catch (IOException | RuntimeException ex) {
+            // End of file, or a torn or corrupt record: everything before it is kept
+            return good;
+        }
+    }
+
+    /**
+     * Cached analysis for a photo perceptually close to this one
+     */
+    public Optional<AnalysisOutcome> find(String model, long perceptualHash) {
+        BkTree<Entry> tree = trees.get(model);
+        BkTree.Match<Entry> match = null;
+        if (tree != null) {
+            synchronized (tree) {
+                match = tree.nearest(perceptualHash, maxDistance);
+            }
+        }
+        if (match == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        savedUpstreamSeconds.increment(match.value().latencyNanos() / (double) TimeUnit.SECONDS.toNanos(1));
+        return Optional.of(match.value().outcome());
+    }
+
+    /**
+     * Remember a fresh analysis and append it to the file
+     */
+    public synchronized void put(String model, long perceptualHash, AnalysisOutcome outcome, long latencyNanos) {
+        if (entryCount >= maxEntries) {
+            return;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(outcome);
+            if (json.length > MAX_RECORD_BYTES) {
+                return;
+            }
+            log.writeInt(RECORD_MAGIC);
+            log.writeUTF(model);
+            log.writeLong(perceptualHash);
+            log.writeLong(latencyNanos);
+            log.writeInt(json.length);
+            log.write(json);
+            log.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append to analysis cache", ex);
+        }
+        index(model, perceptualHash, new Entry(outcome, latencyNanos));
+    }
+
+    private void index(String model, long hash, Entry entry) {
+        BkTree<Entry> tree = trees.computeIfAbsent(model, key -> new BkTree<>());
+        synchronized (tree) {
+            int before = tree.size();
+            tree.add(hash, entry);
+            entryCount += tree.size() - before;
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    private record Entry(AnalysisOutcome outcome, long latencyNanos) {
+    }
+
+    /**
+     * Bytes consumed so far, so replay knows where the last good record ended
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
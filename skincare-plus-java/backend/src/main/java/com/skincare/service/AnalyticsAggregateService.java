@@ -0,0 +1,382 @@
+package com.skincare.service;
+
+import com.skincare.dto.AnalyticsOverview;
+import com.skincare.dto.SkinAnalysisFacts;
+import com.skincare.dto.SkinTypeAggregate;
+import com.skincare.event.SkinAnalysisChangedEvent;
+import com.skincare.model.AnalyticsSummary;
+import com.skincare.model.SkinConcern;
+import com.skincare.repository.AnalyticsSummaryRepository;
+import com.skincare.repository.SkinAnalysisRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Analytics Aggregate Service
+ * Materialized analysis statistics (count, confidence sum and concern counts per
+ * skin type) kept in striped LongAdders and updated on every committed insert or
+ * delete, so the admin overview never scans skin_analysis. Checkpointed to
+ * analytics_summary; startup resumes from the checkpoint and only aggregates
+ * newer rows. Pooled ids do not commit in id order, so that resume can miss a
+ * late low id: a verification rebuild runs right after startup and nightly, and
+ * repairs any drift. Events committed during a rebuild are recorded and replayed
+ * onto it before the swap, so the rebuild never throws away a live insert.
+ */
+@Service
+public class AnalyticsAggregateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsAggregateService.class);
+
+    private static final SkinConcern[] CONCERNS = SkinConcern.values();
+    private static final int ID_CHECK_CHUNK = 1000;
+
+    private final SkinAnalysisRepository skinAnalysisRepository;
+    private final AnalyticsSummaryRepository analyticsSummaryRepository;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate snapshotTransaction;
+
+    private volatile Map<String, Counters> buckets = new ConcurrentHashMap<>();
+    private final LongAccumulator highWaterId = new LongAccumulator(Math::max, 0);
+
+    // Events that commit while loading are held back and replayed against the catch-up high-water mark
+    private final List<SkinAnalysisChangedEvent> heldBack = new ArrayList<>();
+    private volatile boolean loaded;
+
+    // Event listeners share the read lock; a rebuild takes the write lock to start recording and to swap
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Queue<SkinAnalysisChangedEvent> recording;
+
+    private final Counter driftCounter;
+
+    public AnalyticsAggregateService(SkinAnalysisRepository skinAnalysisRepository,
+                                     AnalyticsSummaryRepository analyticsSummaryRepository,
+                                     TaskScheduler taskScheduler,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.skinAnalysisRepository = skinAnalysisRepository;
+        this.analyticsSummaryRepository = analyticsSummaryRepository;
+        this.taskScheduler = taskScheduler;
+        // One consistent snapshot for the rebuild aggregate and the visibility check of recorded events
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.driftCounter = Counter.builder("analytics.verify.drift")
+                .description("Verification runs that found the live aggregates out of date")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resume from the last checkpoint, fold in analyses created after it, then
+     * reconcile in the background
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        Map<String, Counters> restored = new ConcurrentHashMap<>();
+        long checkpointId = 0;
+        for (AnalyticsSummary row : analyticsSummaryRepository.findAll()) {
+            restored.computeIfAbsent(row.getSkinType(), type -> new Counters()).restore(row);
+            checkpointId = Math.max(checkpointId, row.getHighWaterId());
+        }
+        long caughtUpTo = checkpointId;
+        for (SkinTypeAggregate aggregate : skinAnalysisRepository.aggregateBySkinTypeAfter(checkpointId)) {
+            restored.computeIfAbsent(SkinAnalysisFacts.normalizeSkinType(aggregate.skinType()), type -> new Counters())
+                    .add(aggregate);
+            caughtUpTo = Math.max(caughtUpTo, aggregate.maxId());
+        }
+
+        synchronized (heldBack) {
+            buckets = restored;
+            highWaterId.accumulate(caughtUpTo);
+            for (SkinAnalysisChangedEvent event : heldBack) {
+                boolean counted = event.facts().id() <= caughtUpTo;
+                if (event.type() == SkinAnalysisChangedEvent.ChangeType.CREATED && !counted
+                        || event.type() == SkinAnalysisChangedEvent.ChangeType.DELETED && counted) {
+                    apply(event);
+                }
+            }
+            heldBack.clear();
+            loaded = true;
+        }
+        taskScheduler.schedule(this::verify, Instant.now());
+    }
+
+    /**
+     * Fold a committed insert or delete into the counters
+     * Analyses are write-once; updates are left to the verification job.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalysisChanged(SkinAnalysisChangedEvent event) {
+        if (event.facts().id() == null || event.type() == SkinAnalysisChangedEvent.ChangeType.UPDATED) {
+            return;
+        }
+        if (!loaded) {
+            synchronized (heldBack) {
+                if (!loaded) {
+                    heldBack.add(event);
+                    return;
+                }
+            }
+        }
+        swapLock.readLock().lock();
+        try {
+            Queue<SkinAnalysisChangedEvent> rebuilding = recording;
+            if (rebuilding != null) {
+                rebuilding.add(event);
+            }
+            apply(event);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Current statistics, read from the counters (cost independent of table size)
+     */
+    public AnalyticsOverview overview() {
+        return overview(buckets);
+    }
+
+    private static AnalyticsOverview overview(Map<String, Counters> buckets) {
+        long total = 0;
+        long confidenceHundredths = 0;
+        Map<String, Long> bySkinType = new TreeMap<>();
+        Map<String, BigDecimal> averageBySkinType = new TreeMap<>();
+        Map<SkinConcern, Long> concernCounts = new EnumMap<>(SkinConcern.class);
+        for (SkinConcern concern : CONCERNS) {
+            concernCounts.put(concern, 0L);
+        }
+
+        for (Map.Entry<String, Counters> entry : buckets.entrySet()) {
+            Counters counters = entry.getValue();
+            long count = counters.count.sum();
+            if (count <= 0) {
+                continue;
+            }
+            long hundredths = counters.confidenceHundredths.sum();
+            total += count;
+            confidenceHundredths += hundredths;
+            bySkinType.put(entry.getKey(), count);
+            averageBySkinType.put(entry.getKey(), average(hundredths, count));
+            for (SkinConcern concern : CONCERNS) {
+                concernCounts.merge(concern, counters.concerns[concern.ordinal()].sum(), Long::sum);
+            }
+        }
+        return new AnalyticsOverview(total, average(confidenceHundredths, total),
+                bySkinType, averageBySkinType, concernCounts);
+    }
+
+    /**
+     * Persist the counters to analytics_summary
+     */
+    @Scheduled(fixedDelayString = "${analytics.checkpoint-interval-ms:60000}",
+               initialDelayString = "${analytics.checkpoint-interval-ms:60000}")
+    @Transactional
+    public void checkpoint() {
+        if (!loaded) {
+            return;
+        }
+        long highWater = highWaterId.get();
+        List<AnalyticsSummary> rows = new ArrayList<>();
+        buckets.forEach((skinType, counters) -> rows.add(counters.toSummary(skinType, highWater)));
+        analyticsSummaryRepository.saveAll(rows);
+    }
+
+    /**
+     * Recompute everything from skin_analysis and replace the counters if they drifted
+     * @return true when the live counters already matched
+     */
+    @Scheduled(cron = "${analytics.verify-cron:0 30 3 * * *}")
+    public boolean verify() {
+        if (!loaded) {
+            return true;
+        }
+        return !Boolean.FALSE.equals(snapshotTransaction.execute(status -> rebuildAndSwap()));
+    }
+
+    private boolean rebuildAndSwap() {
+        Queue<SkinAnalysisChangedEvent> recorded = new ConcurrentLinkedQueue<>();
+        setRecording(recorded);
+        try {
+            Long maxId = skinAnalysisRepository.findMaxId();
+            long cap = maxId != null ? maxId : 0;
+            Map<String, Counters> rebuilt = new ConcurrentHashMap<>();
+            for (SkinTypeAggregate aggregate : skinAnalysisRepository.aggregateBySkinTypeBetween(0L, cap)) {
+                rebuilt.computeIfAbsent(SkinAnalysisFacts.normalizeSkinType(aggregate.skinType()), type -> new Counters())
+                        .add(aggregate);
+            }
+
+            swapLock.writeLock().lock();
+            try {
+                replay(recorded, cap, rebuilt);
+                highWaterId.accumulate(cap);
+                recording = null;
+                if (overview(buckets).equals(overview(rebuilt))) {
+                    return true;
+                }
+                buckets = rebuilt;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            setRecording(null);
+        }
+        driftCounter.increment();
+        logger.warn("Analytics aggregates drifted from skin_analysis; replaced with rebuilt values");
+        return false;
+    }
+
+    private void setRecording(Queue<SkinAnalysisChangedEvent> queue) {
+        swapLock.writeLock().lock();
+        try {
+            recording = queue;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fold events recorded during a rebuild into it. Whether the rebuild already
+     * counted an id is taken from the same snapshot (ids above the cap never are),
+     * then each id's creates and deletes are applied in order.
+     */
+    private void replay(Queue<SkinAnalysisChangedEvent> recorded, long cap, Map<String, Counters> rebuilt) {
+        Set<Long> belowCap = new LinkedHashSet<>();
+        for (SkinAnalysisChangedEvent event : recorded) {
+            if (event.facts().id() <= cap) {
+                belowCap.add(event.facts().id());
+            }
+        }
+        Set<Long> visible = new HashSet<>();
+        List<Long> ids = new ArrayList<>(belowCap);
+        for (int from = 0; from < ids.size(); from += ID_CHECK_CHUNK) {
+            visible.addAll(skinAnalysisRepository.findExistingIds(ids.subList(from, Math.min(ids.size(), from + ID_CHECK_CHUNK))));
+        }
+
+        Map<Long, Boolean> counted = new HashMap<>();
+        for (SkinAnalysisChangedEvent event : recorded) {
+            Long id = event.facts().id();
+            boolean present = counted.computeIfAbsent(id, visible::contains);
+            boolean created = event.type() == SkinAnalysisChangedEvent.ChangeType.CREATED;
+            if (created != present) {
+                apply(rebuilt, event);
+                counted.put(id, created);
+            }
+        }
+    }
+
+    private void apply(SkinAnalysisChangedEvent event) {
+        apply(buckets, event);
+    }
+
+    private void apply(Map<String, Counters> target, SkinAnalysisChangedEvent event) {
+        SkinAnalysisFacts facts = event.facts();
+        int sign = event.type() == SkinAnalysisChangedEvent.ChangeType.DELETED ? -1 : 1;
+        target.computeIfAbsent(facts.skinType(), type -> new Counters()).add(facts, sign);
+        if (sign > 0) {
+            highWaterId.accumulate(facts.id());
+        }
+    }
+
+    private static BigDecimal average(long hundredths, long count) {
+        if (count <= 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return BigDecimal.valueOf(hundredths, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private static long hundredths(BigDecimal value) {
+        return value == null ? 0 : value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Striped counters of one skin type
+     */
+    private static final class Counters {
+        final LongAdder count = new LongAdder();
+        final LongAdder confidenceHundredths = new LongAdder();
+        final LongAdder[] concerns = new LongAdder[CONCERNS.length];
+
+        Counters() {
+            for (int i = 0; i < concerns.length; i++) {
+                concerns[i] = new LongAdder();
+            }
+        }
+
+        void add(SkinAnalysisFacts facts, int sign) {
+            count.add(sign);
+            confidenceHundredths.add(sign * hundredths(facts.confidenceScore()));
+            for (SkinConcern concern : CONCERNS) {
+                if (concern.isIn(facts.concernMask())) {
+                    concerns[concern.ordinal()].add(sign);
+                }
+            }
+        }
+
+        void add(SkinTypeAggregate aggregate) {
+            count.add(aggregate.count());
+            confidenceHundredths.add(hundredths(aggregate.confidenceSum()));
+            concerns[SkinConcern.ACNE.ordinal()].add(aggregate.acneCount());
+            concerns[SkinConcern.DARK_SPOTS.ordinal()].add(aggregate.darkSpotsCount());
+            concerns[SkinConcern.WRINKLES.ordinal()].add(aggregate.wrinklesCount());
+            concerns[SkinConcern.DRYNESS.ordinal()].add(aggregate.drynessCount());
+            concerns[SkinConcern.REDNESS.ordinal()].add(aggregate.rednessCount());
+        }
+
+        void restore(AnalyticsSummary row) {
+            count.add(row.getAnalysisCount());
+            confidenceHundredths.add(hundredths(row.getConfidenceSum()));
+            concerns[SkinConcern.ACNE.ordinal()].add(row.getAcneCount());
+            concerns[SkinConcern.DARK_SPOTS.ordinal()].add(row.getDarkSpotsCount());
+            concerns[SkinConcern.WRINKLES.ordinal()].add(row.getWrinklesCount());
+            concerns[SkinConcern.DRYNESS.ordinal()].add(row.getDrynessCount());
+            concerns[SkinConcern.REDNESS.ordinal()].add(row.getRednessCount());
+        }
+
+        AnalyticsSummary toSummary(String skinType, long highWaterId) {
+            return AnalyticsSummary.builder()
+                    .skinType(skinType)
+                    .analysisCount(count.sum())
+                    .confidenceSum(BigDecimal.valueOf(confidenceHundredths.sum(), 2))
+                    .acneCount(concerns[SkinConcern.ACNE.ordinal()].sum())
+                    .darkSpotsCount(concerns[SkinConcern.DARK_SPOTS.ordinal()].sum())
+                    .wrinklesCount(concerns[SkinConcern.WRINKLES.ordinal()].sum())
+                    .drynessCount(concerns[SkinConcern.DRYNESS.ordinal()].sum())
+                    .rednessCount(concerns[SkinConcern.REDNESS.ordinal()].sum())
+                    .highWaterId(highWaterId)
+                    .build();
+        }
+    }
+}
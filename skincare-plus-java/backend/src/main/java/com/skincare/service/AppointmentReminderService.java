@@ -0,0 +1,398 @@
+package com.skincare.service;
+
+import com.skincare.dto.ReminderNotice;
+import com.skincare.event.AppointmentChangedEvent;
+import com.skincare.model.Appointment;
+import com.skincare.model.AppointmentReminder;
+import com.skincare.repository.AppointmentReminderRepository;
+import com.skincare.repository.AppointmentRepository;
+import com.skincare.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Appointment Reminder Service
+ * Sends a reminder a fixed number of hours before each active appointment.
+ *
+ * Reminder times of the next window of appointments are kept in a
+ * {@link HierarchicalTimingWheel}, which is read from the database once and
+ * then extended in small increments. Committed appointment changes add timers
+ * for new or moved times. Cancelled and moved appointments are not removed:
+ * when a timer fires, it is checked against the current row and dropped if
+ * stale.
+ *
+ * Due reminders go out in batches. Each one is first claimed in
+ * appointment_reminders (unique per appointment and time), so it is sent once
+ * across restarts and nodes. Claims whose send did not complete are retried.
+ * After a restart, reminders that fell due while the node was down are sent,
+ * provided the appointment has not started.
+ */
+@Service
+public class AppointmentReminderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderService.class);
+
+    private static final Set<Appointment.AppointmentStatus> REMINDABLE = EnumSet.of(
+            Appointment.AppointmentStatus.SCHEDULED,
+            Appointment.AppointmentStatus.CONFIRMED,
+            Appointment.AppointmentStatus.RESCHEDULED);
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_LEVELS = 3;
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentReminderRepository reminderRepository;
+    private final ReminderSender reminderSender;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration leadTime;
+    private final Duration window;
+    private final Duration catchUp;
+    private final Duration retryAfter;
+    private final int batchSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final HierarchicalTimingWheel wheel;
+    private volatile long loadedUntil = Long.MIN_VALUE;
+    private volatile boolean loaded;
+
+    private final Counter sent;
+    private final Counter stale;
+    private final Counter rejected;
+    private final Counter failed;
+
+    public AppointmentReminderService(AppointmentRepository appointmentRepository,
+                                      AppointmentReminderRepository reminderRepository,
+                                      ReminderSender reminderSender,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${reminders.hours-before:24}") long hoursBefore,
+                                      @Value("${reminders.window-hours:6}") long windowHours,
+                                      @Value("${reminders.catch-up-hours:12}") long catchUpHours,
+                                      @Value("${reminders.retry-after-ms:300000}") long retryAfterMs,
+                                      @Value("${reminders.batch-size:500}") int batchSize,
+                                      @Value("${reminders.tick-ms:1000}") long tickMs,
+                                      @Value("${reminders.max-pending:10000000}") int maxPending,
+                                      MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.reminderRepository = reminderRepository;
+        this.reminderSender = reminderSender;
+        this.transactionTemplate = transactionTemplate;
+        this.leadTime = Duration.ofHours(hoursBefore);
+        this.window = Duration.ofHours(windowHours);
+        this.catchUp = Duration.ofHours(catchUpHours);
+        this.retryAfter = Duration.ofMillis(retryAfterMs);
+        this.batchSize = batchSize;
+        this.wheel = new HierarchicalTimingWheel(tickMs, WHEEL_BITS, WHEEL_LEVELS, maxPending, System.currentTimeMillis());
+        if (System.currentTimeMillis() + 2 * window.toMillis() > wheel.horizonMillis()) {
+            throw new IllegalStateException("reminders.window-hours is beyond the timing wheel's horizon");
+        }
+
+        this.sent = Counter.builder("reminders.sent").description("Reminders delivered").register(meterRegistry);
+        this.stale = Counter.builder("reminders.stale")
+                .description("Fired timers dropped because the appointment was cancelled, moved or already reminded")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("reminders.rejected")
+                .description("Timers deferred to a later window because the wheel was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("reminders.failed")
+                .description("Reminders whose send failed and will be retried")
+                .register(meterRegistry);
+        Gauge.builder("reminders.pending", this, AppointmentReminderService::pending).register(meterRegistry);
+    }
+
+    /**
+     * Load everything from the catch-up period through the first window
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void start() {
+        long now = System.currentTimeMillis();
+        load(now - catchUp.toMillis(), now + window.toMillis());
+        loaded = true;
+    }
+
+    /**
+     * Slide the window forward by the time that passed since the last extension
+     */
+    @Scheduled(fixedDelayString = "${reminders.refresh-ms:600000}")
+    @Transactional(readOnly = true)
+    public void extendWindow() {
+        if (loaded) {
+            load(loadedUntil, System.currentTimeMillis() + window.toMillis());
+        }
+    }
+
+    /**
+     * Add timers for committed appointment changes that fall inside the loaded window
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.type() == AppointmentChangedEvent.ChangeType.DELETED
+                || event.status() == null || !REMINDABLE.contains(event.status())
+                || event.appointmentDate() == null || event.appointmentTime() == null) {
+            return;
+        }
+        long remindAt = remindAtMillis(event.appointmentDate(), event.appointmentTime());
+        if (remindAt > loadedUntil || remindAt < System.currentTimeMillis() - catchUp.toMillis()) {
+            return;
+        }
+        schedule(event.appointmentId(), remindAt);
+    }
+
+    /**
+     * Fire due timers and send their reminders
+     */
+    @Scheduled(fixedDelayString = "${reminders.tick-ms:1000}")
+    public void tick() {
+        if (!loaded) {
+            return;
+        }
+        Set<Due> due = new LinkedHashSet<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), (id, tick) -> due.add(new Due(id, tick)));
+        }
+        List<Due> batch = new ArrayList<>(Math.min(due.size(), batchSize));
+        for (Due timer : due) {
+            batch.add(timer);
+            if (batch.size() == batchSize) {
+                dispatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * Resend claims whose delivery never completed
+     */
+    @Scheduled(fixedDelayString = "${reminders.retry-after-ms:300000}")
+    public void retryUnsent() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retryAfter);
+        List<AppointmentReminder> claims;
+        do {
+            claims = reminderRepository.findByStatusAndClaimedAtBeforeOrderByClaimedAtAsc(
+                    AppointmentReminder.Status.CLAIMED, cutoff, Limit.of(batchSize));
+            if (claims.isEmpty()) {
+                return;
+            }
+            Map<Long, ReminderNotice> notices = notices(claims.stream().map(AppointmentReminder::getAppointmentId).toList());
+            LocalDateTime now = LocalDateTime.now();
+            List<ReminderNotice> retry = new ArrayList<>();
+            List<Long> expired = new ArrayList<>();
+            for (AppointmentReminder claim : claims) {
+                ReminderNotice notice = notices.get(claim.getAppointmentId());
+                if (notice == null || !REMINDABLE.contains(notice.getStatus())
+                        || !notice.appointmentStart().isAfter(now)
+                        || !remindAt(notice).equals(claim.getRemindAt())) {
+                    expired.add(claim.getId());
+                } else {
+                    notice.setReminderId(claim.getId());
+                    notice.setRemindAt(claim.getRemindAt());
+                    retry.add(notice);
+                }
+            }
+            if (!expired.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status ->
+                        reminderRepository.updateStatus(expired, AppointmentReminder.Status.EXPIRED, now));
+                stale.increment(expired.size());
+            }
+            if (!retry.isEmpty() && !deliver(retry)) {
+                return;
+            }
+        } while (claims.size() == batchSize);
+    }
+
+    public int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Stream appointments whose reminder time is in (fromMillis, toMillis] into the wheel
+     */
+    private void load(long fromMillis, long toMillis) {
+        if (toMillis <= fromMillis) {
+            return;
+        }
+        // Published first, so changes committed while the rows stream in are scheduled too
+        loadedUntil = toMillis;
+        LocalDateTime fromStart = toLocalDateTime(fromMillis).plus(leadTime);
+        LocalDateTime toStart = toLocalDateTime(toMillis).plus(leadTime);
+        LocalDateTime now = LocalDateTime.now();
+        try (Stream<Object[]> rows = appointmentRepository.streamTimesBetween(
+                fromStart.toLocalDate(), toStart.toLocalDate(), REMINDABLE)) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                LocalDateTime start = ((LocalDate) row[1]).atTime((LocalTime) row[2]);
+                if (!start.isAfter(fromStart) || start.isAfter(toStart) || !start.isAfter(now)) {
+                    continue;
+                }
+                long remindAt = remindAtMillis((LocalDate) row[1], (LocalTime) row[2]);
+                if (!schedule((Long) row[0], remindAt)) {
+                    // Rows arrive in time order, so the rest of the range is read again next time
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean schedule(Long appointmentId, long remindAt) {
+        synchronized (wheel) {
+            if (wheel.add(appointmentId, remindAt)) {
+                return true;
+            }
+            loadedUntil = Math.min(loadedUntil, remindAt - 1);
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Check fired timers against the current rows, claim the live ones and send them
+     */
+    private void dispatch(List<Due> batch) {
+        Map<Long, ReminderNotice> notices = notices(batch.stream().map(Due::appointmentId).distinct().toList());
+        LocalDateTime now = LocalDateTime.now();
+        List<ReminderNotice> live = new ArrayList<>();
+        for (Due timer : batch) {
+            ReminderNotice notice = notices.get(timer.appointmentId());
+            if (notice == null || !REMINDABLE.contains(notice.getStatus())
+                    || !notice.appointmentStart().isAfter(now)
+                    || wheel.tickOf(remindAtMillis(notice.getAppointmentDate(), notice.getAppointmentTime())) != timer.tick()) {
+                stale.increment();
+                continue;
+            }
+            notice.setRemindAt(remindAt(notice));
+            live.add(notice);
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+
+        List<ReminderNotice> claimed = claim(live);
+        stale.increment(live.size() - claimed.size());
+        if (!claimed.isEmpty()) {
+            deliver(claimed);
+        }
+    }
+
+    /**
+     * Insert claim rows for reminders nobody has claimed yet; the notices returned are ours to send
+     */
+    private List<ReminderNotice> claim(List<ReminderNotice> live) {
+        try {
+            return transactionTemplate.execute(status -> insertClaims(live));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node claimed part of the batch in between: claim one by one
+            List<ReminderNotice> claimed = new ArrayList<>();
+            for (ReminderNotice notice : live) {
+                try {
+                    claimed.addAll(transactionTemplate.execute(status -> insertClaims(List.of(notice))));
+                } catch (DataIntegrityViolationException ignored) {
+                    // Claimed elsewhere
+                }
+            }
+            return claimed;
+        }
+    }
+
+    private List<ReminderNotice> insertClaims(List<ReminderNotice> live) {
+        Set<String> existing = new HashSet<>();
+        for (Object[] key : reminderRepository.findKeysByAppointmentIdIn(
+                live.stream().map(ReminderNotice::getAppointmentId).toList())) {
+            existing.add(key[0] + "@" + key[1]);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<ReminderNotice> claimable = new ArrayList<>();
+        List<AppointmentReminder> claims = new ArrayList<>();
+        for (ReminderNotice notice : live) {
+            if (existing.add(notice.getAppointmentId() + "@" + notice.getRemindAt())) {
+                claimable.add(notice);
+                claims.add(AppointmentReminder.builder()
+                        .appointmentId(notice.getAppointmentId())
+                        .remindAt(notice.getRemindAt())
+                        .status(AppointmentReminder.Status.CLAIMED)
+                        .claimedAt(now)
+                        .build());
+            }
+        }
+        List<AppointmentReminder> saved = reminderRepository.saveAll(claims);
+        reminderRepository.flush();
+        for (int i = 0; i < saved.size(); i++) {
+            claimable.get(i).setReminderId(saved.get(i).getId());
+        }
+        return claimable;
+    }
+
+    /**
+     * Hand claimed reminders to the sender and mark them sent
+     */
+    private boolean deliver(List<ReminderNotice> claimed) {
+        try {
+            reminderSender.send(claimed);
+        } catch (RuntimeException ex) {
+            failed.increment(claimed.size());
+            logger.warn("Sending {} reminders failed, will retry", claimed.size(), ex);
+            return false;
+        }
+        List<Long> ids = claimed.stream().map(ReminderNotice::getReminderId).toList();
+        transactionTemplate.executeWithoutResult(status ->
+                reminderRepository.updateStatus(ids, AppointmentReminder.Status.SENT, LocalDateTime.now()));
+        sent.increment(claimed.size());
+        return true;
+    }
+
+    private Map<Long, ReminderNotice> notices(List<Long> appointmentIds) {
+        Map<Long, ReminderNotice> notices = new HashMap<>();
+        for (ReminderNotice notice : appointmentRepository.findReminderNoticesByIdIn(appointmentIds)) {
+            notices.put(notice.getAppointmentId(), notice);
+        }
+        return notices;
+    }
+
+    private LocalDateTime remindAt(ReminderNotice notice) {
+        return notice.appointmentStart().minus(leadTime);
+    }
+
+    private long remindAtMillis(LocalDate date, LocalTime time) {
+        return date.atTime(time).minus(leadTime).atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+
+    private record Due(long appointmentId, long tick) {
+    }
+}
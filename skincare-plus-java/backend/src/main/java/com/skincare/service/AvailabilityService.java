@@ -0,0 +1,130 @@
+package com.skincare.service;
+
+import com.skincare.repository.UserRepository;
+import com.skincare.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Availability Service
+ * Answers username/email availability checks. Names that are definitely not
+ * registered are answered from in-memory Bloom filters without touching MySQL;
+ * only possible matches are probed, and identical concurrent probes share one query.
+ * The filters are node-local and can lag other nodes, so this only backs the
+ * check endpoints; registration itself queries the database.
+ */
+@Service
+public class AvailabilityService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final UserRepository userRepository;
+
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private volatile boolean warmedUp;
+
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter probesAvoided;
+    private final Counter probesExecuted;
+    private final Counter probesCoalesced;
+
+    public AvailabilityService(UserRepository userRepository,
+                               @Value("${auth.availability.expected-users:1000000}") long expectedUsers,
+                               MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.usernames = new BloomFilter(expectedUsers, FALSE_POSITIVE_RATE);
+        this.emails = new BloomFilter(expectedUsers, FALSE_POSITIVE_RATE);
+        this.probesAvoided = Counter.builder("auth.availability.probes")
+                .tag("result", "avoided").register(meterRegistry);
+        this.probesExecuted = Counter.builder("auth.availability.probes")
+                .tag("result", "executed").register(meterRegistry);
+        this.probesCoalesced = Counter.builder("auth.availability.probes")
+                .tag("result", "coalesced").register(meterRegistry);
+    }
+
+    /**
+     * Load every registered username and email into the filters
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        try (Stream<Object[]> rows = userRepository.streamUsernamesAndEmails()) {
+            rows.forEach(row -> recordRegistration((String) row[0], (String) row[1]));
+        }
+        warmedUp = true;
+    }
+
+    /**
+     * Add a newly registered user to the filters
+     */
+    public void recordRegistration(String username, String email) {
+        if (username != null) {
+            usernames.add(normalize(username));
+        }
+        if (email != null) {
+            emails.add(normalize(email));
+        }
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        String key = normalize(username);
+        if (warmedUp && !usernames.mightContain(key)) {
+            probesAvoided.increment();
+            return true;
+        }
+        return !probe("u:" + key, () -> userRepository.existsByUsername(username));
+    }
+
+    public boolean isEmailAvailable(String email) {
+        String key = normalize(email);
+        if (warmedUp && !emails.mightContain(key)) {
+            probesAvoided.increment();
+            return true;
+        }
+        return !probe("e:" + key, () -> userRepository.existsByEmail(email));
+    }
+
+    /**
+     * Run an existence query, sharing the result with identical checks already in flight
+     */
+    private boolean probe(String key, Supplier<Boolean> query) {
+        CompletableFuture<Boolean> pending = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            probesCoalesced.increment();
+            return existing.join();
+        }
+        try {
+            probesExecuted.increment();
+            boolean exists = Boolean.TRUE.equals(query.get());
+            pending.complete(exists);
+            return exists;
+        } catch (RuntimeException ex) {
+            pending.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    /**
+     * Match the case-insensitive collation of the users table
+     */
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,206 @@
+package com.skincare.service;
+
+import com.skincare.dto.AnalysisOutcome;
+import com.skincare.exception.UpstreamUnavailableException;
+import com.skincare.util.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batching Skin Analyzer
+ * Coalesces images waiting for analysis into micro-batches, closed when they
+ * reach analysis.batch.max-size images, analysis.batch.max-bytes bytes, or
+ * analysis.batch.max-wait-ms after the first image arrived. Batches go upstream
+ * under an adaptive (AIMD) concurrency limit driven by observed latency and
+ * overload responses, and results fan back out to each waiting caller. Every
+ * submitted future completes: with its result, with the batch's failure, or with
+ * a TimeoutException after analysis.batch.result-timeout-ms.
+ */
+@Service
+public class BatchingSkinAnalyzer {
+
+    private final SkinAnalyzer skinAnalyzer;
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+    private final long maxWaitNanos;
+    private final long resultTimeoutMs;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final ExecutorService callers;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSizes;
+
+    public BatchingSkinAnalyzer(SkinAnalyzer skinAnalyzer,
+                                @Value("${analysis.batch.max-size:4}") int maxBatchSize,
+                                @Value("${analysis.batch.max-bytes:4194304}") long maxBatchBytes,
+                                @Value("${analysis.batch.max-wait-ms:50}") long maxWaitMs,
+                                @Value("${analysis.batch.initial-concurrency:4}") int initialConcurrency,
+                                @Value("${analysis.batch.max-concurrency:16}") int maxConcurrency,
+                                @Value("${analysis.batch.latency-target-ms:20000}") long latencyTargetMs,
+                                @Value("${analysis.batch.result-timeout-ms:120000}") long resultTimeoutMs,
+                                MeterRegistry meterRegistry) {
+        this.skinAnalyzer = skinAnalyzer;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.resultTimeoutMs = resultTimeoutMs;
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(
+                initialConcurrency, 1, maxConcurrency, TimeUnit.MILLISECONDS.toNanos(latencyTargetMs));
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.callers = Executors.newFixedThreadPool(Math.max(1, maxConcurrency), runnable -> {
+            Thread thread = new Thread(runnable, "analysis-batch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, "analysis-batch-dispatcher");
+        this.dispatcher.setDaemon(true);
+
+        this.batchSizes = DistributionSummary.builder("analysis.batch.size")
+                .description("Images per upstream call")
+                .register(meterRegistry);
+        Gauge.builder("analysis.batch.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("analysis.batch.inflight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("analysis.batch.pending", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        dispatcher.start();
+    }
+
+    /**
+     * Queue an image for the next batch
+     * @return a future that fails with TimeoutException if no result arrives in time
+     */
+    public CompletableFuture<AnalysisOutcome> submit(SkinAnalyzer.AnalysisImage image) {
+        Pending pending = new Pending(image, new CompletableFuture<>());
+        queue.add(pending);
+        return pending.result().orTimeout(resultTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                List<Pending> batch = nextBatch();
+                concurrencyLimit.acquire();
+                try {
+                    callers.execute(() -> call(batch));
+                } catch (RejectedExecutionException ex) {
+                    concurrencyLimit.cancel();
+                    batch.forEach(pending -> pending.result().completeExceptionally(ex));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Block for the first image, then gather more until a size, byte or time bound is hit
+     */
+    private List<Pending> nextBatch() throws InterruptedException {
+        Pending first = queue.take();
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long bytes = first.image().size();
+        long deadline = System.nanoTime() + maxWaitNanos;
+
+        while (batch.size() < maxBatchSize && bytes < maxBatchBytes) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            bytes += next.image().size();
+        }
+        return batch;
+    }
+
+    /**
+     * One upstream call; results are handed out only once the whole batch checks out,
+     * so a short or partial answer fails every caller rather than misassigning one
+     */
+    private void call(List<Pending> batch) {
+        long start = System.nanoTime();
+        boolean overloaded = false;
+        Throwable failure = null;
+        try {
+            List<SkinAnalyzer.AnalysisImage> images = batch.stream().map(Pending::image).toList();
+            List<AnalysisOutcome> outcomes = skinAnalyzer.analyzeBatch(images);
+            if (outcomes == null || outcomes.size() != batch.size() || outcomes.stream().anyMatch(Objects::isNull)) {
+                throw new IllegalStateException("Analyzer returned " + (outcomes == null ? 0 : outcomes.size())
+                        + " analyses for " + batch.size() + " images");
+            }
+            batchSizes.record(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(outcomes.get(i));
+            }
+        } catch (RuntimeException | Error ex) {
+            overloaded = isOverload(ex);
+            failure = ex;
+            if (ex instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            for (Pending pending : batch) {
+                if (!pending.result().isDone()) {
+                    pending.result().completeExceptionally(failure != null ? failure
+                            : new IllegalStateException("Batch ended without a result"));
+                }
+            }
+            concurrencyLimit.release(System.nanoTime() - start, overloaded);
+        }
+    }
+
+    private static boolean isOverload(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException.TooManyRequests
+                    || cause instanceof WebClientResponseException.ServiceUnavailable
+                    || cause instanceof UpstreamUnavailableException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+        callers.shutdown();
+    }
+
+    private record Pending(SkinAnalyzer.AnalysisImage image, CompletableFuture<AnalysisOutcome> result) {
+    }
+}
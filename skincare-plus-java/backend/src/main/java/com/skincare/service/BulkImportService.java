@@ -0,0 +1,277 @@
+package com.skincare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skincare.dto.AnalysisImportRecord;
+import com.skincare.dto.AppointmentImportRecord;
+import com.skincare.dto.ImportResult;
+import com.skincare.dto.ProductImportRecord;
+import com.skincare.model.Appointment;
+import com.skincare.model.Product;
+import com.skincare.model.SkinAnalysis;
+import com.skincare.model.User;
+import com.skincare.repository.ProductRepository;
+import com.skincare.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Bulk Import Service
+ * Loads historical analyses, appointments and the product catalog from NDJSON. Rows are persisted in
+ * chunks, one transaction per chunk, flushing every JDBC batch so Hibernate sends
+ * ordered multi-row batches (ids come from the pooled table generator, not IDENTITY).
+ */
+@Service
+public class BulkImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int chunkSize;
+
+    public BulkImportService(UserRepository userRepository,
+                             ProductRepository productRepository,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                             @Value("${import.chunk-size:5000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.chunkSize = Math.max(this.batchSize, chunkSize);
+    }
+
+    public ImportResult importAnalyses(InputStream ndjson) throws IOException {
+        return importUserLines(ndjson, AnalysisImportRecord.class, AnalysisImportRecord::getUserId, this::toAnalysis);
+    }
+
+    public ImportResult importAppointments(InputStream ndjson) throws IOException {
+        return importUserLines(ndjson, AppointmentImportRecord.class, AppointmentImportRecord::getUserId, this::toAppointment);
+    }
+
+    /**
+     * Import catalog products; SKUs that already exist are skipped, not updated
+     */
+    public ImportResult importProducts(InputStream ndjson) throws IOException {
+        return importLines(ndjson, ProductImportRecord.class,
+                record -> isBlank(record.getSku()) || isBlank(record.getName()) ? "sku and name are required" : null,
+                this::writeProductChunk);
+    }
+
+    private <R> ImportResult importUserLines(InputStream ndjson, Class<R> type, Function<R, Long> userIdOf,
+                                             BiFunction<R, User, Object> toEntity) throws IOException {
+        return importLines(ndjson, type,
+                record -> userIdOf.apply(record) == null ? "userId is required" : null,
+                (chunk, progress) -> writeChunk(chunk, userIdOf, toEntity, progress));
+    }
+
+    /**
+     * @param problemOf returns why a parsed line is unusable, or null to accept it
+     */
+    private <R> ImportResult importLines(InputStream ndjson, Class<R> type, Function<R, String> problemOf,
+                                         BiConsumer<List<R>, Progress> writer) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        List<R> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                R record = objectMapper.readValue(line, type);
+                String problem = problemOf.apply(record);
+                if (problem != null) {
+                    progress.reject("line " + lineNumber + ": " + problem);
+                    continue;
+                }
+                chunk.add(record);
+            } catch (JsonProcessingException ex) {
+                progress.reject("line " + lineNumber + ": " + ex.getOriginalMessage());
+                continue;
+            }
+            if (chunk.size() >= chunkSize) {
+                writer.accept(chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writer.accept(chunk, progress);
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        return new ImportResult(progress.imported, progress.skipped, progress.errors,
+                elapsedNanos / 1_000_000, progress.imported * 1_000_000_000L / elapsedNanos);
+    }
+
+    private <R> void writeChunk(List<R> chunk, Function<R, Long> userIdOf,
+                                BiFunction<R, User, Object> toEntity, Progress progress) {
+        Set<Long> userIds = new HashSet<>();
+        chunk.forEach(record -> userIds.add(userIdOf.apply(record)));
+        Set<Long> existing = new HashSet<>(userRepository.findExistingIds(userIds));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int pending = 0;
+            for (R record : chunk) {
+                Long userId = userIdOf.apply(record);
+                if (!existing.contains(userId)) {
+                    progress.reject("unknown userId " + userId);
+                    continue;
+                }
+                Object entity;
+                try {
+                    entity = toEntity.apply(record, entityManager.getReference(User.class, userId));
+                } catch (IllegalArgumentException ex) {
+                    progress.reject(ex.getMessage());
+                    continue;
+                }
+                entityManager.persist(entity);
+                progress.imported++;
+                if (++pending % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private void writeProductChunk(List<ProductImportRecord> chunk, Progress progress) {
+        Set<String> skus = new HashSet<>();
+        chunk.forEach(record -> skus.add(record.getSku().trim()));
+        Set<String> taken = new HashSet<>(productRepository.findExistingSkus(skus));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int pending = 0;
+            for (ProductImportRecord record : chunk) {
+                String sku = record.getSku().trim();
+                if (!taken.add(sku)) {
+                    progress.reject("duplicate sku " + sku);
+                    continue;
+                }
+                entityManager.persist(toProduct(record, sku));
+                progress.imported++;
+                if (++pending % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private SkinAnalysis toAnalysis(AnalysisImportRecord record, User user) {
+        return SkinAnalysis.builder()
+                .user(user)
+                .imageUrl(record.getImageUrl())
+                .analysisResult(record.getAnalysisResult())
+                .skinConcerns(toJson(record.getSkinConcerns()))
+                .confidenceScore(record.getConfidenceScore())
+                .skinTypeDetected(record.getSkinTypeDetected())
+                .acneDetected(Boolean.TRUE.equals(record.getAcneDetected()))
+                .darkSpotsDetected(Boolean.TRUE.equals(record.getDarkSpotsDetected()))
+                .wrinklesDetected(Boolean.TRUE.equals(record.getWrinklesDetected()))
+                .drynessDetected(Boolean.TRUE.equals(record.getDrynessDetected()))
+                .rednessDetected(Boolean.TRUE.equals(record.getRednessDetected()))
+                .recommendations(record.getRecommendations())
+                .createdAt(record.getCreatedAt())
+                .build();
+    }
+
+    private Appointment toAppointment(AppointmentImportRecord record, User user) {
+        if (record.getDoctorName() == null || record.getAppointmentDate() == null || record.getAppointmentTime() == null) {
+            throw new IllegalArgumentException("doctorName, appointmentDate and appointmentTime are required");
+        }
+        return Appointment.builder()
+                .user(user)
+                .doctorName(record.getDoctorName())
+                .doctorSpecialization(record.getDoctorSpecialization())
+                .doctorPhone(record.getDoctorPhone())
+                .doctorEmail(record.getDoctorEmail())
+                .appointmentDate(record.getAppointmentDate())
+                .appointmentTime(record.getAppointmentTime())
+                .location(record.getLocation())
+                .address(record.getAddress())
+                .latitude(record.getLatitude())
+                .longitude(record.getLongitude())
+                .status(record.getStatus() != null ? record.getStatus() : Appointment.AppointmentStatus.COMPLETED)
+                .notes(record.getNotes())
+                .patientConcerns(record.getPatientConcerns())
+                .createdAt(record.getCreatedAt())
+                .build();
+    }
+
+    private Product toProduct(ProductImportRecord record, String sku) {
+        return Product.builder()
+                .sku(sku)
+                .name(record.getName().trim())
+                .brand(record.getBrand())
+                .category(record.getCategory())
+                .ingredients(record.getIngredients())
+                .skinTypes(record.getSkinTypes())
+                .concerns(record.getConcerns())
+                .price(record.getPrice())
+                .imageUrl(record.getImageUrl())
+                .active(record.getActive() == null || record.getActive())
+                .build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Could not serialize " + value, ex);
+        }
+    }
+
+    private static final class Progress {
+        long imported;
+        long skipped;
+        final List<String> errors = new ArrayList<>();
+
+        void reject(String reason) {
+            skipped++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.skincare.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.skincare.dto.AnalysisOutcome;
+import com.skincare.integration.UpstreamGuard;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claude Skin Analyzer
+ * Sends the image to the Claude Messages API and parses the JSON analysis it returns.
+ * Calls go through the pooled claude WebClient and its guard; analyze() is only
+ * invoked from analysis workers, never from request threads.
+ */
+@Component
+@ConditionalOnProperty(name = "analysis.ai.provider", havingValue = "claude", matchIfMissing = true)
+public class ClaudeSkinAnalyzer implements SkinAnalyzer {
+
+    static final String ANTHROPIC_VERSION = "2023-06-01";
+
+    static final String PROMPT = """
+            You are a dermatology assistant. Analyze the facial skin in this photo and reply with
+            a single JSON object only, no prose, using exactly these fields:
+            skinType (OILY, DRY, COMBINATION, NORMAL or SENSITIVE), confidenceScore (0-100),
+            concerns (array of strings), acne, darkSpots, wrinkles, dryness, redness (booleans),
+            summary, recommendations, morningRoutine, eveningRoutine, dietAdvice, lifestyleAdvice,
+            dos, donts (strings).
+            """;
+
+    static final String BATCH_PROMPT = """
+            You are a dermatology assistant. Analyze the facial skin in each of the %d photos above and
+            reply with a JSON array only, no prose, holding one object per photo, each using exactly these
+            fields:
+            image (the number of the photo it describes, as labelled above),
+            skinType (OILY, DRY, COMBINATION, NORMAL or SENSITIVE), confidenceScore (0-100),
+            concerns (array of strings), acne, darkSpots, wrinkles, dryness, redness (booleans),
+            summary, recommendations, morningRoutine, eveningRoutine, dietAdvice, lifestyleAdvice,
+            dos, donts (strings).
+            """;
+
+    private static final int MAX_TOKENS_PER_IMAGE = 1024;
+
+    private final WebClient webClient;
+    private final UpstreamGuard guard;
+    private final ObjectMapper objectMapper;
+
+    @Value("${claude.api.key}")
+    private String apiKey;
+
+    @Value("${claude.api.model}")
+    private String model;
+
+    public ClaudeSkinAnalyzer(@Qualifier("claudeWebClient") WebClient webClient,
+                              @Qualifier("claudeUpstreamGuard") UpstreamGuard guard,
+                              ObjectMapper objectMapper) {
+        this.webClient = webClient;
+        this.guard = guard;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public AnalysisOutcome analyze(Path image, String contentType) {
+        return analyzeAsync(image, contentType).block();
+    }
+
+    /**
+     * Several images in a single message; the model answers with a JSON array whose
+     * objects name the image they describe, and every image must be answered exactly once
+     */
+    @Override
+    public List<AnalysisOutcome> analyzeBatch(List<AnalysisImage> images) {
+        if (images.size() == 1) {
+            AnalysisImage image = images.get(0);
+            return List.of(analyze(image.path(), image.contentType()));
+        }
+
+        List<Map<String, Object>> content = new ArrayList<>();
+        for (int i = 0; i < images.size(); i++) {
+            content.add(Map.of("type", "text", "text", "Image " + (i + 1) + ":"));
+            content.add(imageBlock(images.get(i).path(), images.get(i).contentType()));
+        }
+        content.add(Map.of("type", "text", "text", String.format(BATCH_PROMPT, images.size())));
+
+        return send(content, MAX_TOKENS_PER_IMAGE * images.size())
+                .map(response -> parseBatchResponse(response, images.size()))
+                .block();
+    }
+
+    /**
+     * Non-blocking variant for callers already on a reactive chain
+     */
+    public Mono<AnalysisOutcome> analyzeAsync(Path image, String contentType) {
+        List<Map<String, Object>> content = List.of(
+                imageBlock(image, contentType),
+                Map.of("type", "text", "text", PROMPT));
+        return send(content, MAX_TOKENS_PER_IMAGE).map(this::parseResponse);
+    }
+
+    private Mono<JsonNode> send(List<Map<String, Object>> content, int maxTokens) {
+        Map<String, Object> body = Map.of(
+                "model", model,
+                "max_tokens", maxTokens,
+                "messages", List.of(Map.of("role", "user", "content", content)));
+
+        return guard.call(() -> webClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("x-api-key", apiKey)
+                .header("anthropic-version", ANTHROPIC_VERSION)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JsonNode.class));
+    }
+
+    private static Map<String, Object> imageBlock(Path image, String contentType) {
+        String imageData;
+        try {
+            imageData = Base64.getEncoder().encodeToString(Files.readAllBytes(image));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read image " + image, ex);
+        }
+        return Map.of("type", "image", "source", Map.of(
+                "type", "base64",
+                "media_type", contentType != null ? contentType : "image/jpeg",
+                "data", imageData));
+    }
+
+    AnalysisOutcome parseResponse(JsonNode response) {
+        try {
+            return objectMapper.readValue(extractJson(responseText(response), '{', '}'), AnalysisOutcome.class);
+        } catch (IOException ex) {
+            throw new IllegalStateException("AI service returned an unreadable analysis", ex);
+        }
+    }
+
+    /**
+     * Analyses in input order, placed by the image number each object carries
+     * (never by array position, which the model may reorder)
+     */
+    List<AnalysisOutcome> parseBatchResponse(JsonNode response, int imageCount) {
+        JsonNode array;
+        try {
+            array = objectMapper.readTree(extractJson(responseText(response), '[', ']'));
+        } catch (IOException ex) {
+            throw new IllegalStateException("AI service returned an unreadable analysis", ex);
+        }
+        if (!array.isArray() || array.size() != imageCount) {
+            throw new IllegalStateException("AI service returned " + (array.isArray() ? array.size() : 0)
+                    + " analyses for " + imageCount + " images");
+        }
+
+        AnalysisOutcome[] outcomes = new AnalysisOutcome[imageCount];
+        for (JsonNode element : array) {
+            int image = element.path("image").asInt(0);
+            if (!element.isObject() || image < 1 || image > imageCount || outcomes[image - 1] != null) {
+                throw new IllegalStateException("AI service returned an analysis for a missing or repeated image: "
+                        + element.path("image"));
+            }
+            ObjectNode fields = ((ObjectNode) element).deepCopy();
+            fields.remove("image");
+            try {
+                outcomes[image - 1] = objectMapper.treeToValue(fields, AnalysisOutcome.class);
+            } catch (IOException ex) {
+                throw new IllegalStateException("AI service returned an unreadable analysis", ex);
+            }
+        }
+        return List.of(outcomes);
+    }
+
+    private static String responseText(JsonNode response) {
+        if (response == null || !response.path("content").isArray() || response.path("content").isEmpty()) {
+            throw new IllegalStateException("Empty response from AI service");
+        }
+        return response.path("content").get(0).path("text").asText();
+    }
+
+    /**
+     * Strip any prose or code fence around the JSON value
+     */
+    private static String extractJson(String text, char open, char close) {
+        String trimmed = text.trim();
+        int start = trimmed.indexOf(open);
+        int end = trimmed.lastIndexOf(close);
+        return start >= 0 && end > start ? trimmed.substring(start, end + 1) : trimmed;
+    }
+}
@@ -0,0 +1,306 @@
+package com.skincare.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.skincare.dto.ClinicLocation;
+import com.skincare.dto.NearbyClinic;
+import com.skincare.integration.GoogleMapsClient;
+import com.skincare.model.Clinic;
+import com.skincare.repository.AppointmentRepository;
+import com.skincare.repository.ClinicRepository;
+import com.skincare.util.GeoGridIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clinic Directory Service
+ * Nearby-dermatologist search over a local spatial grid of known clinics
+ * (seeded clinics table plus locations of past appointments). Google Places
+ * is only called when the grid can't fill the requested number of results;
+ * the clinics it returns are saved and indexed so the next search nearby is
+ * local. Geocoded addresses are cached.
+ */
+@Service
+public class ClinicDirectoryService {
+
+    // Results closer than this with the same name are treated as the same clinic
+    private static final double SAME_CLINIC_METERS = 75;
+
+    private final ClinicRepository clinicRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final GoogleMapsClient googleMapsClient;
+    private final double cellDegrees;
+    private final int geocodeCacheSize;
+    private final long geocodeTtlMillis;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private GeoGridIndex<ClinicLocation> index;
+    private final Set<String> knownPlaceIds = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, CachedPoint> geocodeCache;
+    private final Map<String, Mono<Optional<GeoPoint>>> geocodeInFlight = new ConcurrentHashMap<>();
+
+    private final Timer localTimer;
+    private final Counter mapsFallbacks;
+
+    public ClinicDirectoryService(ClinicRepository clinicRepository,
+                                  AppointmentRepository appointmentRepository,
+                                  GoogleMapsClient googleMapsClient,
+                                  @Value("${clinics.index.cell-degrees:0.05}") double cellDegrees,
+                                  @Value("${maps.geocode.cache-size:10000}") int geocodeCacheSize,
+                                  @Value("${maps.geocode.cache-ttl-hours:168}") long geocodeTtlHours,
+                                  MeterRegistry meterRegistry) {
+        this.clinicRepository = clinicRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.googleMapsClient = googleMapsClient;
+        this.cellDegrees = cellDegrees;
+        this.geocodeCacheSize = geocodeCacheSize;
+        this.geocodeTtlMillis = geocodeTtlHours * 3600 * 1000;
+        this.index = new GeoGridIndex<>(cellDegrees);
+        this.geocodeCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPoint> eldest) {
+                return size() > ClinicDirectoryService.this.geocodeCacheSize;
+            }
+        };
+
+        this.localTimer = Timer.builder("clinics.nearby.local")
+                .description("Local spatial index lookup time")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.mapsFallbacks = Counter.builder("clinics.nearby.maps.fallback")
+                .description("Searches the local index could not fill")
+                .register(meterRegistry);
+        Gauge.builder("clinics.index.size", this, ClinicDirectoryService::size).register(meterRegistry);
+    }
+
+    /**
+     * Rebuild the grid from the clinics table and past appointment locations
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reload() {
+        GeoGridIndex<ClinicLocation> rebuilt = new GeoGridIndex<>(cellDegrees);
+        Set<String> placeIds = new HashSet<>();
+        for (Clinic clinic : clinicRepository.findAll()) {
+            rebuilt.add(clinic.getLatitude(), clinic.getLongitude(), ClinicLocation.of(clinic));
+            if (clinic.getPlaceId() != null) {
+                placeIds.add(clinic.getPlaceId());
+            }
+        }
+        for (ClinicLocation location : appointmentRepository.findDistinctClinicLocations()) {
+            rebuilt.add(location.latitude(), location.longitude(), location);
+        }
+
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+            knownPlaceIds.clear();
+            knownPlaceIds.addAll(placeIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Save clinics and add them to the grid
+     */
+    public List<Clinic> addClinics(Collection<Clinic> clinics) {
+        List<Clinic> saved = clinicRepository.saveAll(clinics);
+        index(saved);
+        return saved;
+    }
+
+    /**
+     * Up to limit clinics within radiusMeters, closest first; Maps fills in when the grid has too few
+     */
+    public Mono<List<NearbyClinic>> findNearby(double latitude, double longitude, int radiusMeters, int limit) {
+        List<NearbyClinic> local = findNearbyLocal(latitude, longitude, radiusMeters, limit);
+        if (local.size() >= limit) {
+            return Mono.just(local);
+        }
+
+        mapsFallbacks.increment();
+        return googleMapsClient.findNearbyDermatologists(latitude, longitude, radiusMeters)
+                .map(this::parsePlaces)
+                .flatMap(places -> Mono.fromCallable(() -> remember(places)).subscribeOn(Schedulers.boundedElastic()))
+                .map(places -> merge(local, places, latitude, longitude, radiusMeters, limit))
+                // Maps unavailable or over quota: answer with what the grid has
+                .onErrorResume(ex -> Mono.just(local))
+                .defaultIfEmpty(local);
+    }
+
+    public List<NearbyClinic> findNearbyLocal(double latitude, double longitude, int radiusMeters, int limit) {
+        return localTimer.record(() -> {
+            List<GeoGridIndex.Match<ClinicLocation>> matches;
+            lock.readLock().lock();
+            try {
+                // Over-fetch a little so duplicates (clinic row + appointment location) can be dropped
+                matches = index.nearest(latitude, longitude, limit * 2, radiusMeters);
+            } finally {
+                lock.readLock().unlock();
+            }
+            List<NearbyClinic> results = new ArrayList<>(limit);
+            for (GeoGridIndex.Match<ClinicLocation> match : matches) {
+                NearbyClinic candidate = NearbyClinic.of(match.value(), match.distanceMeters());
+                if (results.size() < limit && !isDuplicate(results, candidate)) {
+                    results.add(candidate);
+                }
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Resolve an address to coordinates, from cache when possible
+     */
+    public Mono<Optional<GeoPoint>> geocode(String address) {
+        String key = address.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        long now = System.currentTimeMillis();
+        synchronized (geocodeCache) {
+            CachedPoint cached = geocodeCache.get(key);
+            if (cached != null && cached.expiresAt() > now) {
+                return Mono.just(Optional.ofNullable(cached.point()));
+            }
+        }
+
+        return geocodeInFlight.computeIfAbsent(key, k -> googleMapsClient.geocode(address)
+                .map(ClinicDirectoryService::parseGeocode)
+                .doOnNext(point -> {
+                    synchronized (geocodeCache) {
+                        geocodeCache.put(k, new CachedPoint(point.orElse(null), System.currentTimeMillis() + geocodeTtlMillis));
+                    }
+                })
+                .doFinally(signal -> geocodeInFlight.remove(k))
+                .cache());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Collection<Clinic> clinics) {
+        lock.writeLock().lock();
+        try {
+            for (Clinic clinic : clinics) {
+                index.add(clinic.getLatitude(), clinic.getLongitude(), ClinicLocation.of(clinic));
+                if (clinic.getPlaceId() != null) {
+                    knownPlaceIds.add(clinic.getPlaceId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Save places not seen before so later searches around here stay local
+     */
+    private List<ClinicLocation> remember(List<Clinic> places) {
+        List<Clinic> unseen = places.stream()
+                .filter(place -> !knownPlaceIds.contains(place.getPlaceId()))
+                .toList();
+        if (!unseen.isEmpty()) {
+            Set<String> stored = new HashSet<>();
+            clinicRepository.findByPlaceIdIn(unseen.stream().map(Clinic::getPlaceId).toList())
+                    .forEach(clinic -> stored.add(clinic.getPlaceId()));
+            List<Clinic> fresh = unseen.stream().filter(place -> !stored.contains(place.getPlaceId())).toList();
+            try {
+                index(clinicRepository.saveAll(fresh));
+            } catch (DataIntegrityViolationException ex) {
+                // Another search saved the same place concurrently; it is indexed on that path
+            }
+        }
+        return places.stream().map(ClinicLocation::of).toList();
+    }
+
+    private List<NearbyClinic> merge(List<NearbyClinic> local, List<ClinicLocation> places,
+                                     double latitude, double longitude, int radiusMeters, int limit) {
+        List<NearbyClinic> merged = new ArrayList<>(local);
+        for (ClinicLocation place : places) {
+            double distance = GeoGridIndex.distanceMeters(latitude, longitude, place.latitude(), place.longitude());
+            NearbyClinic candidate = NearbyClinic.of(place, distance);
+            if (distance <= radiusMeters && !isDuplicate(merged, candidate)) {
+                merged.add(candidate);
+            }
+        }
+        merged.sort(Comparator.comparingLong(NearbyClinic::getDistanceMeters));
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    private static boolean isDuplicate(List<NearbyClinic> results, NearbyClinic candidate) {
+        for (NearbyClinic existing : results) {
+            if (candidate.getPlaceId() != null && candidate.getPlaceId().equals(existing.getPlaceId())) {
+                return true;
+            }
+            if (existing.getName() != null && existing.getName().equalsIgnoreCase(candidate.getName())
+                    && GeoGridIndex.distanceMeters(existing.getLatitude(), existing.getLongitude(),
+                            candidate.getLatitude(), candidate.getLongitude()) < SAME_CLINIC_METERS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Clinic> parsePlaces(JsonNode response) {
+        List<Clinic> places = new ArrayList<>();
+        for (JsonNode result : response.path("results")) {
+            JsonNode location = result.path("geometry").path("location");
+            if (!location.has("lat") || !location.has("lng") || !result.hasNonNull("place_id")) {
+                continue;
+            }
+            places.add(Clinic.builder()
+                    .name(result.path("name").asText("Dermatologist"))
+                    .specialization("Dermatologist")
+                    .address(result.path("vicinity").asText(null))
+                    .latitude(location.path("lat").asDouble())
+                    .longitude(location.path("lng").asDouble())
+                    .placeId(result.path("place_id").asText())
+                    .source(Clinic.Source.MAPS)
+                    .build());
+        }
+        return places;
+    }
+
+    private static Optional<GeoPoint> parseGeocode(JsonNode response) {
+        JsonNode location = response.path("results").path(0).path("geometry").path("location");
+        if (!location.has("lat") || !location.has("lng")) {
+            return Optional.empty();
+        }
+        return Optional.of(new GeoPoint(location.path("lat").asDouble(), location.path("lng").asDouble()));
+    }
+
+    public record GeoPoint(double latitude, double longitude) {
+    }
+
+    private record CachedPoint(GeoPoint point, long expiresAt) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.skincare.service;
+
+import com.skincare.model.ContentBlock;
+import com.skincare.repository.ContentBlockRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Content Block Store
+ * Interns recommendation text as content-addressed {@link ContentBlock}s.
+ * Text is normalized (line endings, trailing whitespace) and hashed with
+ * SHA-256. A known hash resolves to the existing block through a bounded
+ * in-memory map, and otherwise through the unique index. Inserts run in their
+ * own transaction so a lost race on the unique hash does not poison the caller's.
+ */
+@Service
+public class ContentBlockStore {
+
+    private final ContentBlockRepository contentBlockRepository;
+    private final TransactionTemplate requiresNew;
+    private final int maxSize;
+
+    private final Map<String, Interned> byHash;
+
+    public ContentBlockStore(ContentBlockRepository contentBlockRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${recommendations.content.cache-size:10000}") int maxSize) {
+        this.contentBlockRepository = contentBlockRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxSize = maxSize;
+        this.byHash = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Interned> eldest) {
+                return size() > ContentBlockStore.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Block for this text, created if no identical text is stored yet; null for blank text
+     */
+    public Interned intern(String text) {
+        if (!StringUtils.hasText(text)) {
+            return null;
+        }
+        String body = normalize(text);
+        String hash = sha256(body);
+        synchronized (byHash) {
+            Interned cached = byHash.get(hash);
+            if (cached != null) {
+                return cached.existing();
+            }
+        }
+
+        Interned interned;
+        try {
+            interned = requiresNew.execute(status -> findOrInsert(hash, body));
+        } catch (DataIntegrityViolationException ex) {
+            // Inserted concurrently by another thread or node
+            interned = requiresNew.execute(status -> contentBlockRepository.findByContentHash(hash)
+                    .map(block -> new Interned(block.getId(), block.getByteLength(), false))
+                    .orElseThrow(() -> ex));
+        }
+        synchronized (byHash) {
+            byHash.put(hash, interned.existing());
+        }
+        return interned;
+    }
+
+    private Interned findOrInsert(String hash, String body) {
+        return contentBlockRepository.findByContentHash(hash)
+                .map(block -> new Interned(block.getId(), block.getByteLength(), false))
+                .orElseGet(() -> {
+                    ContentBlock block = contentBlockRepository.saveAndFlush(ContentBlock.builder()
+                            .contentHash(hash)
+                            .body(body)
+                            .byteLength(body.getBytes(StandardCharsets.UTF_8).length)
+                            .build());
+                    return new Interned(block.getId(), block.getByteLength(), true);
+                });
+    }
+
+    static String normalize(String text) {
+        return text.replace("\r\n", "\n").replace('\r', '\n')
+                .lines()
+                .map(String::stripTrailing)
+                .collect(Collectors.joining("\n"))
+                .strip();
+    }
+
+    private static String sha256(String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Id and size of an interned block; created is true only for the call that inserted it
+     */
+    public record Interned(Long id, int byteLength, boolean created) {
+
+        Interned existing() {
+            return created ? new Interned(id, byteLength, false) : this;
+        }
+    }
+}
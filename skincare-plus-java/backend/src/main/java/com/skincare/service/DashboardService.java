@@ -0,0 +1,192 @@
+package com.skincare.service;
+
+import com.skincare.dto.AppointmentSummary;
+import com.skincare.dto.DashboardProfile;
+import com.skincare.dto.DashboardView;
+import com.skincare.dto.RecommendationSummary;
+import com.skincare.dto.SkinAnalysisSummary;
+import com.skincare.event.AppointmentChangedEvent;
+import com.skincare.event.SkinAnalysisChangedEvent;
+import com.skincare.event.UserChangedEvent;
+import com.skincare.repository.AppointmentRepository;
+import com.skincare.repository.RecommendationRepository;
+import com.skincare.repository.SkinAnalysisRepository;
+import com.skincare.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard Service
+ * Builds the user dashboard (profile, last analyses, upcoming appointments,
+ * latest recommendations) by running the four LIMITed projection reads in
+ * parallel on a bounded pool, so latency is the slowest section rather than
+ * the sum. Results are cached per user for a short TTL and dropped after any
+ * committed change to the user, their analyses or their appointments.
+ */
+@Service
+public class DashboardService {
+
+    private static final Limit RECENT_ANALYSES = Limit.of(5);
+    private static final Limit UPCOMING_APPOINTMENTS = Limit.of(5);
+    private static final Limit LATEST_RECOMMENDATIONS = Limit.of(3);
+
+    private final UserRepository userRepository;
+    private final SkinAnalysisRepository skinAnalysisRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final RecommendationRepository recommendationRepository;
+
+    private final ThreadPoolExecutor sectionExecutor;
+    private final int maxCacheSize;
+    private final long ttlMillis;
+    private final Map<Long, CachedDashboard> cache;
+    // Invalidation count per user; a read started before an invalidation of its user must not be cached
+    private final Map<Long, Long> invalidations = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Counter hits;
+    private final Counter misses;
+
+    public DashboardService(UserRepository userRepository,
+                            SkinAnalysisRepository skinAnalysisRepository,
+                            AppointmentRepository appointmentRepository,
+                            RecommendationRepository recommendationRepository,
+                            @Value("${dashboard.threads:16}") int threads,
+                            @Value("${dashboard.queue-capacity:256}") int queueCapacity,
+                            @Value("${dashboard.cache.max-size:10000}") int maxCacheSize,
+                            @Value("${dashboard.cache.ttl-seconds:30}") long ttlSeconds,
+                            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.skinAnalysisRepository = skinAnalysisRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.recommendationRepository = recommendationRepository;
+        this.maxCacheSize = maxCacheSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        // When saturated the request thread runs the section itself instead of failing
+        this.sectionExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.sectionExecutor.allowCoreThreadTimeOut(true);
+
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedDashboard> eldest) {
+                return size() > DashboardService.this.maxCacheSize;
+            }
+        };
+        this.hits = Counter.builder("dashboard.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("dashboard.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Cached dashboard, or a fresh one assembled from parallel section reads
+     */
+    public CompletableFuture<DashboardView> getDashboard(Long userId) {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedDashboard cached = cache.get(userId);
+            if (cached != null && cached.expiresAt() > now) {
+                hits.increment();
+                return CompletableFuture.completedFuture(cached.view());
+            }
+        }
+        misses.increment();
+
+        long version = invalidations.getOrDefault(userId, 0L);
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+
+        CompletableFuture<DashboardProfile> profile = section("profile",
+                () -> userRepository.findDashboardProfileById(userId)
+                        .orElseThrow(() -> new RuntimeException("User not found")));
+        CompletableFuture<List<SkinAnalysisSummary>> analyses = section("analyses",
+                () -> skinAnalysisRepository.findSummariesByUserId(userId, RECENT_ANALYSES));
+        CompletableFuture<List<AppointmentSummary>> appointments = section("appointments",
+                () -> appointmentRepository.findUpcomingSummariesByUserId(userId, today, UPCOMING_APPOINTMENTS));
+        CompletableFuture<List<RecommendationSummary>> recommendations = section("recommendations",
+                () -> recommendationRepository.findSummariesByUserId(userId, LATEST_RECOMMENDATIONS));
+
+        return CompletableFuture.allOf(profile, analyses, appointments, recommendations)
+                .thenApply(ignored -> {
+                    DashboardView view = new DashboardView(profile.join(), analyses.join(),
+                            appointments.join(), recommendations.join());
+                    synchronized (cache) {
+                        if (invalidations.getOrDefault(userId, 0L) == version) {
+                            cache.put(userId, new CachedDashboard(view, System.currentTimeMillis() + ttlMillis));
+                        }
+                    }
+                    timer("total").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return view;
+                });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalysisChanged(SkinAnalysisChangedEvent event) {
+        invalidate(event.facts().userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (cache) {
+            invalidations.merge(userId, 1L, Long::sum);
+            cache.remove(userId);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sectionExecutor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> section(String name, Supplier<T> read) {
+        Timer timer = timer(name);
+        return CompletableFuture.supplyAsync(() -> timer.record(read), sectionExecutor);
+    }
+
+    private Timer timer(String section) {
+        return Timer.builder("dashboard.section.latency")
+                .tag("section", section)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private record CachedDashboard(DashboardView view, long expiresAt) {
+    }
+}
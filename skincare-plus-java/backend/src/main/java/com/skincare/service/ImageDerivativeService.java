@@ -0,0 +1,430 @@
+package com.skincare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Image Derivative Service
+ * Produces downscaled JPEG derivatives of stored images (list thumbnails and an
+ * analysis-sized copy for the AI upstream) on a background pool, and keeps them
+ * in an on-disk cache evicted least-recently-used by total bytes.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private static final int SOI = 0xFFD8;
+    private static final int APP1 = 0xFFE1;
+    private static final int SOS = 0xFFDA;
+    private static final int EOI = 0xFFD9;
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    /**
+     * Derivative sizes (longest edge, pixels)
+     */
+    public enum Variant {
+        THUMBNAIL(256, 0.80f),
+        ANALYSIS(1024, 0.85f);
+
+        private final int maxEdge;
+        private final float quality;
+
+        Variant(int maxEdge, float quality) {
+            this.maxEdge = maxEdge;
+            this.quality = quality;
+        }
+
+        public String key() {
+            return name().toLowerCase();
+        }
+
+        public static Optional<Variant> fromKey(String key) {
+            for (Variant variant : values()) {
+                if (variant.key().equals(key)) {
+                    return Optional.of(variant);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final Path root;
+    private final long maxBytes;
+    private final ThreadPoolExecutor pool;
+
+    /** Access-ordered: eldest entry is the least recently used derivative */
+    private final LinkedHashMap<Path, Long> cached = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final Timer resizeTimer;
+    private final Counter bytesSaved;
+    private final Counter evictedBytes;
+
+    public ImageDerivativeService(@Value("${file.derivatives-dir:./uploads/derivatives}") String derivativesDir,
+                                  @Value("${image.derivatives.max-bytes:1073741824}") long maxBytes,
+                                  @Value("${image.derivatives.threads:0}") int threads,
+                                  MeterRegistry meterRegistry) {
+        this.root = Paths.get(derivativesDir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(1000),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivative-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Dropped tasks are regenerated on demand
+                new ThreadPoolExecutor.DiscardPolicy());
+
+        this.resizeTimer = Timer.builder("images.derivatives.resize")
+                .description("Decode + resize + encode time per derivative")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.bytesSaved = Counter.builder("images.derivatives.bytes.saved")
+                .description("Original bytes minus analysis-derivative bytes sent upstream")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.evictedBytes = Counter.builder("images.derivatives.evicted.bytes").baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("images.derivatives.cache.bytes", this, s -> s.cachedBytes()).register(meterRegistry);
+    }
+
+    /**
+     * Index derivatives left on disk by a previous run, oldest first
+     * Temp files of renders interrupted by a crash are deleted rather than indexed.
+     */
+    @PostConstruct
+    void loadCache() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .filter(path -> {
+                        if (!path.getFileName().toString().endsWith(".part")) {
+                            return true;
+                        }
+                        try {
+                            Files.deleteIfExists(path);
+                        } catch (IOException ex) {
+                            logger.warn("Could not delete leftover derivative temp file {}", path, ex);
+                        }
+                        return false;
+                    })
+                    .map(path -> {
+                        try {
+                            return Map.entry(path, Files.readAttributes(path, BasicFileAttributes.class));
+                        } catch (IOException ex) {
+                            return null;
+                        }
+                    })
+                    .filter(entry -> entry != null)
+                    .sorted(Comparator.comparing(entry -> entry.getValue().lastAccessTime()))
+                    .forEach(entry -> record(entry.getKey(), entry.getValue().size()));
+        }
+    }
+
+    /**
+     * Queue generation of every variant for a newly stored image
+     */
+    public void generateAsync(ImageStore.StoredImage image) {
+        for (Variant variant : Variant.values()) {
+            pool.execute(() -> {
+                try {
+                    get(image, variant);
+                } catch (RuntimeException ex) {
+                    logger.warn("Could not create {} for {}", variant.key(), image.fileName(), ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Get a derivative, generating it now if it is not cached
+     */
+    public ImageStore.StoredImage get(ImageStore.StoredImage image, Variant variant) {
+        Path target = pathOf(image.hash(), variant);
+        synchronized (cached) {
+            Long size = cached.get(target);
+            if (size != null && Files.exists(target)) {
+                return derivative(image, variant, target, size);
+            }
+        }
+
+        long size = resizeTimer.record(() -> render(image.path(), target, variant));
+        record(target, size);
+        if (variant == Variant.ANALYSIS && image.size() > size) {
+            bytesSaved.increment(image.size() - size);
+        }
+        return derivative(image, variant, target, size);
+    }
+
+    private static ImageStore.StoredImage derivative(ImageStore.StoredImage image, Variant variant,
+                                                     Path path, long size) {
+        return new ImageStore.StoredImage(image.hash() + "-" + variant.key(), "jpg", path, size, false);
+    }
+
+    /**
+     * Decode with source subsampling, apply the EXIF orientation, scale to fit, encode as JPEG
+     * Written to a temp file and moved into place so readers never see partial output.
+     */
+    private long render(Path source, Path target, Variant variant) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format: " + source.getFileName());
+            }
+            ImageReader reader = readers.next();
+            BufferedImage decoded;
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Skip pixels while decoding, keeping ~2x the target size for a clean final scale
+                int subsample = Math.max(1, longest / (variant.maxEdge * 2));
+                param.setSourceSubsampling(subsample, subsample, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+
+            BufferedImage scaled = scale(orient(decoded, orientationOf(source)), variant.maxEdge);
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), "derivative-", ".part");
+            try {
+                writeJpeg(scaled, temp, variant.quality);
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return Files.size(target);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create derivative of " + source.getFileName(), ex);
+        }
+    }
+
+    /**
+     * EXIF orientation (1-8) of a JPEG, 1 when absent or unreadable
+     * Phone cameras store portrait shots as landscape pixels plus this tag. The markers are
+     * walked directly because ImageIO's JPEG metadata rejects files without a leading JFIF
+     * segment, which is how most cameras write them.
+     */
+    private static int orientationOf(Path source) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readUnsignedShort() != SOI) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == SOS || marker == EOI) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker == APP1) {
+                    byte[] data = new byte[length];
+                    in.readFully(data);
+                    int orientation = exifOrientation(data);
+                    if (orientation != 0) {
+                        return orientation;
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            logger.debug("Could not read EXIF orientation of {}", source.getFileName(), ex);
+            return 1;
+        }
+    }
+
+    /**
+     * Orientation tag from IFD0 of an APP1 Exif payload, 0 if this segment has none
+     */
+    static int exifOrientation(byte[] app1) {
+        // "Exif\0\0" followed by a TIFF header
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(app1, 6, app1.length - 6).slice();
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+            return 0;
+        }
+        long ifd = Integer.toUnsignedLong(tiff.getInt(4));
+        if (ifd + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entries = Short.toUnsignedInt(tiff.getShort((int) ifd));
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                break;
+            }
+            if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                int value = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                return value >= 1 && value <= 8 ? value : 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Rotate/flip pixels so the image displays upright without its EXIF tag
+     * Derivatives are written without metadata, so the tag cannot be carried over.
+     */
+    static BufferedImage orient(BufferedImage source, int orientation) {
+        int w = source.getWidth();
+        int h = source.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);   // mirror horizontal
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);  // rotate 180
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);   // mirror vertical
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);    // transpose
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);   // rotate 90 clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);  // transverse
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);   // rotate 90 counter-clockwise
+            default -> null;
+        };
+        if (transform == null) {
+            return source;
+        }
+        boolean swap = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Track a derivative and evict least-recently-used files over the byte budget
+     */
+    private void record(Path path, long size) {
+        synchronized (cached) {
+            Long previous = cached.put(path, size);
+            totalBytes += size - (previous != null ? previous : 0);
+
+            Iterator<Map.Entry<Path, Long>> it = cached.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<Path, Long> eldest = it.next();
+                if (eldest.getKey().equals(path)) {
+                    continue;
+                }
+                it.remove();
+                totalBytes -= eldest.getValue();
+                evictedBytes.increment(eldest.getValue());
+                try {
+                    Files.deleteIfExists(eldest.getKey());
+                } catch (IOException ignored) {
+                    // Re-created on demand if it is still on disk
+                }
+            }
+        }
+    }
+
+    private long cachedBytes() {
+        synchronized (cached) {
+            return totalBytes;
+        }
+    }
+
+    private Path pathOf(String hash, Variant variant) {
+        return root.resolve(variant.key()).resolve(hash.substring(0, 2)).resolve(hash + ".jpg");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
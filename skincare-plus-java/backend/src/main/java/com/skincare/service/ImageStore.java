@@ -0,0 +1,189 @@
+package com.skincare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Image Store
+ * Content-addressed storage for skin images. Uploads are hashed (SHA-256) while
+ * they are copied to disk and filed under {root}/{aa}/{bb}/{hash}.{ext}; a repeat
+ * upload of the same bytes reuses the existing file.
+ */
+@Service
+public class ImageStore {
+
+    public static final String URL_PREFIX = "/api/images/";
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/webp", "webp",
+            "image/gif", "gif",
+            "image/heic", "heic"
+    );
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "png", "image/png",
+            "webp", "image/webp",
+            "gif", "image/gif",
+            "heic", "image/heic"
+    );
+
+    private static final Pattern NAME = Pattern.compile("([0-9a-f]{64})\\.([a-z]{3,4})");
+
+    private final Path root;
+    private final Path tempDir;
+
+    private final Counter storedCounter;
+    private final Counter dedupedCounter;
+    private final Counter dedupedBytes;
+
+    public ImageStore(@Value("${file.upload-dir}") String uploadDir, MeterRegistry meterRegistry) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.tempDir = root.resolve("tmp");
+        this.storedCounter = Counter.builder("images.stored").register(meterRegistry);
+        this.dedupedCounter = Counter.builder("images.deduplicated").register(meterRegistry);
+        this.dedupedBytes = Counter.builder("images.deduplicated.bytes").baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Stream an upload to disk, hashing as it goes, and file it by content hash
+     */
+    public StoredImage store(InputStream in, String contentType) {
+        String extension = EXTENSIONS.getOrDefault(contentType, "jpg");
+        MessageDigest digest = sha256();
+        Path temp = null;
+        try {
+            Files.createDirectories(tempDir);
+            temp = Files.createTempFile(tempDir, "upload-", ".part");
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = in.transferTo(out);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash, extension);
+            if (Files.exists(target)) {
+                dedupedCounter.increment();
+                dedupedBytes.increment(size);
+                return new StoredImage(hash, extension, target, size, true);
+            }
+
+            Files.createDirectories(target.getParent());
+            try {
+                moveAtomically(temp, target);
+                temp = null;
+            } catch (FileAlreadyExistsException ex) {
+                // Same content stored concurrently
+                dedupedCounter.increment();
+                dedupedBytes.increment(size);
+                return new StoredImage(hash, extension, target, size, true);
+            }
+            storedCounter.increment();
+            return new StoredImage(hash, extension, target, size, false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store image", ex);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Leftover temp files are harmless
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolve a public file name ({hash}.{ext}) to a stored file
+     */
+    public Optional<StoredImage> find(String name) {
+        Matcher matcher = NAME.matcher(name);
+        if (!matcher.matches() || !CONTENT_TYPES.containsKey(matcher.group(2))) {
+            return Optional.empty();
+        }
+        Path path = pathOf(matcher.group(1), matcher.group(2));
+        try {
+            return Optional.of(new StoredImage(matcher.group(1), matcher.group(2), path, Files.size(path), false));
+        } catch (IOException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Resolve a stored file path (as kept on analysis jobs) back to its image
+     */
+    public Optional<StoredImage> findByPath(Path path) {
+        return find(path.getFileName().toString());
+    }
+
+    private Path pathOf(String hash, String extension) {
+        return root.resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash + "." + extension);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * A stored image
+     * @param deduplicated true if identical content was already on disk
+     */
+    public record StoredImage(String hash, String extension, Path path, long size, boolean deduplicated) {
+
+        public String fileName() {
+            return hash + "." + extension;
+        }
+
+        public String url() {
+            return URL_PREFIX + fileName();
+        }
+
+        public String contentType() {
+            return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+        }
+
+        /**
+         * Strong ETag: the content hash itself
+         */
+        public String etag() {
+            return "\"" + hash + "\"";
+        }
+    }
+}
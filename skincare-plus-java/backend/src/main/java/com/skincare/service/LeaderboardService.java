@@ -0,0 +1,220 @@
+package com.skincare.service;
+
+import com.skincare.dto.LeaderboardEntry;
+import com.skincare.dto.UserAnalysisCount;
+import com.skincare.event.SkinAnalysisChangedEvent;
+import com.skincare.repository.SkinAnalysisRepository;
+import com.skincare.repository.UserRepository;
+import com.skincare.util.RankedSkipList;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Leaderboard Service
+ * Users ranked by number of analyses, held in a ranked skip list so a page or
+ * a single user's rank costs O(log n) plus one username lookup per page.
+ * Loaded once from a GROUP BY over skin_analysis, then kept current from
+ * committed analysis inserts and deletes. Pooled ids do not commit in id order,
+ * so events that commit during the load are replayed against the load's own
+ * snapshot rather than its max id.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final int ID_CHECK_CHUNK = 1000;
+
+    private static final Comparator<Standing> ORDER = Comparator
+            .comparingLong(Standing::analysisCount).reversed()
+            .thenComparingLong(Standing::userId);
+
+    private final SkinAnalysisRepository skinAnalysisRepository;
+    private final UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RankedSkipList<Standing> ranking = new RankedSkipList<>(ORDER);
+    private final Map<Long, Long> counts = new HashMap<>();
+
+    // Events that commit while loading are held back and replayed against the load snapshot
+    private final List<SkinAnalysisChangedEvent> heldBack = new ArrayList<>();
+    private volatile boolean loaded;
+
+    public LeaderboardService(SkinAnalysisRepository skinAnalysisRepository, UserRepository userRepository) {
+        this.skinAnalysisRepository = skinAnalysisRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Count analyses per user, then fold in the events held back meanwhile
+     * The count and the visibility check of held-back ids read the same snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void load() {
+        Long maxId = skinAnalysisRepository.findMaxId();
+        long cap = maxId != null ? maxId : 0;
+        if (maxId != null) {
+            try (Stream<UserAnalysisCount> rows = skinAnalysisRepository.streamCountsByUserUpTo(maxId)) {
+                rows.forEach(row -> adjust(row.userId(), row.analysisCount()));
+            }
+        }
+
+        synchronized (heldBack) {
+            replay(heldBack, cap);
+            heldBack.clear();
+            loaded = true;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalysisChanged(SkinAnalysisChangedEvent event) {
+        if (event.facts().id() == null || event.facts().userId() == null
+                || event.type() == SkinAnalysisChangedEvent.ChangeType.UPDATED) {
+            return;
+        }
+        if (!loaded) {
+            synchronized (heldBack) {
+                if (!loaded) {
+                    heldBack.add(event);
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    /**
+     * Leaderboard page starting at a zero-based offset
+     */
+    public List<LeaderboardEntry> page(int offset, int limit) {
+        List<Standing> standings;
+        lock.readLock().lock();
+        try {
+            standings = ranking.range(offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, String> usernames = usernames(standings.stream().map(Standing::userId).toList());
+        List<LeaderboardEntry> entries = new ArrayList<>(standings.size());
+        for (int i = 0; i < standings.size(); i++) {
+            Standing standing = standings.get(i);
+            entries.add(new LeaderboardEntry(offset + i + 1L, standing.userId(),
+                    usernames.get(standing.userId()), standing.analysisCount()));
+        }
+        return entries;
+    }
+
+    /**
+     * A single user's position; empty if the user has no analyses
+     */
+    public Optional<LeaderboardEntry> standingOf(Long userId) {
+        Standing standing;
+        int rank;
+        lock.readLock().lock();
+        try {
+            Long count = counts.get(userId);
+            if (count == null) {
+                return Optional.empty();
+            }
+            standing = new Standing(userId, count);
+            rank = ranking.rankOf(standing);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(new LeaderboardEntry(rank + 1L, userId,
+                usernames(List.of(userId)).get(userId), standing.analysisCount()));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply held-back events the load did not already reflect. Whether the load
+     * counted an id is taken from its snapshot (ids above the cap never are),
+     * then each id's creates and deletes are applied in order.
+     */
+    private void replay(List<SkinAnalysisChangedEvent> events, long cap) {
+        Set<Long> belowCap = new LinkedHashSet<>();
+        for (SkinAnalysisChangedEvent event : events) {
+            if (event.facts().id() <= cap) {
+                belowCap.add(event.facts().id());
+            }
+        }
+        Set<Long> visible = new HashSet<>();
+        List<Long> ids = new ArrayList<>(belowCap);
+        for (int from = 0; from < ids.size(); from += ID_CHECK_CHUNK) {
+            visible.addAll(skinAnalysisRepository.findExistingIds(ids.subList(from, Math.min(ids.size(), from + ID_CHECK_CHUNK))));
+        }
+
+        Map<Long, Boolean> counted = new HashMap<>();
+        for (SkinAnalysisChangedEvent event : events) {
+            Long id = event.facts().id();
+            boolean present = counted.computeIfAbsent(id, visible::contains);
+            boolean created = event.type() == SkinAnalysisChangedEvent.ChangeType.CREATED;
+            if (created != present) {
+                apply(event);
+                counted.put(id, created);
+            }
+        }
+    }
+
+    private void apply(SkinAnalysisChangedEvent event) {
+        adjust(event.facts().userId(),
+                event.type() == SkinAnalysisChangedEvent.ChangeType.DELETED ? -1 : 1);
+    }
+
+    private void adjust(Long userId, long delta) {
+        lock.writeLock().lock();
+        try {
+            long previous = counts.getOrDefault(userId, 0L);
+            long updated = Math.max(0, previous + delta);
+            if (previous > 0) {
+                ranking.remove(new Standing(userId, previous));
+            }
+            if (updated > 0) {
+                counts.put(userId, updated);
+                ranking.add(new Standing(userId, updated));
+            } else {
+                counts.remove(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, String> usernames(List<Long> userIds) {
+        Map<Long, String> usernames = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (Object[] row : userRepository.findUsernamesByIdIn(userIds)) {
+                usernames.put((Long) row[0], (String) row[1]);
+            }
+        }
+        return usernames;
+    }
+
+    private record Standing(long userId, long analysisCount) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.skincare.service;
+
+import com.skincare.dto.ReminderNotice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Log Reminder Sender
+ * Writes reminders to the application log; the default until a real channel is configured
+ */
+@Component
+@ConditionalOnProperty(name = "reminders.sender", havingValue = "log", matchIfMissing = true)
+public class LogReminderSender implements ReminderSender {
+
+    private static final Logger log = LoggerFactory.getLogger(LogReminderSender.class);
+
+    @Override
+    public void send(List<ReminderNotice> batch) {
+        for (ReminderNotice notice : batch) {
+            log.info("Reminder {}: user {} has an appointment with {} on {} at {}{}",
+                    notice.getReminderId(), notice.getUserId(), notice.getDoctorName(),
+                    notice.getAppointmentDate(), notice.getAppointmentTime(),
+                    notice.getLocation() != null ? " (" + notice.getLocation() + ")" : "");
+        }
+    }
+}
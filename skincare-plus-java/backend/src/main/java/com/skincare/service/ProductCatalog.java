@@ -0,0 +1,617 @@
+package com.skincare.service;
+
+import com.skincare.dto.ProductDocument;
+import com.skincare.dto.ProductHit;
+import com.skincare.dto.ProductSuggestion;
+import com.skincare.dto.SkinProfile;
+import com.skincare.model.SkinConcern;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Product Catalog
+ * Immutable search index over one snapshot of the product table.
+ *
+ * Layout:
+ * - Documents are numbered 0..n-1.
+ * - Terms from name, brand and ingredients sit in one sorted array, so a
+ *   prefix is a contiguous range found by binary search.
+ * - Each term has a roaring bitmap of documents per field.
+ * - Brand, category, skin type and concern ordinals are stored per document,
+ *   for filters and for one-pass facet counting.
+ *
+ * Autocomplete answers one- and two-letter prefixes from a precomputed table,
+ * and longer prefixes by scanning their range of the term array.
+ *
+ * Scoring adds a field weight for each query term matched (name 3, brand 2,
+ * ingredient 1). It then boosts products for the searcher's skin type and
+ * each of their current concerns.
+ */
+public final class ProductCatalog {
+
+    private static final float[] FIELD_WEIGHTS = {3f, 2f, 1f};
+    private static final int NAME = 0;
+    private static final int BRAND = 1;
+    private static final int INGREDIENT = 2;
+
+    private static final float SKIN_TYPE_BOOST = 1.5f;
+    private static final float CONCERN_BOOST = 2f;
+
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+    private static final int MAX_AUTOCOMPLETE_SCAN = 50_000;
+    private static final int PRECOMPUTED_PREFIX_LENGTH = 2;
+    private static final int PRECOMPUTED_SUGGESTIONS = 10;
+    private static final int MAX_FACET_VALUES = 20;
+
+    public static final ProductCatalog EMPTY = new Builder().build();
+
+    private final ProductDocument[] documents;
+    private final RoaringBitmap all;
+
+    private final String[] terms;
+    private final RoaringBitmap[][] postings;
+    private final RoaringBitmap[] anyField;
+    private final int[] documentFrequency;
+    private final Map<String, List<ProductSuggestion>> shortPrefixes;
+
+    private final String[] brands;
+    private final String[] brandLabels;
+    private final int[] brandOf;
+    private final RoaringBitmap[] byBrand;
+    private final String[] categories;
+    private final String[] categoryLabels;
+    private final int[] categoryOf;
+    private final RoaringBitmap[] byCategory;
+    private final byte[] skinTypeMask;
+    private final RoaringBitmap[] bySkinType;
+    private final byte[] concernMask;
+    private final RoaringBitmap[] byConcern;
+
+    private ProductCatalog(Builder builder) {
+        this.documents = builder.documents.toArray(new ProductDocument[0]);
+        this.all = new RoaringBitmap();
+        if (documents.length > 0) {
+            all.add(0L, documents.length);
+        }
+
+        this.terms = builder.postings.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        this.postings = new RoaringBitmap[FIELD_WEIGHTS.length][terms.length];
+        this.anyField = new RoaringBitmap[terms.length];
+        this.documentFrequency = new int[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            RoaringBitmap[] fields = builder.postings.get(terms[t]);
+            List<RoaringBitmap> present = new ArrayList<>(fields.length);
+            for (int f = 0; f < fields.length; f++) {
+                if (fields[f] != null) {
+                    fields[f].runOptimize();
+                    postings[f][t] = fields[f];
+                    present.add(fields[f]);
+                }
+            }
+            anyField[t] = present.size() == 1 ? present.get(0) : FastAggregation.or(present.iterator());
+            documentFrequency[t] = anyField[t].getCardinality();
+        }
+
+        this.brands = builder.brands.keySet().toArray(new String[0]);
+        this.brandLabels = Arrays.stream(brands).map(builder.labels::get).toArray(String[]::new);
+        this.brandOf = builder.brandOf.stream().mapToInt(Integer::intValue).toArray();
+        this.byBrand = postingsOf(brandOf, brands.length);
+        this.categories = builder.categories.keySet().toArray(new String[0]);
+        this.categoryLabels = Arrays.stream(categories).map(builder.labels::get).toArray(String[]::new);
+        this.categoryOf = builder.categoryOf.stream().mapToInt(Integer::intValue).toArray();
+        this.byCategory = postingsOf(categoryOf, categories.length);
+        this.skinTypeMask = toBytes(builder.skinTypeMask);
+        this.bySkinType = postingsOfMask(skinTypeMask, SkinProfile.SKIN_TYPES.size());
+        this.concernMask = toBytes(builder.concernMask);
+        this.byConcern = postingsOfMask(concernMask, SkinConcern.values().length);
+
+        this.shortPrefixes = precomputeShortPrefixes();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return documents.length;
+    }
+
+    public int termCount() {
+        return terms.length;
+    }
+
+    /**
+     * Products matching every query word (the last one as a prefix) and the filters, best first
+     */
+    public Result search(Query query) {
+        RoaringBitmap matches = all;
+        List<RoaringBitmap[]> tokenFields = new ArrayList<>();
+        List<String> tokens = tokenize(query.text());
+        for (int i = 0; i < tokens.size(); i++) {
+            RoaringBitmap[] fields = i == tokens.size() - 1 ? prefixFields(tokens.get(i)) : exactFields(tokens.get(i));
+            RoaringBitmap any = FastAggregation.or(Arrays.stream(fields).iterator());
+            matches = RoaringBitmap.and(matches, any);
+            tokenFields.add(fields);
+        }
+        matches = filter(matches, ordinal(brands, query.brand()), byBrand);
+        matches = filter(matches, ordinal(categories, query.category()), byCategory);
+        if (query.skinType() != null) {
+            matches = filter(matches, SkinProfile.SKIN_TYPES.indexOf(SkinProfile.canonicalSkinType(query.skinType())), bySkinType);
+        }
+        if (query.concern() != null) {
+            matches = filter(matches, query.concern().ordinal(), byConcern);
+        }
+
+        int boostSkinType = query.boostSkinType() == null ? -1
+                : SkinProfile.SKIN_TYPES.indexOf(SkinProfile.canonicalSkinType(query.boostSkinType()));
+        int wanted = Math.max(0, query.offset()) + Math.max(0, query.limit());
+        TopK top = new TopK(wanted);
+        int[] brandCounts = new int[brands.length];
+        int[] categoryCounts = new int[categories.length];
+        int[] skinTypeCounts = new int[SkinProfile.SKIN_TYPES.size()];
+        int[] concernCounts = new int[SkinConcern.values().length];
+
+        IntIterator docs = matches.getIntIterator();
+        while (docs.hasNext()) {
+            int doc = docs.next();
+            float score = 0;
+            for (RoaringBitmap[] fields : tokenFields) {
+                float best = 0;
+                for (int f = 0; f < fields.length; f++) {
+                    if (FIELD_WEIGHTS[f] > best && fields[f].contains(doc)) {
+                        best = FIELD_WEIGHTS[f];
+                    }
+                }
+                score += best;
+            }
+            if (boostSkinType >= 0 && (skinTypeMask[doc] & (1 << boostSkinType)) != 0) {
+                score += SKIN_TYPE_BOOST;
+            }
+            score += CONCERN_BOOST * Integer.bitCount(concernMask[doc] & query.boostConcernMask());
+            top.offer(score, doc);
+
+            if (brandOf[doc] >= 0) brandCounts[brandOf[doc]]++;
+            if (categoryOf[doc] >= 0) categoryCounts[categoryOf[doc]]++;
+            countBits(skinTypeMask[doc], skinTypeCounts);
+            countBits(concernMask[doc], concernCounts);
+        }
+
+        long[] ranked = top.sorted();
+        List<ProductHit> hits = new ArrayList<>();
+        for (int i = Math.max(0, query.offset()); i < ranked.length; i++) {
+            hits.add(new ProductHit(documents[TopK.doc(ranked[i])], TopK.score(ranked[i])));
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("brand", topValues(brandLabels, brandCounts));
+        facets.put("category", topValues(categoryLabels, categoryCounts));
+        facets.put("skinType", topValues(SkinProfile.SKIN_TYPES.toArray(new String[0]), skinTypeCounts));
+        facets.put("concern", topValues(Arrays.stream(SkinConcern.values()).map(Enum::name).toArray(String[]::new),
+                concernCounts));
+        return new Result(matches.getCardinality(), hits, facets);
+    }
+
+    /**
+     * Completions of the last word of the input, most frequent first
+     */
+    public List<ProductSuggestion> autocomplete(String input, int limit) {
+        List<String> tokens = tokenize(input);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String last = tokens.get(tokens.size() - 1);
+        String lead = input.toLowerCase(Locale.ROOT).endsWith(last)
+                ? String.join(" ", tokens.subList(0, tokens.size() - 1))
+                : "";
+        List<ProductSuggestion> completions = last.length() <= PRECOMPUTED_PREFIX_LENGTH && limit <= PRECOMPUTED_SUGGESTIONS
+                ? shortPrefixes.getOrDefault(last, List.of())
+                : mostFrequent(lowerBound(last), upperBound(last), limit, MAX_AUTOCOMPLETE_SCAN);
+        return completions.stream()
+                .limit(limit)
+                .map(s -> lead.isEmpty() ? s : new ProductSuggestion(lead + " " + s.text(), s.count()))
+                .toList();
+    }
+
+    private RoaringBitmap[] exactFields(String token) {
+        int t = Arrays.binarySearch(terms, token);
+        RoaringBitmap[] fields = new RoaringBitmap[FIELD_WEIGHTS.length];
+        for (int f = 0; f < fields.length; f++) {
+            fields[f] = t >= 0 && postings[f][t] != null ? postings[f][t] : new RoaringBitmap();
+        }
+        return fields;
+    }
+
+    /**
+     * Per-field union over the most frequent terms starting with prefix
+     */
+    private RoaringBitmap[] prefixFields(String prefix) {
+        int from = lowerBound(prefix);
+        int to = upperBound(prefix);
+        int[] expansions = to - from <= MAX_PREFIX_EXPANSIONS
+                ? rangeOf(from, to)
+                : topTerms(from, to, MAX_PREFIX_EXPANSIONS, to - from);
+        RoaringBitmap[] fields = new RoaringBitmap[FIELD_WEIGHTS.length];
+        for (int f = 0; f < fields.length; f++) {
+            List<RoaringBitmap> parts = new ArrayList<>();
+            for (int t : expansions) {
+                if (postings[f][t] != null) {
+                    parts.add(postings[f][t]);
+                }
+            }
+            fields[f] = parts.isEmpty() ? new RoaringBitmap() : FastAggregation.or(parts.iterator());
+        }
+        return fields;
+    }
+
+    private List<ProductSuggestion> mostFrequent(int from, int to, int limit, int maxScan) {
+        List<ProductSuggestion> suggestions = new ArrayList<>();
+        for (int t : topTerms(from, to, limit, maxScan)) {
+            suggestions.add(new ProductSuggestion(terms[t], documentFrequency[t]));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Indexes of the k most frequent terms among the first maxScan of [from, to), most frequent first
+     */
+    private int[] topTerms(int from, int to, int k, int maxScan) {
+        TopK top = new TopK(k);
+        int end = (int) Math.min(to, (long) from + maxScan);
+        for (int t = from; t < end; t++) {
+            top.offer(documentFrequency[t], t);
+        }
+        return Arrays.stream(top.sorted()).mapToInt(TopK::doc).toArray();
+    }
+
+    private Map<String, List<ProductSuggestion>> precomputeShortPrefixes() {
+        Map<String, List<ProductSuggestion>> table = new HashMap<>();
+        for (String term : terms) {
+            for (int length = 1; length <= Math.min(PRECOMPUTED_PREFIX_LENGTH, term.length()); length++) {
+                String prefix = term.substring(0, length);
+                if (!table.containsKey(prefix)) {
+                    table.put(prefix, mostFrequent(lowerBound(prefix), upperBound(prefix),
+                            PRECOMPUTED_SUGGESTIONS, Integer.MAX_VALUE));
+                }
+            }
+        }
+        return table;
+    }
+
+    private int lowerBound(String prefix) {
+        int index = Arrays.binarySearch(terms, prefix);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private int upperBound(String prefix) {
+        // Smallest string greater than every string starting with prefix
+        int index = Arrays.binarySearch(terms, prefix + Character.MAX_VALUE);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static int[] rangeOf(int from, int to) {
+        int[] range = new int[to - from];
+        for (int i = 0; i < range.length; i++) {
+            range[i] = from + i;
+        }
+        return range;
+    }
+
+    private static RoaringBitmap filter(RoaringBitmap matches, int ordinal, RoaringBitmap[] byValue) {
+        if (ordinal == Integer.MIN_VALUE) {
+            return matches;
+        }
+        return ordinal < 0 ? new RoaringBitmap() : RoaringBitmap.and(matches, byValue[ordinal]);
+    }
+
+    /**
+     * Ordinal of a facet value, -1 if unknown, MIN_VALUE if no filter was given
+     */
+    private static int ordinal(String[] values, String value) {
+        if (value == null || value.isBlank()) {
+            return Integer.MIN_VALUE;
+        }
+        return Arrays.binarySearch(values, facetValue(value));
+    }
+
+    private static Map<String, Long> topValues(String[] values, int[] counts) {
+        TopK top = new TopK(MAX_FACET_VALUES);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                top.offer(counts[i], i);
+            }
+        }
+        Map<String, Long> facet = new LinkedHashMap<>();
+        for (long entry : top.sorted()) {
+            facet.put(values[TopK.doc(entry)], (long) TopK.score(entry));
+        }
+        return facet;
+    }
+
+    private static void countBits(byte mask, int[] counts) {
+        for (int bits = mask & 0xFF; bits != 0; bits &= bits - 1) {
+            counts[Integer.numberOfTrailingZeros(bits)]++;
+        }
+    }
+
+    private static RoaringBitmap[] postingsOf(int[] ordinalOf, int size) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[size];
+        for (int i = 0; i < size; i++) {
+            bitmaps[i] = new RoaringBitmap();
+        }
+        for (int doc = 0; doc < ordinalOf.length; doc++) {
+            if (ordinalOf[doc] >= 0) {
+                bitmaps[ordinalOf[doc]].add(doc);
+            }
+        }
+        for (RoaringBitmap bitmap : bitmaps) {
+            bitmap.runOptimize();
+        }
+        return bitmaps;
+    }
+
+    private static RoaringBitmap[] postingsOfMask(byte[] masks, int bits) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[bits];
+        for (int bit = 0; bit < bits; bit++) {
+            bitmaps[bit] = new RoaringBitmap();
+        }
+        for (int doc = 0; doc < masks.length; doc++) {
+            for (int mask = masks[doc] & 0xFF; mask != 0; mask &= mask - 1) {
+                bitmaps[Integer.numberOfTrailingZeros(mask)].add(doc);
+            }
+        }
+        for (RoaringBitmap bitmap : bitmaps) {
+            bitmap.runOptimize();
+        }
+        return bitmaps;
+    }
+
+    private static byte[] toBytes(List<Byte> values) {
+        byte[] bytes = new byte[values.size()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = values.get(i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Lower-cased words of letters and digits
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String facetValue(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Search parameters; null text and filters match everything
+     * @param boostSkinType    searcher's skin type, or null
+     * @param boostConcernMask searcher's current concerns as a {@link SkinConcern} mask
+     */
+    public record Query(String text, String brand, String category, String skinType, SkinConcern concern,
+                        String boostSkinType, int boostConcernMask, int offset, int limit) {
+    }
+
+    public record Result(long total, List<ProductHit> hits, Map<String, Map<String, Long>> facets) {
+    }
+
+    /**
+     * Collects documents for one catalog snapshot
+     */
+    public static final class Builder {
+
+        private final List<ProductDocument> documents = new ArrayList<>();
+        private final Map<String, RoaringBitmap[]> postings = new HashMap<>();
+        private final Map<String, Integer> brands = new TreeMap<>();
+        private final Map<String, String> labels = new HashMap<>();
+        private final List<Integer> brandOf = new ArrayList<>();
+        private final Map<String, Integer> categories = new TreeMap<>();
+        private final List<Integer> categoryOf = new ArrayList<>();
+        private final List<Byte> skinTypeMask = new ArrayList<>();
+        private final List<Byte> concernMask = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(ProductDocument product) {
+            int doc = documents.size();
+            documents.add(product);
+            index(product.name(), NAME, doc);
+            index(product.brand(), BRAND, doc);
+            index(product.ingredients(), INGREDIENT, doc);
+            brandOf.add(value(brands, product.brand()));
+            categoryOf.add(value(categories, product.category()));
+            label(product.brand());
+            label(product.category());
+            skinTypeMask.add(skinTypes(product.skinTypes()));
+            concernMask.add(concerns(product.concerns()));
+            return this;
+        }
+
+        public ProductCatalog build() {
+            // Ordinals were handed out in insertion order; renumber to the sorted order used for lookups
+            renumber(brands, brandOf);
+            renumber(categories, categoryOf);
+            return new ProductCatalog(this);
+        }
+
+        private void index(String text, int field, int doc) {
+            for (String token : tokenize(text)) {
+                RoaringBitmap[] fields = postings.computeIfAbsent(token, t -> new RoaringBitmap[FIELD_WEIGHTS.length]);
+                if (fields[field] == null) {
+                    fields[field] = new RoaringBitmap();
+                }
+                fields[field].add(doc);
+            }
+        }
+
+        /**
+         * First spelling seen of a facet value, used in facet output
+         */
+        private void label(String value) {
+            if (value != null && !value.isBlank()) {
+                labels.putIfAbsent(facetValue(value), value.trim());
+            }
+        }
+
+        private static int value(Map<String, Integer> ordinals, String value) {
+            if (value == null || value.isBlank()) {
+                return -1;
+            }
+            return ordinals.computeIfAbsent(facetValue(value), v -> ordinals.size());
+        }
+
+        private static void renumber(Map<String, Integer> ordinals, List<Integer> ordinalOf) {
+            int[] sortedOrdinal = new int[ordinals.size()];
+            int next = 0;
+            for (Map.Entry<String, Integer> entry : ordinals.entrySet()) {
+                sortedOrdinal[entry.getValue()] = next;
+                entry.setValue(next++);
+            }
+            for (int doc = 0; doc < ordinalOf.size(); doc++) {
+                int ordinal = ordinalOf.get(doc);
+                if (ordinal >= 0) {
+                    ordinalOf.set(doc, sortedOrdinal[ordinal]);
+                }
+            }
+        }
+
+        private static byte skinTypes(String list) {
+            int mask = 0;
+            for (String type : splitList(list)) {
+                if (type.equalsIgnoreCase("ALL")) {
+                    mask = (1 << SkinProfile.SKIN_TYPES.size()) - 1;
+                } else {
+                    int bit = SkinProfile.SKIN_TYPES.indexOf(SkinProfile.canonicalSkinType(type));
+                    if (bit >= 0) {
+                        mask |= 1 << bit;
+                    }
+                }
+            }
+            return (byte) mask;
+        }
+
+        private static byte concerns(String list) {
+            int mask = 0;
+            for (String name : splitList(list)) {
+                String normalized = name.toUpperCase(Locale.ROOT).replace(' ', '_');
+                for (SkinConcern concern : SkinConcern.values()) {
+                    if (concern.name().equals(normalized)) {
+                        mask |= concern.bit();
+                    }
+                }
+            }
+            return (byte) mask;
+        }
+
+        private static List<String> splitList(String list) {
+            if (list == null || list.isBlank()) {
+                return List.of();
+            }
+            return Arrays.stream(list.split("[,;|]")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        }
+    }
+
+    /**
+     * Bounded min-heap of (score, index) pairs packed into longs; keeps the k largest
+     */
+    private static final class TopK {
+
+        private final long[] heap;
+        private int size;
+
+        TopK(int k) {
+            this.heap = new long[Math.max(0, k)];
+        }
+
+        void offer(float score, int index) {
+            if (heap.length == 0) {
+                return;
+            }
+            // Non-negative floats order like their bits; ties go to the lower index
+            long key = ((long) Float.floatToIntBits(Math.max(0f, score)) << 32) | (Integer.MAX_VALUE - index);
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Keys, best first
+         */
+        long[] sorted() {
+            long[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            for (int i = 0, j = keys.length - 1; i < j; i++, j--) {
+                long swap = keys[i];
+                keys[i] = keys[j];
+                keys[j] = swap;
+            }
+            return keys;
+        }
+
+        static int doc(long key) {
+            return Integer.MAX_VALUE - (int) (key & 0xFFFFFFFFL);
+        }
+
+        static float score(long key) {
+            return Float.intBitsToFloat((int) (key >>> 32));
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= heap[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && heap[left] < heap[smallest]) smallest = left;
+                if (right < size && heap[right] < heap[smallest]) smallest = right;
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.skincare.service;
+
+import com.skincare.dto.ProductDocument;
+import com.skincare.dto.ProductSearchPage;
+import com.skincare.dto.ProductSuggestion;
+import com.skincare.dto.SkinAnalysisFacts;
+import com.skincare.dto.SkinProfile;
+import com.skincare.model.SkinConcern;
+import com.skincare.repository.ProductRepository;
+import com.skincare.repository.SkinAnalysisRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Product Search Service
+ * Serves catalog search and autocomplete from an immutable {@link ProductCatalog}.
+ * A reload builds a new catalog beside the live one and swaps the reference, so
+ * queries never see a half-built index and never wait on a rebuild.
+ */
+@Service
+public class ProductSearchService {
+
+    private final ProductRepository productRepository;
+    private final SkinAnalysisRepository skinAnalysisRepository;
+
+    private final AtomicReference<ProductCatalog> catalog = new AtomicReference<>(ProductCatalog.EMPTY);
+
+    private final Timer searchTimer;
+    private final Timer autocompleteTimer;
+    private final Timer reloadTimer;
+
+    public ProductSearchService(ProductRepository productRepository,
+                                SkinAnalysisRepository skinAnalysisRepository,
+                                MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.skinAnalysisRepository = skinAnalysisRepository;
+        this.searchTimer = Timer.builder("products.search.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.autocompleteTimer = Timer.builder("products.autocomplete.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.reloadTimer = Timer.builder("products.index.reload").register(meterRegistry);
+        Gauge.builder("products.index.size", this, ProductSearchService::size).register(meterRegistry);
+    }
+
+    /**
+     * Build a new catalog from the products table and swap it in
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        reloadTimer.record(() -> {
+            ProductCatalog.Builder builder = ProductCatalog.builder();
+            try (Stream<ProductDocument> rows = productRepository.streamActiveDocuments()) {
+                rows.forEach(builder::add);
+            }
+            catalog.set(builder.build());
+        });
+    }
+
+    /**
+     * Ranked search; results matching the user's latest analysis are boosted when userId is given
+     */
+    public ProductSearchPage search(String text, String brand, String category, String skinType,
+                                    SkinConcern concern, Long userId, int offset, int limit) {
+        String boostSkinType = null;
+        int boostConcerns = 0;
+        if (userId != null) {
+            List<SkinAnalysisFacts> latest = skinAnalysisRepository.findLatestFactsByUserId(userId, Limit.of(1));
+            if (!latest.isEmpty()) {
+                String canonical = SkinProfile.canonicalSkinType(latest.get(0).skinType());
+                boostSkinType = SkinProfile.UNKNOWN.equals(canonical) ? null : canonical;
+                boostConcerns = latest.get(0).concernMask();
+            }
+        }
+
+        ProductCatalog.Query query = new ProductCatalog.Query(text, brand, category, skinType, concern,
+                boostSkinType, boostConcerns, offset, limit);
+        ProductCatalog.Result result = searchTimer.record(() -> catalog.get().search(query));
+
+        Set<SkinConcern> concerns = EnumSet.noneOf(SkinConcern.class);
+        for (SkinConcern candidate : SkinConcern.values()) {
+            if (candidate.isIn(boostConcerns)) {
+                concerns.add(candidate);
+            }
+        }
+        return new ProductSearchPage(result.total(), offset, result.hits(), result.facets(), boostSkinType, concerns);
+    }
+
+    public List<ProductSuggestion> autocomplete(String prefix, int limit) {
+        return autocompleteTimer.record(() -> catalog.get().autocomplete(prefix, limit));
+    }
+
+    public int size() {
+        return catalog.get().size();
+    }
+
+    public int termCount() {
+        return catalog.get().termCount();
+    }
+}
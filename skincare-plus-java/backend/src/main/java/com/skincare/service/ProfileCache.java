@@ -0,0 +1,122 @@
+package com.skincare.service;
+
+import com.skincare.event.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Profile Cache
+ * Size-bounded, TTL + LRU cache of serialized profile responses keyed by username.
+ * A hit returns ready-to-send JSON bytes and a strong ETag, skipping JPA and Jackson.
+ * Entries are dropped after any committed change to the user row.
+ */
+@Service
+public class ProfileCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final Map<String, CachedProfile> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer hitTimer;
+    private final Timer missTimer;
+
+    public ProfileCache(@Value("${profile.cache.max-size:10000}") int maxSize,
+                        @Value("${profile.cache.ttl-seconds:300}") long ttlSeconds,
+                        MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedProfile> eldest) {
+                return size() > ProfileCache.this.maxSize;
+            }
+        };
+        this.hits = Counter.builder("profile.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("profile.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.hitTimer = Timer.builder("profile.cache.latency").tag("result", "hit")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.missTimer = Timer.builder("profile.cache.latency").tag("result", "miss")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        Gauge.builder("profile.cache.hit.ratio", this, ProfileCache::hitRatio).register(meterRegistry);
+    }
+
+    /**
+     * Get the cached profile, or serialize a fresh one with the loader
+     * The loader runs outside the lock; its result is only cached if no
+     * invalidation happened while it was loading.
+     */
+    public CachedProfile get(String username, Supplier<byte[]> loader) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedProfile cached = entries.get(username);
+            if (cached != null && cached.expiresAt() > now) {
+                hits.increment();
+                hitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+        }
+        misses.increment();
+
+        long version = invalidations.get();
+        byte[] body = loader.get();
+        CachedProfile profile = new CachedProfile(body, etagOf(body), now + ttlMillis);
+        synchronized (entries) {
+            if (invalidations.get() == version) {
+                entries.put(username, profile);
+            }
+        }
+        missTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return profile;
+    }
+
+    /**
+     * Drop a user's entry once the change is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.username());
+    }
+
+    public void invalidate(String username) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(username);
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private static String etagOf(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    /**
+     * Serialized response body with its strong ETag
+     */
+    public record CachedProfile(byte[] body, String etag, long expiresAt) {
+
+        public boolean matches(String ifNoneMatch) {
+            return ifNoneMatch != null && (ifNoneMatch.equals(etag) || ifNoneMatch.contains(etag));
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.skincare.service;
+
+import com.skincare.dto.AnalysisOutcome;
+import com.skincare.dto.ContentDedupStats;
+import com.skincare.dto.SkinProfile;
+import com.skincare.model.ContentBlock;
+import com.skincare.model.Recommendation;
+import com.skincare.model.SkinAnalysis;
+import com.skincare.model.SkinConcern;
+import com.skincare.model.User;
+import com.skincare.repository.ContentBlockRepository;
+import com.skincare.repository.RecommendationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Recommendation Engine
+ * Builds Recommendation rows from a canonical {@link SkinProfile} (skin type plus
+ * concern mask) instead of per-analysis free text.
+ *
+ * Every part the analyzer wrote is interned from this analysis's own text, so
+ * identical wording shares one {@link ContentBlock} by hash and nothing is reused
+ * across analyses that said something different. Parts the analyzer left blank
+ * fall back to templates generated from the profile; those template block ids are
+ * memoized per profile in a bounded TTL + LRU cache.
+ */
+@Service
+public class RecommendationEngine {
+
+    private final ContentBlockStore contentBlockStore;
+    private final ContentBlockRepository contentBlockRepository;
+    private final RecommendationRepository recommendationRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<SkinProfile, CachedRoutine> templates;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter storedBytes;
+    private final Counter savedBytes;
+
+    public RecommendationEngine(ContentBlockStore contentBlockStore,
+                                ContentBlockRepository contentBlockRepository,
+                                RecommendationRepository recommendationRepository,
+                                @Value("${recommendations.profile-cache.max-size:256}") int maxSize,
+                                @Value("${recommendations.profile-cache.ttl-minutes:1440}") long ttlMinutes,
+                                MeterRegistry meterRegistry) {
+        this.contentBlockStore = contentBlockStore;
+        this.contentBlockRepository = contentBlockRepository;
+        this.recommendationRepository = recommendationRepository;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SkinProfile, CachedRoutine> eldest) {
+                return size() > RecommendationEngine.this.maxSize;
+            }
+        };
+        this.hits = Counter.builder("recommendations.profile.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("recommendations.profile.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.storedBytes = Counter.builder("recommendations.content.stored.bytes")
+                .description("Bytes of new content blocks written")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.savedBytes = Counter.builder("recommendations.content.dedup.saved.bytes")
+                .description("Bytes referenced from existing content blocks instead of stored again")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("recommendations.profile.cache.hit.ratio", this, RecommendationEngine::hitRatio)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Unsaved Recommendation for an analysis: its own text where the analyzer gave
+     * one, its profile's shared template blocks for the rest
+     */
+    public Recommendation recommend(User user, SkinAnalysis analysis, AnalysisOutcome outcome) {
+        SkinProfile profile = SkinProfile.of(outcome);
+        RoutineBlocks blocks = merge(outcome, profile);
+        account(blocks);
+
+        return Recommendation.builder()
+                .user(user)
+                .skinAnalysis(analysis)
+                .morningRoutineBlock(reference(blocks.morningRoutine()))
+                .eveningRoutineBlock(reference(blocks.eveningRoutine()))
+                .dietAdviceBlock(reference(blocks.dietAdvice()))
+                .lifestyleAdviceBlock(reference(blocks.lifestyleAdvice()))
+                .dosBlock(reference(blocks.dos()))
+                .dontsBlock(reference(blocks.donts()))
+                .build();
+    }
+
+    /**
+     * Storage versus referenced bytes across all recommendations, plus cache counters
+     */
+    @Transactional(readOnly = true)
+    public ContentDedupStats stats() {
+        long stored = contentBlockRepository.sumByteLength();
+        long referenced = recommendationRepository.sumReferencedContentBytes();
+        int cached;
+        synchronized (templates) {
+            cached = templates.size();
+        }
+        return new ContentDedupStats(
+                contentBlockRepository.count(),
+                stored,
+                referenced,
+                Math.max(0, referenced - stored),
+                (long) hits.count(),
+                (long) misses.count(),
+                hitRatio(),
+                cached);
+    }
+
+    /**
+     * Intern each part the analyzer wrote; take the profile's template block for the rest
+     */
+    private RoutineBlocks merge(AnalysisOutcome outcome, SkinProfile profile) {
+        Supplier<RoutineBlocks> templates = memoize(() -> templateBlocks(profile));
+        return new RoutineBlocks(
+                own(outcome.getMorningRoutine(), () -> templates.get().morningRoutine()),
+                own(outcome.getEveningRoutine(), () -> templates.get().eveningRoutine()),
+                own(outcome.getDietAdvice(), () -> templates.get().dietAdvice()),
+                own(outcome.getLifestyleAdvice(), () -> templates.get().lifestyleAdvice()),
+                own(outcome.getDos(), () -> templates.get().dos()),
+                own(outcome.getDonts(), () -> templates.get().donts()));
+    }
+
+    private ContentBlockStore.Interned own(String text, Supplier<ContentBlockStore.Interned> template) {
+        return StringUtils.hasText(text) ? contentBlockStore.intern(text) : template.get();
+    }
+
+    private RoutineBlocks templateBlocks(SkinProfile profile) {
+        synchronized (templates) {
+            CachedRoutine cached = templates.get(profile);
+            if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return cached.blocks();
+            }
+        }
+        misses.increment();
+        RoutineBlocks blocks = new RoutineBlocks(
+                contentBlockStore.intern(morningRoutine(profile)),
+                contentBlockStore.intern(eveningRoutine(profile)),
+                contentBlockStore.intern(lines(profile, RecommendationEngine::dietAdvice)),
+                contentBlockStore.intern(lines(profile, RecommendationEngine::lifestyleAdvice)),
+                contentBlockStore.intern(lines(profile, RecommendationEngine::dos)),
+                contentBlockStore.intern(lines(profile, RecommendationEngine::donts)));
+        synchronized (templates) {
+            templates.put(profile, new CachedRoutine(blocks.existing(), System.currentTimeMillis() + ttlMillis));
+        }
+        return blocks;
+    }
+
+    private void account(RoutineBlocks blocks) {
+        for (ContentBlockStore.Interned block : blocks.all()) {
+            if (block == null) {
+                continue;
+            }
+            if (block.created()) {
+                storedBytes.increment(block.byteLength());
+            } else {
+                savedBytes.increment(block.byteLength());
+            }
+        }
+    }
+
+    private ContentBlock reference(ContentBlockStore.Interned block) {
+        return block == null ? null : entityManager.getReference(ContentBlock.class, block.id());
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private static <T> Supplier<T> memoize(Supplier<T> supplier) {
+        return new Supplier<>() {
+            private T value;
+
+            @Override
+            public T get() {
+                if (value == null) {
+                    value = supplier.get();
+                }
+                return value;
+            }
+        };
+    }
+
+    // Templates, used for any part the analyzer left blank
+
+    private static String morningRoutine(SkinProfile profile) {
+        List<String> steps = new ArrayList<>();
+        steps.add(switch (profile.skinType()) {
+            case "OILY" -> "Foaming gel cleanser";
+            case "DRY" -> "Cream cleanser or lukewarm water rinse";
+            case "SENSITIVE" -> "Fragrance-free gentle cleanser";
+            default -> "Gentle cleanser";
+        });
+        if (profile.has(SkinConcern.DARK_SPOTS)) steps.add("Vitamin C serum");
+        if (profile.has(SkinConcern.REDNESS)) steps.add("Niacinamide or centella serum");
+        steps.add(switch (profile.skinType()) {
+            case "OILY" -> "Oil-free gel moisturizer";
+            case "DRY" -> "Rich moisturizer with ceramides";
+            default -> "Lightweight moisturizer";
+        });
+        steps.add(profile.skinType().equals("SENSITIVE") ? "Mineral sunscreen SPF 50" : "Broad-spectrum sunscreen SPF 50");
+        return numbered(steps);
+    }
+
+    private static String eveningRoutine(SkinProfile profile) {
+        List<String> steps = new ArrayList<>();
+        steps.add("Remove sunscreen and makeup, then cleanse");
+        if (profile.has(SkinConcern.ACNE)) steps.add("Salicylic acid (BHA) treatment on breakout-prone areas");
+        if (profile.has(SkinConcern.WRINKLES)) steps.add("Retinoid, starting two nights a week");
+        if (profile.has(SkinConcern.DARK_SPOTS) && !profile.has(SkinConcern.WRINKLES)) steps.add("Azelaic acid serum");
+        if (profile.has(SkinConcern.DRYNESS) || profile.skinType().equals("DRY")) steps.add("Hyaluronic acid on damp skin");
+        steps.add(profile.skinType().equals("OILY") ? "Light gel moisturizer" : "Barrier-repair night cream");
+        return numbered(steps);
+    }
+
+    private static String dietAdvice(SkinConcern concern) {
+        return switch (concern) {
+            case ACNE -> "Limit high-glycemic foods and excess dairy";
+            case DARK_SPOTS -> "Eat antioxidant-rich fruit and vegetables";
+            case WRINKLES -> "Include omega-3 fats and enough protein";
+            case DRYNESS -> "Drink water through the day and add healthy fats";
+            case REDNESS -> "Go easy on alcohol and very spicy food";
+        };
+    }
+
+    private static String lifestyleAdvice(SkinConcern concern) {
+        return switch (concern) {
+            case ACNE -> "Change pillowcases often and keep hands off your face";
+            case DARK_SPOTS -> "Reapply sunscreen every two hours outdoors";
+            case WRINKLES -> "Sleep seven to nine hours and avoid smoking";
+            case DRYNESS -> "Use a humidifier and keep showers short and lukewarm";
+            case REDNESS -> "Avoid hot water and harsh scrubs";
+        };
+    }
+
+    private static String dos(SkinConcern concern) {
+        return switch (concern) {
+            case ACNE -> "Use non-comedogenic products";
+            case DARK_SPOTS -> "Wear sunscreen every day, even indoors";
+            case WRINKLES -> "Introduce retinoids slowly";
+            case DRYNESS -> "Moisturize right after washing";
+            case REDNESS -> "Patch-test new products";
+        };
+    }
+
+    private static String donts(SkinConcern concern) {
+        return switch (concern) {
+            case ACNE -> "Don't pick or squeeze breakouts";
+            case DARK_SPOTS -> "Don't skip sunscreen on cloudy days";
+            case WRINKLES -> "Don't combine retinoids with strong acids on the same night";
+            case DRYNESS -> "Don't use alcohol-based toners";
+            case REDNESS -> "Don't over-exfoliate";
+        };
+    }
+
+    private static String lines(SkinProfile profile, Function<SkinConcern, String> advice) {
+        List<String> lines = Stream.of(SkinConcern.values())
+                .filter(profile::has)
+                .map(advice)
+                .map(line -> "- " + line)
+                .toList();
+        return lines.isEmpty() ? "- Keep up a consistent cleanse, moisturize and sunscreen routine" : String.join("\n", lines);
+    }
+
+    private static String numbered(List<String> steps) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < steps.size(); i++) {
+            if (i > 0) {
+                text.append('\n');
+            }
+            text.append("Step ").append(i + 1).append(": ").append(steps.get(i));
+        }
+        return text.toString();
+    }
+
+    private record RoutineBlocks(ContentBlockStore.Interned morningRoutine,
+                                 ContentBlockStore.Interned eveningRoutine,
+                                 ContentBlockStore.Interned dietAdvice,
+                                 ContentBlockStore.Interned lifestyleAdvice,
+                                 ContentBlockStore.Interned dos,
+                                 ContentBlockStore.Interned donts) {
+
+        List<ContentBlockStore.Interned> all() {
+            return Arrays.asList(morningRoutine, eveningRoutine, dietAdvice, lifestyleAdvice, dos, donts);
+        }
+
+        RoutineBlocks existing() {
+            return new RoutineBlocks(existing(morningRoutine), existing(eveningRoutine), existing(dietAdvice),
+                    existing(lifestyleAdvice), existing(dos), existing(donts));
+        }
+
+        private static ContentBlockStore.Interned existing(ContentBlockStore.Interned block) {
+            return block == null ? null : block.existing();
+        }
+    }
+
+    private record CachedRoutine(RoutineBlocks blocks, long expiresAt) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.skincare.service;
+
+import com.skincare.dto.ReminderNotice;
+
+import java.util.List;
+
+/**
+ * Reminder Sender
+ * Delivery channel for appointment reminders (log, e-mail, SMS, push).
+ * Throwing leaves the whole batch claimed but unsent, and it is retried later.
+ */
+public interface ReminderSender {
+
+    void send(List<ReminderNotice> batch);
+}
@@ -0,0 +1,450 @@
+package com.skincare.service;
+
+import com.skincare.dto.BookAppointmentRequest;
+import com.skincare.exception.SlotUnavailableException;
+import com.skincare.model.Appointment;
+import com.skincare.model.DoctorSchedule;
+import com.skincare.model.User;
+import com.skincare.repository.AppointmentRepository;
+import com.skincare.repository.DoctorScheduleRepository;
+import com.skincare.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scheduling Service
+ * Appointment booking on fixed-length slots. Each doctor-day is a bitmask of
+ * taken slots held in an AtomicLong, so a conflict check is one bit test and a
+ * booking one CAS, with no lock shared across doctors or days. The
+ * doctor_schedules row (same bitmask, optimistic @Version) is the source of
+ * truth: a booking is only final once that row commits, and a lost race there
+ * releases the in-memory bit and reloads the day. Cached days are re-read when
+ * older than scheduling.refresh-seconds, and before a booking is refused, so
+ * slots freed on another node become bookable here too.
+ */
+@Service
+public class SchedulingService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorScheduleRepository doctorScheduleRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LocalTime dayStart;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final int horizonDays;
+    private final long refreshMillis;
+
+    private final Map<DoctorDay, DaySlots> days = new ConcurrentHashMap<>();
+
+    private final Counter conflicts;
+
+    public SchedulingService(AppointmentRepository appointmentRepository,
+                             DoctorScheduleRepository doctorScheduleRepository,
+                             UserRepository userRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${scheduling.day-start:09:00}") String dayStart,
+                             @Value("${scheduling.day-end:18:00}") String dayEnd,
+                             @Value("${scheduling.slot-minutes:30}") int slotMinutes,
+                             @Value("${scheduling.horizon-days:90}") int horizonDays,
+                             @Value("${scheduling.refresh-seconds:30}") long refreshSeconds,
+                             MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.doctorScheduleRepository = doctorScheduleRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dayStart = LocalTime.parse(dayStart);
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = (int) (Duration.between(this.dayStart, LocalTime.parse(dayEnd)).toMinutes() / slotMinutes);
+        this.horizonDays = horizonDays;
+        this.refreshMillis = refreshSeconds * 1000;
+        if (slotsPerDay < 1 || slotsPerDay > Long.SIZE) {
+            throw new IllegalStateException("A working day must have between 1 and 64 slots, got " + slotsPerDay);
+        }
+        this.conflicts = Counter.builder("scheduling.conflicts")
+                .description("Bookings rejected because the slot was taken")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Book a free slot for a user
+     */
+    public Appointment book(Long userId, BookAppointmentRequest request) {
+        String doctor = normalizeDoctor(request.getDoctorName());
+        int slot = slotOf(request.getAppointmentDate(), request.getAppointmentTime());
+        DoctorDay day = new DoctorDay(doctor, request.getAppointmentDate());
+
+        reserve(day, slot);
+        try {
+            return transactionTemplate.execute(status -> {
+                markInSchedule(day, slot);
+                User user = userRepository.getReferenceById(userId);
+                return appointmentRepository.save(Appointment.builder()
+                        .user(user)
+                        .doctorName(doctor)
+                        .doctorSpecialization(request.getDoctorSpecialization())
+                        .doctorPhone(request.getDoctorPhone())
+                        .doctorEmail(request.getDoctorEmail())
+                        .appointmentDate(request.getAppointmentDate())
+                        .appointmentTime(request.getAppointmentTime())
+                        .location(request.getLocation())
+                        .address(request.getAddress())
+                        .latitude(request.getLatitude())
+                        .longitude(request.getLongitude())
+                        .patientConcerns(request.getPatientConcerns())
+                        .status(Appointment.AppointmentStatus.SCHEDULED)
+                        .build());
+            });
+        } catch (RuntimeException ex) {
+            release(day, slot);
+            throw translate(day, ex);
+        }
+    }
+
+    /**
+     * Move an appointment to another slot with the same doctor
+     */
+    public Appointment reschedule(Long userId, Long appointmentId, LocalDate date, LocalTime time) {
+        Appointment current = findOwned(userId, appointmentId);
+        if (!current.getStatus().occupiesSlot() || current.getStatus() == Appointment.AppointmentStatus.COMPLETED) {
+            throw new IllegalArgumentException("Only active appointments can be rescheduled");
+        }
+        DoctorDay from = new DoctorDay(current.getDoctorName(), current.getAppointmentDate());
+        int fromSlot = slotIndex(current.getAppointmentTime());
+        DoctorDay to = new DoctorDay(current.getDoctorName(), date);
+        int toSlot = slotOf(date, time);
+        if (from.equals(to) && fromSlot == toSlot) {
+            return current;
+        }
+        // Legacy appointments off the slot grid hold no bit to clear
+        boolean clearFrom = fromSlot >= 0;
+
+        reserve(to, toSlot);
+        Appointment moved;
+        try {
+            moved = transactionTemplate.execute(status -> {
+                Appointment appointment = appointmentRepository.findById(appointmentId).orElseThrow();
+                if (!appointment.getVersion().equals(current.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Appointment.class, appointmentId);
+                }
+                markInSchedule(to, toSlot);
+                if (clearFrom) {
+                    clearInSchedule(from, fromSlot);
+                }
+                appointment.setAppointmentDate(date);
+                appointment.setAppointmentTime(time);
+                appointment.setStatus(Appointment.AppointmentStatus.RESCHEDULED);
+                return appointmentRepository.save(appointment);
+            });
+        } catch (RuntimeException ex) {
+            release(to, toSlot);
+            throw translate(to, ex);
+        }
+        if (clearFrom) {
+            release(from, fromSlot);
+        }
+        return moved;
+    }
+
+    /**
+     * Cancel an appointment and free its slot
+     */
+    public Appointment cancel(Long userId, Long appointmentId) {
+        Appointment current = findOwned(userId, appointmentId);
+        if (current.getStatus() == Appointment.AppointmentStatus.CANCELLED) {
+            return current;
+        }
+        DoctorDay day = new DoctorDay(current.getDoctorName(), current.getAppointmentDate());
+        int slot = slotIndex(current.getAppointmentTime());
+
+        Appointment cancelled;
+        try {
+            cancelled = transactionTemplate.execute(status -> {
+                Appointment appointment = appointmentRepository.findById(appointmentId).orElseThrow();
+                if (!appointment.getVersion().equals(current.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Appointment.class, appointmentId);
+                }
+                if (slot >= 0) {
+                    clearInSchedule(day, slot);
+                }
+                appointment.setStatus(Appointment.AppointmentStatus.CANCELLED);
+                return appointmentRepository.save(appointment);
+            });
+        } catch (RuntimeException ex) {
+            throw translate(day, ex);
+        }
+        if (slot >= 0) {
+            release(day, slot);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Free slot start times for a doctor, per day, over [from, from + days)
+     * Days not already cached are read in two range queries and not cached, so
+     * browsing arbitrary doctors and dates does not grow the booking cache.
+     */
+    public Map<LocalDate, List<LocalTime>> freeSlots(String doctorName, LocalDate from, int dayCount) {
+        String doctor = normalizeDoctor(doctorName);
+        LocalDate today = LocalDate.now();
+        LocalDate first = from.isBefore(today) ? today : from;
+        LocalDate last = first.plusDays(Math.max(1, dayCount) - 1);
+        if (last.isAfter(today.plusDays(horizonDays))) {
+            last = today.plusDays(horizonDays);
+        }
+        Map<LocalDate, Long> masks = masks(doctor, first, last);
+
+        Map<LocalDate, List<LocalTime>> free = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            long taken = masks.getOrDefault(date, 0L);
+            List<LocalTime> times = new ArrayList<>();
+            for (int slot = 0; slot < slotsPerDay; slot++) {
+                LocalTime time = dayStart.plusMinutes((long) slot * slotMinutes);
+                if ((taken & (1L << slot)) == 0 && date.atTime(time).isAfter(now)) {
+                    times.add(time);
+                }
+            }
+            free.put(date, times);
+        }
+        return free;
+    }
+
+    /**
+     * Drop bitmaps of past days, and stale ones that would be re-read on next use anyway
+     */
+    @Scheduled(cron = "${scheduling.evict-cron:0 5 0 * * *}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        long staleBefore = System.currentTimeMillis() - refreshMillis;
+        days.entrySet().removeIf(entry -> entry.getKey().date().isBefore(today)
+                || entry.getValue().loadedAt() < staleBefore);
+    }
+
+    private void reserve(DoctorDay day, int slot) {
+        DaySlots slots = slots(day);
+        if (!tryReserve(slots.taken(), slot)) {
+            // The cached day may predate a cancellation on another node: re-read it before refusing
+            if (!tryReserve(reload(day, slots).taken(), slot)) {
+                conflicts.increment();
+                throw new SlotUnavailableException("That slot is already booked");
+            }
+        }
+    }
+
+    private static boolean tryReserve(AtomicLong bitmap, int slot) {
+        long bit = 1L << slot;
+        while (true) {
+            long taken = bitmap.get();
+            if ((taken & bit) != 0) {
+                return false;
+            }
+            if (bitmap.compareAndSet(taken, taken | bit)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(DoctorDay day, int slot) {
+        DaySlots slots = days.get(day);
+        if (slots != null) {
+            long bit = ~(1L << slot);
+            slots.taken().getAndUpdate(taken -> taken & bit);
+        }
+    }
+
+    /**
+     * The day's bitmap, loaded from the database on first use and again once it is older than the refresh interval
+     */
+    private DaySlots slots(DoctorDay day) {
+        DaySlots cached = days.get(day);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt() < refreshMillis) {
+            return cached;
+        }
+        return reload(day, cached);
+    }
+
+    /**
+     * Replace a day's bitmap with the database's, unless another thread already replaced it.
+     * Bits of bookings still in flight on this node are dropped with the old bitmap; the
+     * schedule row's version check still rejects any double booking that lets through.
+     */
+    private DaySlots reload(DoctorDay day, DaySlots stale) {
+        DaySlots loaded = new DaySlots(new AtomicLong(loadMask(day)), System.currentTimeMillis());
+        return days.compute(day, (key, current) -> current == null || current == stale ? loaded : current);
+    }
+
+    /**
+     * Taken-slot masks for [first, last]: fresh cached days as they are, the rest from the database
+     */
+    private Map<LocalDate, Long> masks(String doctor, LocalDate first, LocalDate last) {
+        Map<LocalDate, Long> masks = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        boolean missing = false;
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            DaySlots cached = days.get(new DoctorDay(doctor, date));
+            if (cached != null && now - cached.loadedAt() < refreshMillis) {
+                masks.put(date, cached.taken().get());
+            } else {
+                missing = true;
+            }
+        }
+        if (!missing) {
+            return masks;
+        }
+
+        Map<LocalDate, Long> stored = new HashMap<>();
+        for (DoctorSchedule schedule : doctorScheduleRepository.findByDoctorNameAndScheduleDateBetween(doctor, first, last)) {
+            stored.put(schedule.getScheduleDate(), schedule.getBookedSlots());
+        }
+        Map<LocalDate, Long> legacy = new HashMap<>();
+        if (stored.size() <= ChronoUnit.DAYS.between(first, last)) {
+            for (Object[] row : appointmentRepository.findSlotsByDoctorBetween(doctor, first, last)) {
+                int slot = slotIndex((LocalTime) row[1]);
+                if (slot >= 0 && ((Appointment.AppointmentStatus) row[2]).occupiesSlot()) {
+                    legacy.merge((LocalDate) row[0], 1L << slot, (a, b) -> a | b);
+                }
+            }
+        }
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            if (!masks.containsKey(date)) {
+                masks.put(date, stored.containsKey(date) ? stored.get(date) : legacy.getOrDefault(date, 0L));
+            }
+        }
+        return masks;
+    }
+
+    private long loadMask(DoctorDay day) {
+        return doctorScheduleRepository.findByDoctorNameAndScheduleDate(day.doctor(), day.date())
+                .map(DoctorSchedule::getBookedSlots)
+                .orElseGet(() -> maskFromAppointments(day));
+    }
+
+    /**
+     * Rebuild a day from appointment rows booked before doctor_schedules existed
+     */
+    private long maskFromAppointments(DoctorDay day) {
+        long mask = 0;
+        for (Object[] row : appointmentRepository.findSlotsByDoctorAndDate(day.doctor(), day.date())) {
+            int slot = slotIndex((LocalTime) row[0]);
+            if (slot >= 0 && ((Appointment.AppointmentStatus) row[1]).occupiesSlot()) {
+                mask |= 1L << slot;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Set the slot's bit in the schedule row; the version check at commit catches concurrent writers
+     */
+    private void markInSchedule(DoctorDay day, int slot) {
+        DoctorSchedule schedule = doctorScheduleRepository.findByDoctorNameAndScheduleDate(day.doctor(), day.date())
+                .orElseGet(() -> DoctorSchedule.builder()
+                        .doctorName(day.doctor())
+                        .scheduleDate(day.date())
+                        .bookedSlots(maskFromAppointments(day))
+                        .build());
+        long bit = 1L << slot;
+        if ((schedule.getBookedSlots() & bit) != 0) {
+            throw new SlotUnavailableException("That slot is already booked");
+        }
+        schedule.setBookedSlots(schedule.getBookedSlots() | bit);
+        doctorScheduleRepository.saveAndFlush(schedule);
+    }
+
+    private void clearInSchedule(DoctorDay day, int slot) {
+        DoctorSchedule schedule = doctorScheduleRepository.findByDoctorNameAndScheduleDate(day.doctor(), day.date())
+                .orElseGet(() -> DoctorSchedule.builder()
+                        .doctorName(day.doctor())
+                        .scheduleDate(day.date())
+                        .bookedSlots(maskFromAppointments(day))
+                        .build());
+        schedule.setBookedSlots(schedule.getBookedSlots() & ~(1L << slot));
+        doctorScheduleRepository.saveAndFlush(schedule);
+    }
+
+    /**
+     * Lost races against another node become 409s, and the stale day is reloaded on next use
+     */
+    private RuntimeException translate(DoctorDay day, RuntimeException ex) {
+        if (ex instanceof ObjectOptimisticLockingFailureException || ex instanceof DataIntegrityViolationException) {
+            days.remove(day);
+            conflicts.increment();
+            return new SlotUnavailableException("The schedule changed concurrently, please pick the slot again");
+        }
+        if (ex instanceof SlotUnavailableException) {
+            days.remove(day);
+            conflicts.increment();
+        }
+        return ex;
+    }
+
+    private Appointment findOwned(Long userId, Long appointmentId) {
+        Appointment appointment = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
+        if (!appointment.getUser().getId().equals(userId)) {
+            throw new IllegalArgumentException("Appointment not found");
+        }
+        return appointment;
+    }
+
+    /**
+     * Slot index for a bookable date and time, or an exception explaining why it is not bookable
+     */
+    private int slotOf(LocalDate date, LocalTime time) {
+        if (date.isBefore(LocalDate.now()) || !date.atTime(time).isAfter(LocalDateTime.now())) {
+            throw new SlotUnavailableException("Appointments must be in the future");
+        }
+        if (date.isAfter(LocalDate.now().plusDays(horizonDays))) {
+            throw new SlotUnavailableException("Appointments can be booked at most " + horizonDays + " days ahead");
+        }
+        int slot = slotIndex(time);
+        if (slot < 0) {
+            throw new SlotUnavailableException("Appointments start every " + slotMinutes + " minutes from "
+                    + dayStart + " for " + slotsPerDay + " slots");
+        }
+        return slot;
+    }
+
+    /**
+     * Index of the slot starting at time, or -1 if time is not a slot start
+     */
+    private int slotIndex(LocalTime time) {
+        long minutes = Duration.between(dayStart, time).toMinutes();
+        if (minutes < 0 || minutes % slotMinutes != 0 || time.getSecond() != 0 || time.getNano() != 0) {
+            return -1;
+        }
+        long slot = minutes / slotMinutes;
+        return slot < slotsPerDay ? (int) slot : -1;
+    }
+
+    private static String normalizeDoctor(String doctorName) {
+        return doctorName.trim().replaceAll("\\s+", " ");
+    }
+
+    private record DoctorDay(String doctor, LocalDate date) {
+    }
+
+    private record DaySlots(AtomicLong taken, long loadedAt) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.skincare.service;
+
+import com.skincare.dto.AnalysisOutcome;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Skin Analyzer
+ * Turns a stored skin image into an analysis. Implementations are selected
+ * with analysis.ai.provider (claude, stub).
+ */
+public interface SkinAnalyzer {
+
+    AnalysisOutcome analyze(Path image, String contentType);
+
+    /**
+     * Analyze several images in one upstream call
+     * Results are returned in input order. The default makes one call per image.
+     */
+    default List<AnalysisOutcome> analyzeBatch(List<AnalysisImage> images) {
+        List<AnalysisOutcome> outcomes = new ArrayList<>(images.size());
+        for (AnalysisImage image : images) {
+            outcomes.add(analyze(image.path(), image.contentType()));
+        }
+        return outcomes;
+    }
+
+    /**
+     * One image to analyze
+     */
+    record AnalysisImage(Path path, String contentType, long size) {
+    }
+}
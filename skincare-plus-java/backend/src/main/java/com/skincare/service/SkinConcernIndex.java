@@ -0,0 +1,318 @@
+package com.skincare.service;
+
+import com.skincare.dto.SkinAnalysisFacts;
+import com.skincare.event.SkinAnalysisChangedEvent;
+import com.skincare.model.SkinConcern;
+import com.skincare.repository.SkinAnalysisRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Skin Concern Index
+ * In-memory roaring bitmaps of analysis ids per concern, per skin type and per
+ * creation day. Cohort filters ("acne AND redness, COMBINATION skin, last 30
+ * days") become bitmap intersections instead of scans over skin_analysis.
+ * Loaded once at startup and kept current from committed entity changes;
+ * changes that commit during the load are replayed onto the loaded snapshot.
+ * Bitmaps hold unsigned 32-bit ids, so larger ids are logged and left out.
+ */
+@Service
+public class SkinConcernIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkinConcernIndex.class);
+
+    private static final long MAX_INDEXED_ID = 0xFFFF_FFFFL;
+
+    private final SkinAnalysisRepository skinAnalysisRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<SkinConcern, RoaringBitmap> byConcern = new EnumMap<>(SkinConcern.class);
+    private final Map<String, RoaringBitmap> bySkinType = new HashMap<>();
+    private final NavigableMap<LocalDate, RoaringBitmap> byDay = new TreeMap<>();
+
+    // Events that commit while loading are held back and replayed against the load snapshot
+    private final List<SkinAnalysisChangedEvent> heldBack = new ArrayList<>();
+    private volatile boolean loaded;
+
+    private final Timer queryTimer;
+
+    public SkinConcernIndex(SkinAnalysisRepository skinAnalysisRepository, MeterRegistry meterRegistry) {
+        this.skinAnalysisRepository = skinAnalysisRepository;
+        for (SkinConcern concern : SkinConcern.values()) {
+            byConcern.put(concern, new RoaringBitmap());
+        }
+        this.queryTimer = Timer.builder("analysis.index.query")
+                .description("Cohort filter evaluation time")
+                .register(meterRegistry);
+        Gauge.builder("analysis.index.entries", this, SkinConcernIndex::size).register(meterRegistry);
+        Gauge.builder("analysis.index.bytes", this, SkinConcernIndex::sizeInBytes).register(meterRegistry);
+    }
+
+    /**
+     * Build the bitmaps from the table, then fold in the events held back meanwhile
+     * The bitmaps hold exactly the rows of the snapshot, so they answer which held-back ids it saw.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void load() {
+        try (Stream<SkinAnalysisFacts> rows = skinAnalysisRepository.streamAllFacts()) {
+            rows.forEach(this::add);
+        }
+
+        synchronized (heldBack) {
+            replay(heldBack);
+            heldBack.clear();
+            loaded = true;
+        }
+
+        lock.writeLock().lock();
+        try {
+            all.runOptimize();
+            byConcern.values().forEach(RoaringBitmap::runOptimize);
+            bySkinType.values().forEach(RoaringBitmap::runOptimize);
+            byDay.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Apply a committed insert, update or delete
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnalysisChanged(SkinAnalysisChangedEvent event) {
+        if (!loaded) {
+            synchronized (heldBack) {
+                if (!loaded) {
+                    heldBack.add(event);
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    private void apply(SkinAnalysisChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> add(event.facts());
+            case UPDATED -> {
+                remove(event.facts());
+                add(event.facts());
+            }
+            case DELETED -> remove(event.facts());
+        }
+    }
+
+    /**
+     * Ids matching every given concern, the skin type and the day range; null arguments don't filter
+     */
+    public RoaringBitmap filter(Set<SkinConcern> concerns, String skinType, LocalDate from, LocalDate to) {
+        return queryTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                List<RoaringBitmap> parts = new ArrayList<>();
+                parts.add(all);
+                if (concerns != null) {
+                    concerns.forEach(concern -> parts.add(byConcern.get(concern)));
+                }
+                if (skinType != null && !skinType.isBlank()) {
+                    parts.add(bySkinType.getOrDefault(SkinAnalysisFacts.normalizeSkinType(skinType), new RoaringBitmap()));
+                }
+                if (from != null || to != null) {
+                    parts.add(days(from, to));
+                }
+                return FastAggregation.and(parts.iterator());
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Number of analyses with each concern inside a cohort
+     */
+    public Map<SkinConcern, Long> concernCounts(RoaringBitmap cohort) {
+        Map<SkinConcern, Long> counts = new EnumMap<>(SkinConcern.class);
+        lock.readLock().lock();
+        try {
+            byConcern.forEach((concern, ids) -> counts.put(concern, (long) RoaringBitmap.andCardinality(cohort, ids)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    /**
+     * Highest (newest) ids of a cohort, at most limit of them
+     */
+    public List<Long> newestIds(RoaringBitmap cohort, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, cohort.getCardinality()));
+        IntIterator iterator = cohort.getReverseIntIterator();
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add(Integer.toUnsignedLong(iterator.next()));
+        }
+        return ids;
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return all.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = all.getLongSizeInBytes();
+            bytes += sizeOf(byConcern.values());
+            bytes += sizeOf(bySkinType.values());
+            bytes += sizeOf(byDay.values());
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply events in commit order, skipping those the snapshot already reflects:
+     * a create it saw, an update or delete of a row it never saw (deleted before it)
+     */
+    private void replay(List<SkinAnalysisChangedEvent> events) {
+        for (SkinAnalysisChangedEvent event : events) {
+            boolean present = contains(event.facts());
+            boolean created = event.type() == SkinAnalysisChangedEvent.ChangeType.CREATED;
+            if (created != present) {
+                apply(event);
+            }
+        }
+    }
+
+    private boolean contains(SkinAnalysisFacts facts) {
+        Long id = facts.id();
+        if (id == null || id < 0 || id > MAX_INDEXED_ID) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return all.contains(id.intValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(SkinAnalysisFacts facts) {
+        if (!indexable(facts)) {
+            return;
+        }
+        int id = facts.id().intValue();
+        lock.writeLock().lock();
+        try {
+            all.add(id);
+            for (SkinConcern concern : SkinConcern.values()) {
+                if (concern.isIn(facts.concernMask())) {
+                    byConcern.get(concern).add(id);
+                }
+            }
+            bySkinType.computeIfAbsent(facts.skinType(), type -> new RoaringBitmap()).add(id);
+            if (facts.createdAt() != null) {
+                byDay.computeIfAbsent(facts.createdAt().toLocalDate(), day -> new RoaringBitmap()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clear an id everywhere; the old skin type and concerns of an update are not known
+     */
+    private void remove(SkinAnalysisFacts facts) {
+        if (!indexable(facts)) {
+            return;
+        }
+        int id = facts.id().intValue();
+        lock.writeLock().lock();
+        try {
+            all.remove(id);
+            byConcern.values().forEach(ids -> ids.remove(id));
+            bySkinType.values().forEach(ids -> ids.remove(id));
+            if (facts.createdAt() != null) {
+                RoaringBitmap day = byDay.get(facts.createdAt().toLocalDate());
+                if (day != null) {
+                    day.remove(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the id fits an unsigned 32-bit bitmap entry; larger ids are logged rather than thrown
+     * from the after-commit listener
+     */
+    private static boolean indexable(SkinAnalysisFacts facts) {
+        Long id = facts.id();
+        if (id == null) {
+            return false;
+        }
+        if (id < 0 || id > MAX_INDEXED_ID) {
+            logger.error("Analysis id {} does not fit the concern index, leaving it out", id);
+            return false;
+        }
+        return true;
+    }
+
+    private RoaringBitmap days(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, RoaringBitmap> range;
+        if (from != null && to != null) {
+            range = byDay.subMap(from, true, to, true);
+        } else if (from != null) {
+            range = byDay.tailMap(from, true);
+        } else {
+            range = byDay.headMap(to, true);
+        }
+        return range.isEmpty() ? new RoaringBitmap() : FastAggregation.or(range.values().iterator());
+    }
+
+    private static long sizeOf(Collection<RoaringBitmap> bitmaps) {
+        long bytes = 0;
+        for (RoaringBitmap bitmap : bitmaps) {
+            bytes += bitmap.getLongSizeInBytes();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,71 @@
+package com.skincare.service;
+
+import com.skincare.dto.AnalysisOutcome;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stub Skin Analyzer
+ * Local stand-in for the AI upstream (tests, demos, load runs).
+ * Returns a fixed analysis after a configurable delay: a fixed cost per call
+ * plus a cost per image, so single-call and batched modes can be compared.
+ */
+@Component
+@ConditionalOnProperty(name = "analysis.ai.provider", havingValue = "stub")
+public class StubSkinAnalyzer implements SkinAnalyzer {
+
+    @Value("${analysis.ai.stub.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${analysis.ai.stub.latency-per-image-ms:0}")
+    private long latencyPerImageMs;
+
+    @Override
+    public AnalysisOutcome analyze(Path image, String contentType) {
+        simulateLatency(1);
+        return fixedOutcome();
+    }
+
+    @Override
+    public List<AnalysisOutcome> analyzeBatch(List<AnalysisImage> images) {
+        simulateLatency(images.size());
+        return Collections.nCopies(images.size(), fixedOutcome());
+    }
+
+    private void simulateLatency(int images) {
+        long delay = latencyMs + latencyPerImageMs * images;
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while analyzing", ex);
+        }
+    }
+
+    private static AnalysisOutcome fixedOutcome() {
+        return AnalysisOutcome.builder()
+                .skinType("COMBINATION")
+                .confidenceScore(new BigDecimal("80.00"))
+                .concerns(List.of("Acne", "Dryness"))
+                .acne(true)
+                .dryness(true)
+                .summary("Mild acne with some dryness detected")
+                .recommendations("Use a gentle cleanser and a non-comedogenic moisturizer.")
+                .morningRoutine("Step 1: Gentle cleanser\nStep 2: Moisturizer\nStep 3: Sunscreen SPF 50")
+                .eveningRoutine("Step 1: Cleanser\nStep 2: Salicylic acid serum\nStep 3: Night cream")
+                .dietAdvice("Drink plenty of water and limit sugar.")
+                .lifestyleAdvice("Sleep 7-8 hours and change pillow covers weekly.")
+                .dos("Moisturize daily")
+                .donts("Don't pick at blemishes")
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.skincare.util;
+
+/**
+ * Adaptive Concurrency Limit (AIMD)
+ * Caps in-flight calls to an upstream. Each call that completes within the
+ * latency target grows the limit additively (about +1 per limit's worth of
+ * calls); an overload signal (429, timeout, breaker rejection) or a slow call
+ * halves it. acquire() blocks while the limit is reached.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    /**
+     * Release a permit and adapt the limit
+     * @param overloaded true if the upstream signalled overload
+     */
+    public synchronized void release(long latencyNanos, boolean overloaded) {
+        inFlight--;
+        if (overloaded || latencyNanos > latencyTargetNanos) {
+            limit = Math.max(minLimit, limit / 2);
+        } else {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Release a permit whose call never started; the limit is left as it is
+     */
+    public synchronized void cancel() {
+        inFlight--;
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
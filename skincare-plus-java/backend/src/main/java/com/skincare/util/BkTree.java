@@ -0,0 +1,107 @@
+package com.skincare.util;
+
+import java.util.function.Consumer;
+
+/**
+ * BK-Tree
+ * Metric tree over 64-bit hashes using Hamming distance. A radius query only
+ * descends into children whose edge distance is within [d - radius, d + radius],
+ * which prunes most of the tree for small radii. Not thread-safe; callers lock.
+ */
+public class BkTree<V> {
+
+    private Node<V> root;
+    private int size;
+
+    public void add(long key, V value) {
+        if (root == null) {
+            root = new Node<>(key, value);
+            size++;
+            return;
+        }
+        Node<V> node = root;
+        while (true) {
+            int distance = PerceptualHash.distance(key, node.key);
+            if (distance == 0) {
+                node.value = value;
+                return;
+            }
+            Node<V> child = node.child(distance);
+            if (child == null) {
+                node.setChild(distance, new Node<>(key, value));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Nearest entry within maxDistance, or null
+     */
+    @SuppressWarnings("unchecked")
+    public Match<V> nearest(long key, int maxDistance) {
+        Match<V>[] best = new Match[1];
+        search(key, maxDistance, match -> {
+            if (best[0] == null || match.distance() < best[0].distance()) {
+                best[0] = match;
+            }
+        });
+        return best[0];
+    }
+
+    public void search(long key, int maxDistance, Consumer<Match<V>> visitor) {
+        if (root != null) {
+            search(root, key, maxDistance, visitor);
+        }
+    }
+
+    private void search(Node<V> node, long key, int maxDistance, Consumer<Match<V>> visitor) {
+        int distance = PerceptualHash.distance(key, node.key);
+        if (distance <= maxDistance) {
+            visitor.accept(new Match<>(node.key, node.value, distance));
+        }
+        if (node.children == null) {
+            return;
+        }
+        int from = Math.max(1, distance - maxDistance);
+        int to = Math.min(64, distance + maxDistance);
+        for (int d = from; d <= to; d++) {
+            Node<V> child = node.children[d];
+            if (child != null) {
+                search(child, key, maxDistance, visitor);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public record Match<V>(long key, V value, int distance) {
+    }
+
+    private static final class Node<V> {
+        private final long key;
+        private V value;
+        /** Indexed by distance to this node (1..64); allocated on first child */
+        private Node<V>[] children;
+
+        Node(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        Node<V> child(int distance) {
+            return children == null ? null : children[distance];
+        }
+
+        @SuppressWarnings("unchecked")
+        void setChild(int distance, Node<V> child) {
+            if (children == null) {
+                children = new Node[65];
+            }
+            children[distance] = child;
+        }
+    }
+}
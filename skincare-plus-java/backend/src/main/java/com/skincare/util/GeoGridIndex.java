@@ -0,0 +1,183 @@
+package com.skincare.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Geo Grid Index
+ * Points bucketed into fixed-size latitude/longitude cells. Radius queries scan
+ * only the cells overlapping the search box; k-nearest queries scan rings of
+ * cells outward from the query cell and stop once no unscanned cell can be
+ * closer than the current k-th result. Longitude wraps at the antimeridian.
+ * Not thread-safe; callers lock.
+ */
+public class GeoGridIndex<V> {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    private final double cellDegrees;
+    private final int lngCells;
+    private final int latCells;
+    private final Map<Long, List<Point<V>>> cells = new HashMap<>();
+    private int size;
+
+    public GeoGridIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.lngCells = (int) Math.ceil(360 / cellDegrees);
+        this.latCells = (int) Math.ceil(180 / cellDegrees);
+    }
+
+    public void add(double latitude, double longitude, V value) {
+        cells.computeIfAbsent(key(latRow(latitude), lngColumn(longitude)), key -> new ArrayList<>())
+                .add(new Point<>(latitude, longitude, value));
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Up to k values nearest to the point, no farther than maxMeters, closest first
+     */
+    public List<Match<V>> nearest(double latitude, double longitude, int k, double maxMeters) {
+        if (k <= 0 || size == 0) {
+            return List.of();
+        }
+        PriorityQueue<Match<V>> best = new PriorityQueue<>(Comparator.comparingDouble(Match<V>::distanceMeters).reversed());
+        int row = latRow(latitude);
+        int column = lngColumn(longitude);
+        int maxRing = Math.max(latCells, lngCells / 2);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double ringMinMeters = ringLowerBoundMeters(latitude, ring);
+            if (ringMinMeters > maxMeters || best.size() == k && ringMinMeters > best.peek().distanceMeters()) {
+                break;
+            }
+            for (int dr = -ring; dr <= ring; dr++) {
+                int r = row + dr;
+                if (r < 0 || r >= latCells) {
+                    continue;
+                }
+                boolean edgeRow = Math.abs(dr) == ring;
+                for (int dc = -ring; dc <= ring; dc += edgeRow ? 1 : 2 * Math.max(ring, 1)) {
+                    // Offsets past half the globe reach the same column from the other side
+                    if (dc < -(lngCells - 1) / 2 || dc > lngCells / 2) {
+                        continue;
+                    }
+                    collect(r, column + dc, latitude, longitude, maxMeters, k, best);
+                    if (ring == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        List<Match<V>> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Match::distanceMeters));
+        return result;
+    }
+
+    /**
+     * All values within radiusMeters of the point, closest first
+     */
+    public List<Match<V>> within(double latitude, double longitude, double radiusMeters) {
+        List<Match<V>> result = new ArrayList<>();
+        double latSpan = radiusMeters / METERS_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(latitude) + latSpan)));
+        double lngSpan = Math.min(180, latSpan / Math.max(cosLat, 1e-6));
+
+        int fromRow = Math.max(0, latRow(latitude - latSpan));
+        int toRow = Math.min(latCells - 1, latRow(latitude + latSpan));
+        int columnSpan = Math.min(lngCells / 2, (int) Math.ceil(lngSpan / cellDegrees));
+        // Capped so a span covering the whole globe visits each column once
+        int columns = Math.min(lngCells, 2 * columnSpan + 1);
+        int firstColumn = lngColumn(longitude) - columnSpan;
+        for (int r = fromRow; r <= toRow; r++) {
+            for (int c = 0; c < columns; c++) {
+                List<Point<V>> points = cells.get(key(r, wrap(firstColumn + c)));
+                if (points == null) {
+                    continue;
+                }
+                for (Point<V> point : points) {
+                    double distance = distanceMeters(latitude, longitude, point.latitude, point.longitude);
+                    if (distance <= radiusMeters) {
+                        result.add(new Match<>(point.value, point.latitude, point.longitude, distance));
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(Match::distanceMeters));
+        return result;
+    }
+
+    /**
+     * Great-circle distance (haversine)
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void collect(int row, int column, double latitude, double longitude, double maxMeters,
+                         int k, PriorityQueue<Match<V>> best) {
+        List<Point<V>> points = cells.get(key(row, wrap(column)));
+        if (points == null) {
+            return;
+        }
+        for (Point<V> point : points) {
+            double distance = distanceMeters(latitude, longitude, point.latitude, point.longitude);
+            if (distance > maxMeters) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new Match<>(point.value, point.latitude, point.longitude, distance));
+            } else if (distance < best.peek().distanceMeters()) {
+                best.poll();
+                best.add(new Match<>(point.value, point.latitude, point.longitude, distance));
+            }
+        }
+    }
+
+    /**
+     * No point in ring r (r >= 1) is closer than r - 1 whole cells; longitude cells shrink toward the poles
+     */
+    private double ringLowerBoundMeters(double latitude, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double degrees = (ring - 1) * cellDegrees;
+        double cosLat = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + degrees)));
+        return degrees * METERS_PER_DEGREE * Math.max(0, cosLat);
+    }
+
+    private int latRow(double latitude) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private int lngColumn(double longitude) {
+        return wrap((int) Math.floor((longitude + 180) / cellDegrees));
+    }
+
+    private int wrap(int column) {
+        return Math.floorMod(column, lngCells);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private record Point<V>(double latitude, double longitude, V value) {
+    }
+
+    public record Match<V>(V value, double latitude, double longitude, double distanceMeters) {
+    }
+}
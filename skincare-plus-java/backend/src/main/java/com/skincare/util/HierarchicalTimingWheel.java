@@ -0,0 +1,204 @@
+package com.skincare.util;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical Timing Wheel
+ * Timers keyed by a long id. Level 0 has one bucket per tick, and each level
+ * above it has buckets 2^wheelBits times wider. A timer sits in the lowest level
+ * that still contains its deadline. When the wheel below wraps around, the timer
+ * is cascaded one level down. Adding a timer is O(1), and each timer is moved at
+ * most {@code levels} times before it fires.
+ *
+ * Buckets are parallel long/int arrays, not node objects, so a pending timer
+ * costs 12 bytes plus array growth slack. There is no remove: callers re-check a
+ * fired timer against their own state and drop stale ones. Not thread-safe.
+ */
+public class HierarchicalTimingWheel {
+
+    @FunctionalInterface
+    public interface ExpiryConsumer {
+        void expired(long id, long deadlineTick);
+    }
+
+    private static final int INITIAL_BUCKET_CAPACITY = 8;
+    private static final int RETAINED_BUCKET_CAPACITY = 1024;
+
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int wheelSize;
+    private final int levels;
+    private final int maxPending;
+    private final long originTick;
+    private final Bucket[][] wheels;
+    private final Bucket overdue = new Bucket();
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis resolution; deadlines are rounded up to a whole tick
+     * @param wheelBits  log2 of the number of buckets per level
+     * @param levels     number of levels; the horizon is (2^wheelBits - 1) * 2^(wheelBits * (levels - 1)) ticks
+     * @param maxPending upper bound on pending timers; {@link #add} refuses beyond it
+     * @param nowMillis  current time
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelBits, int levels, int maxPending, long nowMillis) {
+        if (tickMillis < 1 || wheelBits < 1 || levels < 1 || wheelBits * levels > 40 || maxPending < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.wheelSize = 1 << wheelBits;
+        this.levels = levels;
+        this.maxPending = maxPending;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+        this.originTick = currentTick;
+        this.wheels = new Bucket[levels][wheelSize];
+        for (Bucket[] wheel : wheels) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                wheel[slot] = new Bucket();
+            }
+        }
+    }
+
+    /**
+     * Tick a deadline fires on
+     */
+    public long tickOf(long deadlineMillis) {
+        return Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+    }
+
+    /**
+     * Latest deadline that can be added right now
+     */
+    public long horizonMillis() {
+        int topShift = wheelBits * (levels - 1);
+        long lastTick = Math.min((((currentTick >>> topShift) + wheelSize) << topShift) - 1,
+                originTick + Integer.MAX_VALUE);
+        return lastTick * tickMillis;
+    }
+
+    /**
+     * Schedule a timer; deadlines already passed fire on the next {@link #advance}
+     * @return false if the wheel already holds maxPending timers
+     */
+    public boolean add(long id, long deadlineMillis) {
+        long tick = tickOf(deadlineMillis);
+        if (deadlineMillis > horizonMillis() || tick - originTick < Integer.MIN_VALUE) {
+            throw new IllegalArgumentException("Deadline is beyond the wheel's horizon");
+        }
+        if (size >= maxPending) {
+            return false;
+        }
+        place(id, tick);
+        size++;
+        return true;
+    }
+
+    /**
+     * Move time forward to nowMillis, handing every timer that fell due to the consumer.
+     * The consumer must not call back into the wheel.
+     * @return number of timers fired
+     */
+    public int advance(long nowMillis, ExpiryConsumer consumer) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        int fired = drain(overdue, consumer);
+        while (currentTick < target) {
+            if (size == 0) {
+                currentTick = target;
+                break;
+            }
+            currentTick++;
+            for (int level = levels - 1; level > 0; level--) {
+                int shift = wheelBits * level;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    cascade(wheels[level][slot(currentTick, shift)]);
+                }
+            }
+            fired += drain(wheels[0][slot(currentTick, 0)], consumer);
+            fired += drain(overdue, consumer);
+        }
+        return fired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(long id, long tick) {
+        int offset = (int) (tick - originTick);
+        if (tick <= currentTick) {
+            overdue.add(id, offset);
+            return;
+        }
+        for (int level = 0; level < levels - 1; level++) {
+            int shift = wheelBits * (level + 1);
+            if ((tick >>> shift) == (currentTick >>> shift)) {
+                wheels[level][slot(tick, wheelBits * level)].add(id, offset);
+                return;
+            }
+        }
+        // The top level is a ring: everything within wheelSize of its buckets fits
+        wheels[levels - 1][slot(tick, wheelBits * (levels - 1))].add(id, offset);
+    }
+
+    /**
+     * Re-place a higher-level bucket's timers; they always land in lower levels or overdue, never back here
+     */
+    private void cascade(Bucket bucket) {
+        for (int i = 0; i < bucket.size; i++) {
+            place(bucket.ids[i], originTick + bucket.ticks[i]);
+        }
+        bucket.clear();
+    }
+
+    private int drain(Bucket bucket, ExpiryConsumer consumer) {
+        int count = bucket.size;
+        for (int i = 0; i < count; i++) {
+            consumer.expired(bucket.ids[i], originTick + bucket.ticks[i]);
+        }
+        bucket.clear();
+        size -= count;
+        return count;
+    }
+
+    private int slot(long tick, int shift) {
+        return (int) ((tick >>> shift) & (wheelSize - 1));
+    }
+
+    /**
+     * Growable pair of parallel arrays
+     */
+    private static final class Bucket {
+
+        private static final long[] NO_IDS = new long[0];
+        private static final int[] NO_TICKS = new int[0];
+
+        private long[] ids = NO_IDS;
+        private int[] ticks = NO_TICKS;
+        private int size;
+
+        void add(long id, int tick) {
+            if (size == ids.length) {
+                int capacity = Math.max(INITIAL_BUCKET_CAPACITY, size + (size >> 1));
+                ids = Arrays.copyOf(ids, capacity);
+                ticks = Arrays.copyOf(ticks, capacity);
+            }
+            ids[size] = id;
+            ticks[size] = tick;
+            size++;
+        }
+
+        /**
+         * Empty the bucket; large arrays are dropped so a burst does not pin memory
+         */
+        void clear() {
+            if (ids.length > RETAINED_BUCKET_CAPACITY) {
+                ids = NO_IDS;
+                ticks = NO_TICKS;
+            }
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.skincare.security;
+
+import com.skincare.model.User;
+import com.skincare.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Login (credential lookup plus token issue) must cost one user query and
+ * never initialize User's lazy collections.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CustomUserDetailsServiceTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret-test-secret-1234";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private CustomUserDetailsService userDetailsService;
+    private JwtTokenProvider jwtTokenProvider;
+
+    private Statistics statistics;
+    private long statements;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userDetailsService = new CustomUserDetailsService(userRepository);
+
+        jwtTokenProvider = new JwtTokenProvider(new VerifiedTokenCache(100, new SimpleMeterRegistry()),
+                new InMemoryTokenRevocationStore(3_600_000, 1_000));
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", 3_600_000L);
+        jwtTokenProvider.init();
+
+        User user = new User();
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        user.setPassword("hashed");
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void usernameLoginRunsOneQueryAndLoadsNoCollections() {
+        String token = measured(() -> login("alice"));
+
+        assertEquals(1, statements);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals("alice", jwtTokenProvider.parseToken(token).getUsername());
+    }
+
+    @Test
+    void emailLoginRunsOneQueryAndLoadsNoCollections() {
+        String token = measured(() -> login("alice@example.com"));
+
+        assertEquals(1, statements);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertTrue(jwtTokenProvider.parseToken(token).isValid());
+    }
+
+    /**
+     * What a successful login does after the password check: resolve the principal, then issue its token
+     */
+    private String login(String usernameOrEmail) {
+        UserDetails principal = userDetailsService.loadUserByUsername(usernameOrEmail);
+        return jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    /**
+     * Run an action, leaving the JDBC statements it prepared in {@link #statements}
+     */
+    private <T> T measured(Supplier<T> action) {
+        statistics.clear();
+        T result = action.get();
+        statements = statistics.getPrepareStatementCount();
+        return result;
+    }
+}
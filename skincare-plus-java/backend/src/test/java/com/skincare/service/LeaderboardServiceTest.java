@@ -0,0 +1,189 @@
+package com.skincare.service;
+
+import com.skincare.dto.LeaderboardEntry;
+import com.skincare.dto.SkinAnalysisFacts;
+import com.skincare.dto.UserAnalysisCount;
+import com.skincare.event.SkinAnalysisChangedEvent;
+import com.skincare.model.SkinAnalysis;
+import com.skincare.model.User;
+import com.skincare.repository.SkinAnalysisRepository;
+import com.skincare.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Leaderboard reads must cost a fixed number of statements however many users
+ * are on the page, and must never initialize User's lazy collections.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class LeaderboardServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SkinAnalysisRepository skinAnalysisRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+    private long statements;
+    private int users;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void pageCostsOneStatementRegardlessOfPageSize() {
+        LeaderboardService small = loadedLeaderboard(3);
+        measured(() -> small.page(0, 3));
+        assertEquals(1, statements);
+
+        LeaderboardService large = loadedLeaderboard(40);
+        List<LeaderboardEntry> page = measured(() -> large.page(0, 43));
+        assertEquals(1, statements);
+        assertEquals(43, page.size());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void pageIsOrderedByAnalysisCount() {
+        LeaderboardService leaderboard = loadedLeaderboard(5);
+
+        List<LeaderboardEntry> page = leaderboard.page(0, 5);
+        for (int i = 0; i < page.size(); i++) {
+            LeaderboardEntry entry = page.get(i);
+            assertEquals(i + 1L, entry.getRank());
+            assertEquals(5 - i, entry.getAnalysisCount());
+            assertEquals("user" + (5 - i), entry.getUsername());
+        }
+    }
+
+    @Test
+    void standingOfCostsOneStatement() {
+        LeaderboardService leaderboard = loadedLeaderboard(10);
+        Long userId = userRepository.findByUsername("user7").orElseThrow().getId();
+
+        LeaderboardEntry standing = measured(() -> leaderboard.standingOf(userId).orElseThrow());
+        assertEquals(1, statements);
+        assertEquals(4, standing.getRank());
+        assertEquals("user7", standing.getUsername());
+        assertEquals(7, standing.getAnalysisCount());
+    }
+
+    @Test
+    void topUsersProjectionCostsOneStatementAndLoadsNoEntities() {
+        createUsers(5);
+        measured(() -> userRepository.findTopUsersByAnalysisCount(Limit.of(5)));
+        assertEquals(1, statements);
+
+        createUsers(30);
+        List<UserAnalysisCount> top = measured(() -> userRepository.findTopUsersByAnalysisCount(Limit.of(35)));
+        assertEquals(1, statements);
+        assertEquals(35, top.size());
+        assertEquals("user35", top.get(0).username());
+        assertEquals(35, top.get(0).analysisCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void loadReplaysHeldBackEventsAgainstItsSnapshot() {
+        createUsers(3);
+        Long user1 = userRepository.findByUsername("user1").orElseThrow().getId();
+        Long user2 = userRepository.findByUsername("user2").orElseThrow().getId();
+        Long user3 = userRepository.findByUsername("user3").orElseThrow().getId();
+        List<Long> user1Analyses = analysisIdsOf(user1);
+        List<Long> user3Analyses = analysisIdsOf(user3);
+        // Two of user3's rows are gone from the snapshot; both ids stay below its max id
+        entityManager.remove(entityManager.find(SkinAnalysis.class, user3Analyses.get(0)));
+        entityManager.remove(entityManager.find(SkinAnalysis.class, user3Analyses.get(1)));
+        entityManager.flush();
+        entityManager.clear();
+
+        LeaderboardService leaderboard = new LeaderboardService(skinAnalysisRepository, userRepository);
+        // Committed before the snapshot: already counted
+        leaderboard.onAnalysisChanged(event(SkinAnalysisChangedEvent.ChangeType.CREATED, user1Analyses.get(0), user1));
+        leaderboard.onAnalysisChanged(event(SkinAnalysisChangedEvent.ChangeType.DELETED, user3Analyses.get(0), user3));
+        // Low id committed after the snapshot: not counted yet
+        leaderboard.onAnalysisChanged(event(SkinAnalysisChangedEvent.ChangeType.CREATED, user3Analyses.get(1), user2));
+        leaderboard.load();
+
+        assertEquals(1, leaderboard.standingOf(user1).orElseThrow().getAnalysisCount());
+        assertEquals(3, leaderboard.standingOf(user2).orElseThrow().getAnalysisCount());
+        assertEquals(1, leaderboard.standingOf(user3).orElseThrow().getAnalysisCount());
+    }
+
+    private List<Long> analysisIdsOf(Long userId) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT sa.id FROM SkinAnalysis sa WHERE sa.user.id = :userId ORDER BY sa.id", Long.class)
+                .setParameter("userId", userId)
+                .getResultList();
+    }
+
+    private static SkinAnalysisChangedEvent event(SkinAnalysisChangedEvent.ChangeType type, Long id, Long userId) {
+        return new SkinAnalysisChangedEvent(type, new SkinAnalysisFacts(id, userId, "UNKNOWN", 0, null, null));
+    }
+
+    /**
+     * Adds users whose n-th has n analyses, on top of any created earlier, and loads a fresh leaderboard
+     */
+    private LeaderboardService loadedLeaderboard(int count) {
+        createUsers(count);
+        LeaderboardService leaderboard = new LeaderboardService(skinAnalysisRepository, userRepository);
+        leaderboard.load();
+        entityManager.clear();
+        return leaderboard;
+    }
+
+    private void createUsers(int count) {
+        for (int i = 0; i < count; i++) {
+            users++;
+            User user = new User();
+            user.setUsername("user" + users);
+            user.setEmail("user" + users + "@example.com");
+            user.setPassword("password");
+            entityManager.persist(user);
+            for (int a = 0; a < users; a++) {
+                SkinAnalysis analysis = new SkinAnalysis();
+                analysis.setUser(user);
+                entityManager.persist(analysis);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Run an action, leaving the JDBC statements it prepared in {@link #statements}
+     */
+    private <T> T measured(Supplier<T> action) {
+        statistics.clear();
+        T result = action.get();
+        statements = statistics.getPrepareStatementCount();
+        return result;
+    }
+}
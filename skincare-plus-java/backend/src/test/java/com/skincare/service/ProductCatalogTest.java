@@ -0,0 +1,170 @@
+package com.skincare.service;
+
+import com.skincare.dto.ProductDocument;
+import com.skincare.dto.ProductHit;
+import com.skincare.dto.ProductSuggestion;
+import com.skincare.model.SkinConcern;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductCatalogTest {
+
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void weighsNameOverBrandOverIngredients() {
+        ProductCatalog catalog = ProductCatalog.builder()
+                .add(product(1, "Daily Serum", "Acme", "serum", "water, niacinamide", null, null))
+                .add(product(2, "Niacinamide Booster", "Acme", "serum", "water", null, null))
+                .add(product(3, "Toner", "Niacinamide Labs", "toner", "water", null, null))
+                .build();
+
+        List<ProductHit> hits = catalog.search(query("niacinamide", 0, 10)).hits();
+
+        assertEquals(List.of(2L, 3L, 1L), ids(hits));
+        assertEquals(3f, hits.get(0).score(), EPSILON);
+        assertEquals(2f, hits.get(1).score(), EPSILON);
+        assertEquals(1f, hits.get(2).score(), EPSILON);
+    }
+
+    @Test
+    void equalScoresKeepInsertionOrderAcrossPages() {
+        ProductCatalog.Builder builder = ProductCatalog.builder();
+        for (int i = 0; i < 30; i++) {
+            builder.add(product(i, "Cream " + i, "Acme", "moisturizer", "water", null, null));
+        }
+        ProductCatalog catalog = builder.build();
+
+        ProductCatalog.Result firstPage = catalog.search(query("cream", 0, 10));
+        ProductCatalog.Result thirdPage = catalog.search(query("cream", 20, 10));
+
+        assertEquals(30, firstPage.total());
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), ids(firstPage.hits()));
+        assertEquals(List.of(20L, 21L, 22L, 23L, 24L, 25L, 26L, 27L, 28L, 29L), ids(thirdPage.hits()));
+    }
+
+    @Test
+    void boostsSkinTypeAndEachCurrentConcern() {
+        ProductCatalog catalog = ProductCatalog.builder()
+                .add(product(1, "Gel", "Acme", "cleanser", "water", "DRY", null))
+                .add(product(2, "Gel", "Acme", "cleanser", "water", "OILY", "ACNE"))
+                .add(product(3, "Gel", "Acme", "cleanser", "water", "ALL", "ACNE, REDNESS"))
+                .build();
+        int concerns = SkinConcern.ACNE.bit() | SkinConcern.REDNESS.bit();
+
+        List<ProductHit> hits = catalog.search(
+                new ProductCatalog.Query("gel", null, null, null, null, "oily", concerns, 0, 10)).hits();
+
+        assertEquals(List.of(3L, 2L, 1L), ids(hits));
+        assertEquals(3f + 1.5f + 2f * 2, hits.get(0).score(), EPSILON);
+        assertEquals(3f + 1.5f + 2f, hits.get(1).score(), EPSILON);
+        assertEquals(3f, hits.get(2).score(), EPSILON);
+    }
+
+    @Test
+    void topKMatchesAFullSortForEveryPageSize() {
+        ProductCatalog.Builder builder = ProductCatalog.builder();
+        String[] types = {"DRY", "OILY", "NORMAL", null};
+        for (int i = 0; i < 500; i++) {
+            // Spread scores over a few distinct values so ties are common
+            String name = i % 3 == 0 ? "Hydra Mask" : "Mask";
+            String ingredients = i % 5 == 0 ? "hydra extract" : "water";
+            builder.add(product(i, name, "Acme", "mask", ingredients, types[i % types.length],
+                    i % 7 == 0 ? "DRYNESS" : null));
+        }
+        ProductCatalog catalog = builder.build();
+        ProductCatalog.Query all = new ProductCatalog.Query("hydra", null, null, null, null, "dry",
+                SkinConcern.DRYNESS.bit(), 0, 500);
+        List<ProductHit> full = catalog.search(all).hits();
+
+        for (int i = 1; i < full.size(); i++) {
+            ProductHit previous = full.get(i - 1);
+            ProductHit current = full.get(i);
+            assertTrue(previous.score() > current.score()
+                    || previous.score() == current.score() && previous.product().id() < current.product().id());
+        }
+        for (int limit : new int[]{1, 5, 17, 64}) {
+            ProductCatalog.Query page = new ProductCatalog.Query("hydra", null, null, null, null, "dry",
+                    SkinConcern.DRYNESS.bit(), 3, limit);
+            assertEquals(ids(full.subList(3, 3 + limit)), ids(catalog.search(page).hits()));
+        }
+    }
+
+    @Test
+    void facetOrdinalsAreRenumberedToSortedOrder() {
+        // Brands and categories arrive out of alphabetical order and in mixed case
+        ProductCatalog catalog = ProductCatalog.builder()
+                .add(product(1, "One", "Zeta", "toner", "water", null, null))
+                .add(product(2, "Two", "alpha", "serum", "water", null, null))
+                .add(product(3, "Three", "Mid", null, "water", null, null))
+                .add(product(4, "Four", "ALPHA", "Serum", "water", null, null))
+                .add(product(5, "Five", null, "cleanser", "water", null, null))
+                .build();
+
+        assertEquals(List.of(2L, 4L), ids(catalog.search(filter("Alpha", null)).hits()));
+        assertEquals(List.of(1L), ids(catalog.search(filter("zeta", null)).hits()));
+        assertEquals(List.of(3L), ids(catalog.search(filter("MID", null)).hits()));
+        assertEquals(List.of(2L, 4L), ids(catalog.search(filter(null, "serum")).hits()));
+        assertEquals(List.of(5L), ids(catalog.search(filter(null, "Cleanser")).hits()));
+        assertEquals(0, catalog.search(filter("unknown", null)).total());
+
+        Map<String, Map<String, Long>> facets = catalog.search(filter(null, null)).facets();
+        // Counts descending, ties in sorted order; labels keep the first spelling seen
+        assertEquals(List.of("alpha", "Mid", "Zeta"), List.copyOf(facets.get("brand").keySet()));
+        assertEquals(List.of(2L, 1L, 1L), List.copyOf(facets.get("brand").values()));
+        assertEquals(Map.of("serum", 2L, "cleanser", 1L, "toner", 1L), facets.get("category"));
+        assertEquals(List.of("serum", "cleanser", "toner"), List.copyOf(facets.get("category").keySet()));
+    }
+
+    @Test
+    void autocompletesMostFrequentTermsAndKeepsLeadingWords() {
+        ProductCatalog catalog = ProductCatalog.builder()
+                .add(product(1, "Retinol Serum", "Acme", "serum", "retinol", null, null))
+                .add(product(2, "Retinol Cream", "Acme", "cream", "retinol", null, null))
+                .add(product(3, "Retinal Drops", "Acme", "serum", "retinal", null, null))
+                .add(product(4, "Rosehip Oil", "Acme", "oil", "rosehip", null, null))
+                .build();
+
+        // Short prefix: served from the precomputed table
+        assertEquals(List.of(new ProductSuggestion("retinol", 2), new ProductSuggestion("retinal", 1),
+                new ProductSuggestion("rosehip", 1)), catalog.autocomplete("r", 3));
+        // Longer prefix: scanned from the term range
+        assertEquals(List.of(new ProductSuggestion("night retinol", 2), new ProductSuggestion("night retinal", 1)),
+                catalog.autocomplete("night reti", 5));
+        assertEquals(List.of(), catalog.autocomplete("xyz", 5));
+        assertEquals(List.of(), catalog.autocomplete("", 5));
+    }
+
+    @Test
+    void emptyCatalogMatchesNothing() {
+        ProductCatalog.Result result = ProductCatalog.EMPTY.search(query("anything", 0, 10));
+
+        assertEquals(0, result.total());
+        assertEquals(List.of(), result.hits());
+        assertEquals(List.of(), ProductCatalog.EMPTY.autocomplete("a", 5));
+    }
+
+    private static ProductDocument product(long id, String name, String brand, String category,
+                                           String ingredients, String skinTypes, String concerns) {
+        return new ProductDocument(id, "SKU-" + id, name, brand, category, ingredients, skinTypes, concerns,
+                BigDecimal.TEN, null);
+    }
+
+    private static ProductCatalog.Query query(String text, int offset, int limit) {
+        return new ProductCatalog.Query(text, null, null, null, null, null, 0, offset, limit);
+    }
+
+    private static ProductCatalog.Query filter(String brand, String category) {
+        return new ProductCatalog.Query(null, brand, category, null, null, null, 0, 0, 10);
+    }
+
+    private static List<Long> ids(List<ProductHit> hits) {
+        return hits.stream().map(hit -> hit.product().id()).toList();
+    }
+}
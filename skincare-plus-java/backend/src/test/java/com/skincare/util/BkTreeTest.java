@@ -0,0 +1,93 @@
+package com.skincare.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BkTreeTest {
+
+    private final BkTree<String> tree = new BkTree<>();
+
+    @Test
+    void emptyTreeFindsNothing() {
+        assertNull(tree.nearest(42L, 64));
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    void findsExactAndNearMatches() {
+        tree.add(0b0000L, "zero");
+        tree.add(0b1111L, "fifteen");
+        tree.add(0xFF00L, "high");
+
+        assertEquals("zero", tree.nearest(0b0000L, 0).value());
+        BkTree.Match<String> near = tree.nearest(0b0111L, 2);
+        assertEquals("fifteen", near.value());
+        assertEquals(1, near.distance());
+        assertNull(tree.nearest(0xF0F0_F0F0L, 3));
+    }
+
+    @Test
+    void addingAnExistingKeyReplacesItsValue() {
+        tree.add(7L, "first");
+        tree.add(7L, "second");
+
+        assertEquals(1, tree.size());
+        assertEquals("second", tree.nearest(7L, 0).value());
+    }
+
+    @Test
+    void radiusSearchMatchesABruteForceScan() {
+        Random random = new Random(11);
+        Map<Long, String> entries = new HashMap<>();
+        List<Long> keys = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            // Clusters of near-duplicates around a few hundred base hashes, as re-uploads produce
+            long base = keys.isEmpty() || random.nextInt(4) == 0 ? random.nextLong() : keys.get(random.nextInt(keys.size()));
+            long key = base ^ (1L << random.nextInt(64)) ^ (random.nextInt(3) == 0 ? 1L << random.nextInt(64) : 0);
+            keys.add(key);
+            entries.put(key, "image" + i);
+            tree.add(key, "image" + i);
+        }
+        assertEquals(entries.size(), tree.size());
+
+        for (int query = 0; query < 200; query++) {
+            long probe = keys.get(random.nextInt(keys.size())) ^ (1L << random.nextInt(64));
+            int radius = random.nextInt(8);
+
+            Set<Long> expected = new TreeSet<>();
+            int bestDistance = Integer.MAX_VALUE;
+            for (long key : entries.keySet()) {
+                int distance = PerceptualHash.distance(probe, key);
+                if (distance <= radius) {
+                    expected.add(key);
+                    bestDistance = Math.min(bestDistance, distance);
+                }
+            }
+
+            Set<Long> found = new TreeSet<>();
+            tree.search(probe, radius, match -> {
+                assertEquals(entries.get(match.key()), match.value());
+                assertEquals(PerceptualHash.distance(probe, match.key()), match.distance());
+                found.add(match.key());
+            });
+            assertEquals(expected, found);
+
+            BkTree.Match<String> nearest = tree.nearest(probe, radius);
+            if (expected.isEmpty()) {
+                assertNull(nearest);
+            } else {
+                assertEquals(bestDistance, nearest.distance());
+            }
+        }
+    }
+}
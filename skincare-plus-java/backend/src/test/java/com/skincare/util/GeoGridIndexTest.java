@@ -0,0 +1,148 @@
+package com.skincare.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoGridIndexTest {
+
+    private static final double TOLERANCE_METERS = 1e-6;
+
+    @Test
+    void haversineMatchesKnownDistances() {
+        // London to Paris, ~343.5 km
+        double londonParis = GeoGridIndex.distanceMeters(51.5074, -0.1278, 48.8566, 2.3522);
+        assertEquals(343_500, londonParis, 1_000);
+        assertEquals(0, GeoGridIndex.distanceMeters(10, 20, 10, 20), TOLERANCE_METERS);
+        // One degree of longitude on the equator, either way round the antimeridian
+        assertEquals(GeoGridIndex.distanceMeters(0, 179.5, 0, -179.5), GeoGridIndex.distanceMeters(0, 0, 0, 1), 1);
+    }
+
+    @Test
+    void withinAndNearestFindPointsAcrossTheAntimeridian() {
+        GeoGridIndex<String> index = new GeoGridIndex<>(0.05);
+        index.add(-17.70, 179.99, "east");
+        index.add(-17.70, -179.99, "west");
+        index.add(-17.70, 170.00, "far");
+
+        List<GeoGridIndex.Match<String>> within = index.within(-17.70, 179.999, 5_000);
+        assertEquals(List.of("east", "west"), within.stream().map(GeoGridIndex.Match::value).toList());
+
+        List<GeoGridIndex.Match<String>> nearest = index.nearest(-17.70, -179.999, 2, 50_000);
+        assertEquals(List.of("west", "east"), nearest.stream().map(GeoGridIndex.Match::value).toList());
+    }
+
+    @Test
+    void emptyIndexAndZeroKReturnNothing() {
+        GeoGridIndex<String> index = new GeoGridIndex<>(0.05);
+        assertEquals(List.of(), index.nearest(0, 0, 5, 10_000));
+
+        index.add(0, 0, "origin");
+        assertEquals(List.of(), index.nearest(0, 0, 0, 10_000));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void withinMatchesABruteForceScan() {
+        Random random = new Random(3);
+        for (double centerLat : new double[]{0, 45, 78}) {
+            GeoGridIndex<Integer> index = new GeoGridIndex<>(0.05);
+            List<double[]> points = scatter(index, random, centerLat, 1.0, 3_000);
+
+            for (int query = 0; query < 50; query++) {
+                double lat = centerLat + (random.nextDouble() - 0.5) * 2;
+                double lng = (random.nextDouble() - 0.5) * 2;
+                double radius = 1_000 + random.nextDouble() * 40_000;
+
+                List<double[]> expected = bruteForce(points, lat, lng, radius, Integer.MAX_VALUE);
+                assertDistances(expected, index.within(lat, lng, radius));
+            }
+        }
+    }
+
+    @Test
+    void nearestMatchesABruteForceScan() {
+        Random random = new Random(5);
+        for (double centerLat : new double[]{0, 45, 78}) {
+            GeoGridIndex<Integer> index = new GeoGridIndex<>(0.05);
+            List<double[]> points = scatter(index, random, centerLat, 1.0, 3_000);
+
+            for (int query = 0; query < 50; query++) {
+                double lat = centerLat + (random.nextDouble() - 0.5) * 3;
+                double lng = (random.nextDouble() - 0.5) * 3;
+                int k = 1 + random.nextInt(20);
+                double maxMeters = 5_000 + random.nextDouble() * 100_000;
+
+                List<double[]> expected = bruteForce(points, lat, lng, maxMeters, k);
+                List<GeoGridIndex.Match<Integer>> actual = index.nearest(lat, lng, k, maxMeters);
+                assertDistances(expected, actual);
+                for (GeoGridIndex.Match<Integer> match : actual) {
+                    assertTrue(match.distanceMeters() <= maxMeters);
+                }
+            }
+        }
+    }
+
+    @Test
+    void coarseGridsReturnEachPointOnceWhenScansWrapTheGlobe() {
+        Random random = new Random(9);
+        for (double cellDegrees : new double[]{60, 50, 45}) {
+            GeoGridIndex<Integer> index = new GeoGridIndex<>(cellDegrees);
+            List<double[]> points = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                double lat = random.nextDouble() * 160 - 80;
+                double lng = random.nextDouble() * 360 - 180;
+                points.add(new double[]{lat, lng});
+                index.add(lat, lng, i);
+            }
+
+            for (int query = 0; query < 20; query++) {
+                double lat = random.nextDouble() * 160 - 80;
+                double lng = random.nextDouble() * 360 - 180;
+                double radius = 21_000_000;
+                assertDistances(bruteForce(points, lat, lng, radius, Integer.MAX_VALUE), index.within(lat, lng, radius));
+                assertDistances(bruteForce(points, lat, lng, radius, 50), index.nearest(lat, lng, 50, radius));
+            }
+        }
+    }
+
+    /**
+     * Random points in a square around (centerLat, 0); each point's value is its position in the returned list
+     */
+    private static List<double[]> scatter(GeoGridIndex<Integer> index, Random random, double centerLat,
+                                          double halfSpanDegrees, int count) {
+        List<double[]> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double lat = centerLat + (random.nextDouble() * 2 - 1) * halfSpanDegrees;
+            double lng = (random.nextDouble() * 2 - 1) * halfSpanDegrees;
+            points.add(new double[]{lat, lng});
+            index.add(lat, lng, i);
+        }
+        return points;
+    }
+
+    private static List<double[]> bruteForce(List<double[]> points, double lat, double lng, double maxMeters, int k) {
+        List<double[]> matches = new ArrayList<>();
+        for (double[] point : points) {
+            double distance = GeoGridIndex.distanceMeters(lat, lng, point[0], point[1]);
+            if (distance <= maxMeters) {
+                matches.add(new double[]{point[0], point[1], distance});
+            }
+        }
+        matches.sort(Comparator.comparingDouble(match -> match[2]));
+        return matches.subList(0, Math.min(k, matches.size()));
+    }
+
+    private static void assertDistances(List<double[]> expected, List<GeoGridIndex.Match<Integer>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i)[2], actual.get(i).distanceMeters(), TOLERANCE_METERS);
+        }
+    }
+}
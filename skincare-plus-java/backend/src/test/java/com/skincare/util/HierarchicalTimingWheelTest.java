@@ -0,0 +1,145 @@
+package com.skincare.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final long START = 1_000_000;
+
+    private final List<long[]> fired = new ArrayList<>();
+
+    private HierarchicalTimingWheel wheel(int wheelBits, int levels, int maxPending) {
+        return new HierarchicalTimingWheel(TICK, wheelBits, levels, maxPending, START);
+    }
+
+    private int advance(HierarchicalTimingWheel wheel, long nowMillis) {
+        return wheel.advance(nowMillis, (id, tick) -> fired.add(new long[]{id, tick}));
+    }
+
+    @Test
+    void firesOnTheDeadlineTickAndNotBefore() {
+        HierarchicalTimingWheel wheel = wheel(4, 3, 100);
+        assertTrue(wheel.add(1, START + 55));
+
+        assertEquals(0, advance(wheel, START + 59));
+        assertEquals(1, wheel.size());
+
+        assertEquals(1, advance(wheel, START + 60));
+        assertEquals(1, fired.get(0)[0]);
+        assertEquals(wheel.tickOf(START + 55), fired.get(0)[1]);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesTimersFromHigherLevelsOnTime() {
+        HierarchicalTimingWheel wheel = wheel(4, 3, 100);
+        // 16 ticks per level-0 turn, 256 per level-1 turn: these land on levels 1 and 2
+        wheel.add(1, START + 40 * TICK);
+        wheel.add(2, START + 300 * TICK);
+
+        advance(wheel, START + 39 * TICK);
+        assertTrue(fired.isEmpty());
+        advance(wheel, START + 40 * TICK);
+        assertEquals(1, fired.size());
+
+        advance(wheel, START + 299 * TICK);
+        assertEquals(1, fired.size());
+        advance(wheel, START + 300 * TICK);
+        assertEquals(2, fired.size());
+        assertEquals(2, fired.get(1)[0]);
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvance() {
+        HierarchicalTimingWheel wheel = wheel(4, 3, 100);
+        wheel.add(7, START - 5_000);
+
+        assertEquals(1, advance(wheel, START));
+        assertEquals(7, fired.get(0)[0]);
+    }
+
+    @Test
+    void everyTimerFiresExactlyOnceAtItsTick() {
+        HierarchicalTimingWheel wheel = wheel(6, 4, 100_000);
+        Random random = new Random(42);
+        Map<Long, Long> expected = new HashMap<>();
+        for (long id = 0; id < 20_000; id++) {
+            long deadline = START + random.nextInt(2_000_000);
+            expected.put(id, wheel.tickOf(deadline));
+            assertTrue(wheel.add(id, deadline));
+        }
+
+        long now = START;
+        while (wheel.size() > 0) {
+            now += 1 + random.nextInt(5_000);
+            int before = fired.size();
+            advance(wheel, now);
+            for (long[] timer : fired.subList(before, fired.size())) {
+                assertTrue(timer[1] * TICK <= now, "fired early");
+                assertTrue(timer[1] * TICK > now - 5_000 - TICK, "fired late");
+            }
+        }
+
+        assertEquals(expected.size(), fired.size());
+        Map<Long, Long> actual = new HashMap<>();
+        for (long[] timer : fired) {
+            assertNull(actual.put(timer[0], timer[1]), "fired twice");
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void refusesTimersBeyondMaxPending() {
+        HierarchicalTimingWheel wheel = wheel(4, 3, 2);
+        assertTrue(wheel.add(1, START + 100));
+        assertTrue(wheel.add(2, START + 100));
+        assertFalse(wheel.add(3, START + 100));
+
+        advance(wheel, START + 100);
+        assertTrue(wheel.add(3, START + 200));
+    }
+
+    @Test
+    void rejectsDeadlinesBeyondTheHorizon() {
+        HierarchicalTimingWheel wheel = wheel(4, 2, 100);
+        long horizon = wheel.horizonMillis();
+        assertTrue(horizon > START);
+
+        assertTrue(wheel.add(1, horizon));
+        assertThrows(IllegalArgumentException.class, () -> wheel.add(2, horizon + 1));
+    }
+
+    @Test
+    void horizonMovesForwardWithTime() {
+        HierarchicalTimingWheel wheel = wheel(4, 2, 100);
+        long horizon = wheel.horizonMillis();
+
+        advance(wheel, horizon);
+        assertTrue(wheel.horizonMillis() > horizon);
+        assertTrue(wheel.add(1, horizon + TICK));
+        advance(wheel, horizon + TICK);
+        assertEquals(1, fired.size());
+    }
+
+    @Test
+    void rejectsInvalidDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(0, 4, 3, 10, START));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(TICK, 0, 3, 10, START));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(TICK, 4, 0, 10, START));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(TICK, 20, 3, 10, START));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(TICK, 4, 3, 0, START));
+    }
+}
@@ -0,0 +1,106 @@
+package com.skincare.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerceptualHashTest {
+
+    @Test
+    void distanceCountsDifferingBits() {
+        assertEquals(0, PerceptualHash.distance(0x1234L, 0x1234L));
+        assertEquals(1, PerceptualHash.distance(0b1000L, 0b0000L));
+        assertEquals(64, PerceptualHash.distance(0L, -1L));
+    }
+
+    @Test
+    void sameImageHashesTheSame() {
+        BufferedImage image = photo(640, 480, 1);
+
+        assertEquals(PerceptualHash.dHash(image), PerceptualHash.dHash(photo(640, 480, 1)));
+    }
+
+    @Test
+    void resizedAndReencodedCopiesStayClose() throws IOException {
+        BufferedImage original = photo(1200, 900, 1);
+        long hash = PerceptualHash.dHash(original);
+
+        assertTrue(PerceptualHash.distance(hash, PerceptualHash.dHash(resize(original, 300, 225))) <= 6);
+        assertTrue(PerceptualHash.distance(hash, PerceptualHash.dHash(jpegRoundTrip(original, 0.5f))) <= 6);
+    }
+
+    @Test
+    void differentImagesAreFarApart() {
+        long first = PerceptualHash.dHash(photo(640, 480, 1));
+        long second = PerceptualHash.dHash(photo(640, 480, 2));
+
+        assertTrue(PerceptualHash.distance(first, second) > 12);
+    }
+
+    /**
+     * Deterministic "photo": a gradient with a few soft shapes placed by the seed
+     */
+    private static BufferedImage photo(int width, int height, int seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            for (int x = 0; x < width; x++) {
+                int shade = seed == 1 ? 255 * x / width : 255 - 255 * x / width;
+                graphics.setColor(new Color(shade, shade / 2, 128));
+                graphics.drawLine(x, 0, x, height);
+            }
+            Random random = new Random(seed);
+            for (int i = 0; i < 6; i++) {
+                graphics.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+                int size = width / 6 + random.nextInt(width / 4);
+                graphics.fillOval(random.nextInt(width - size), random.nextInt(height - size / 2), size, size / 2);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private static BufferedImage jpegRoundTrip(BufferedImage source, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(source, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return ImageIO.read(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
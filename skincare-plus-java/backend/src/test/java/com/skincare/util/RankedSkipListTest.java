@@ -0,0 +1,114 @@
+package com.skincare.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankedSkipListTest {
+
+    private final RankedSkipList<Integer> list = new RankedSkipList<>(Comparator.naturalOrder());
+
+    @Test
+    void keepsValuesSortedAndRanked() {
+        for (int value : new int[]{50, 10, 40, 20, 30}) {
+            assertTrue(list.add(value));
+        }
+
+        assertEquals(List.of(10, 20, 30, 40, 50), list.range(0, 10));
+        assertEquals(0, list.rankOf(10));
+        assertEquals(2, list.rankOf(30));
+        assertEquals(4, list.rankOf(50));
+        assertEquals(5, list.size());
+    }
+
+    @Test
+    void rejectsDuplicatesAndReportsMissingValues() {
+        assertTrue(list.add(1));
+        assertFalse(list.add(1));
+        assertEquals(1, list.size());
+
+        assertEquals(-1, list.rankOf(2));
+        assertFalse(list.remove(2));
+        assertEquals(-1, new RankedSkipList<Integer>(Comparator.naturalOrder()).rankOf(1));
+    }
+
+    @Test
+    void removeShiftsLaterRanks() {
+        for (int value = 0; value < 10; value++) {
+            list.add(value);
+        }
+
+        assertTrue(list.remove(3));
+        assertFalse(list.remove(3));
+        assertEquals(-1, list.rankOf(3));
+        assertEquals(3, list.rankOf(4));
+        assertEquals(List.of(2, 4, 5), list.range(2, 3));
+        assertEquals(9, list.size());
+    }
+
+    @Test
+    void rangeClampsToBounds() {
+        for (int value = 0; value < 5; value++) {
+            list.add(value);
+        }
+
+        assertEquals(List.of(3, 4), list.range(3, 10));
+        assertEquals(List.of(), list.range(5, 1));
+        assertEquals(List.of(), list.range(-1, 3));
+        assertEquals(List.of(), list.range(0, 0));
+    }
+
+    @Test
+    void honoursTheComparator() {
+        RankedSkipList<Integer> descending = new RankedSkipList<>(Comparator.reverseOrder());
+        descending.add(1);
+        descending.add(3);
+        descending.add(2);
+
+        assertEquals(List.of(3, 2, 1), descending.range(0, 3));
+        assertEquals(0, descending.rankOf(3));
+    }
+
+    @Test
+    void clearEmptiesTheList() {
+        for (int value = 0; value < 100; value++) {
+            list.add(value);
+        }
+        list.clear();
+
+        assertEquals(0, list.size());
+        assertEquals(List.of(), list.range(0, 10));
+        assertTrue(list.add(7));
+        assertEquals(0, list.rankOf(7));
+    }
+
+    @Test
+    void matchesASortedSetUnderRandomInsertsAndRemoves() {
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(7);
+        for (int op = 0; op < 20_000; op++) {
+            int value = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), list.remove(value));
+            } else {
+                assertEquals(expected.add(value), list.add(value));
+            }
+        }
+
+        List<Integer> sorted = new ArrayList<>(expected);
+        assertEquals(sorted.size(), list.size());
+        assertEquals(sorted, list.range(0, sorted.size()));
+        for (int rank = 0; rank < sorted.size(); rank += 37) {
+            assertEquals(rank, list.rankOf(sorted.get(rank)));
+            assertEquals(sorted.subList(rank, Math.min(sorted.size(), rank + 25)), list.range(rank, 25));
+        }
+    }
+}
@@ -58,6 +58,19 @@ CREATE TABLE IF NOT EXISTS skin_analysis (
     INDEX idx_skin_type (skin_type_detected)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- ============================================
+-- Content Blocks Table (interned recommendation text, one row per distinct body)
+-- ============================================
+CREATE TABLE IF NOT EXISTS content_blocks (
+    id BIGINT PRIMARY KEY,
+    content_hash CHAR(64) NOT NULL,
+    body TEXT NOT NULL,
+    byte_length INT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    UNIQUE INDEX uk_content_block_hash (content_hash)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- ============================================
 -- Recommendations Table
 -- ============================================
@@ -65,6 +78,13 @@ CREATE TABLE IF NOT EXISTS recommendations (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     user_id BIGINT NOT NULL,
     analysis_id BIGINT,
+    morning_routine_block_id BIGINT,
+    evening_routine_block_id BIGINT,
+    diet_advice_block_id BIGINT,
+    lifestyle_advice_block_id BIGINT,
+    dos_block_id BIGINT,
+    donts_block_id BIGINT,
+    -- Legacy free text, only set on rows written before content_blocks
     morning_routine TEXT,
     evening_routine TEXT,
     product_recommendations JSON,
@@ -76,6 +96,12 @@ CREATE TABLE IF NOT EXISTS recommendations (
     
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (analysis_id) REFERENCES skin_analysis(id) ON DELETE SET NULL,
+    FOREIGN KEY (morning_routine_block_id) REFERENCES content_blocks(id),
+    FOREIGN KEY (evening_routine_block_id) REFERENCES content_blocks(id),
+    FOREIGN KEY (diet_advice_block_id) REFERENCES content_blocks(id),
+    FOREIGN KEY (lifestyle_advice_block_id) REFERENCES content_blocks(id),
+    FOREIGN KEY (dos_block_id) REFERENCES content_blocks(id),
+    FOREIGN KEY (donts_block_id) REFERENCES content_blocks(id),
     INDEX idx_user_id (user_id),
     INDEX idx_analysis_id (analysis_id),
     INDEX idx_created_at (created_at)
@@ -102,14 +128,129 @@ CREATE TABLE IF NOT EXISTS appointments (
     patient_concerns TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
     
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_user_id (user_id),
     INDEX idx_appointment_date (appointment_date),
+    INDEX idx_doctor_appointment_date (doctor_name, appointment_date),
     INDEX idx_status (status),
     INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- ============================================
+-- Analysis Jobs Table (durable analysis queue)
+-- ============================================
+CREATE TABLE IF NOT EXISTS analysis_jobs (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    image_path VARCHAR(500) NOT NULL,
+    content_type VARCHAR(100),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    error_message VARCHAR(500),
+    analysis_id BIGINT,
+    next_attempt_at DATETIME,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_job_status (status, id),
+    INDEX idx_job_user (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Clinics Table (local directory for nearby-dermatologist search)
+-- ============================================
+CREATE TABLE IF NOT EXISTS clinics (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(200) NOT NULL,
+    specialization VARCHAR(100),
+    address VARCHAR(500),
+    phone VARCHAR(20),
+    latitude DOUBLE NOT NULL,
+    longitude DOUBLE NOT NULL,
+    place_id VARCHAR(255),
+    source VARCHAR(20) NOT NULL DEFAULT 'SEEDED',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    UNIQUE INDEX idx_clinic_place_id (place_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Doctor Schedules Table (booked-slot bitmask per doctor and day)
+-- ============================================
+CREATE TABLE IF NOT EXISTS doctor_schedules (
+    id BIGINT PRIMARY KEY,
+    doctor_name VARCHAR(100) NOT NULL,
+    schedule_date DATE NOT NULL,
+    booked_slots BIGINT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+
+    UNIQUE INDEX uk_doctor_schedule_day (doctor_name, schedule_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Appointment Reminders Table (one claim per reminder sent)
+-- ============================================
+CREATE TABLE IF NOT EXISTS appointment_reminders (
+    id BIGINT PRIMARY KEY,
+    appointment_id BIGINT NOT NULL,
+    remind_at DATETIME NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'CLAIMED',
+    claimed_at DATETIME NOT NULL,
+    sent_at DATETIME,
+
+    FOREIGN KEY (appointment_id) REFERENCES appointments(id) ON DELETE CASCADE,
+    UNIQUE INDEX uk_reminder_appointment_time (appointment_id, remind_at),
+    INDEX idx_reminder_status_claimed (status, claimed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Products Table (catalog served by the in-memory search index)
+-- ============================================
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT PRIMARY KEY,
+    sku VARCHAR(64) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    brand VARCHAR(100),
+    category VARCHAR(100),
+    ingredients TEXT,
+    skin_types VARCHAR(100),
+    concerns VARCHAR(100),
+    price DECIMAL(10, 2),
+    image_url VARCHAR(500),
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    UNIQUE INDEX uk_product_sku (sku),
+    INDEX idx_product_active (active)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Id Sequences Table (pooled id allocation, blocks of 50 per node)
+-- ============================================
+CREATE TABLE IF NOT EXISTS id_sequences (
+    sequence_name VARCHAR(255) PRIMARY KEY,
+    next_val BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Analytics Summary Table (checkpoint of in-memory aggregates)
+-- ============================================
+CREATE TABLE IF NOT EXISTS analytics_summary (
+    skin_type VARCHAR(50) PRIMARY KEY,
+    analysis_count BIGINT NOT NULL DEFAULT 0,
+    confidence_sum DECIMAL(19,2) NOT NULL DEFAULT 0,
+    acne_count BIGINT NOT NULL DEFAULT 0,
+    dark_spots_count BIGINT NOT NULL DEFAULT 0,
+    wrinkles_count BIGINT NOT NULL DEFAULT 0,
+    dryness_count BIGINT NOT NULL DEFAULT 0,
+    redness_count BIGINT NOT NULL DEFAULT 0,
+    high_water_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- ============================================
 -- Sample Data (Optional - for testing)
 -- ============================================
@@ -138,6 +279,28 @@ INSERT INTO appointments (user_id, doctor_name, doctor_specialization, appointme
 VALUES 
 (1, 'Dr. Sarah Johnson', 'Dermatologist', '2025-11-20', '10:00:00', 'City Skin Clinic, Chennai', 'SCHEDULED');
 
+-- Sample clinics
+INSERT INTO clinics (id, name, specialization, address, phone, latitude, longitude, source)
+VALUES
+(1, 'City Skin Clinic', 'Dermatologist', 'Anna Salai, Chennai', '+91-4428000001', 13.0604, 80.2496, 'SEEDED'),
+(2, 'Derma Care Centre', 'Dermatologist', 'T. Nagar, Chennai', '+91-4428000002', 13.0418, 80.2341, 'SEEDED'),
+(3, 'Adyar Skin & Hair Clinic', 'Dermatologist', 'Adyar, Chennai', '+91-4428000003', 13.0012, 80.2565, 'SEEDED');
+
+-- Start id allocation above the rows inserted so far (pooled blocks hand out
+-- (next_val - 49 .. next_val], hence MAX(id) + allocationSize + 1)
+INSERT INTO id_sequences (sequence_name, next_val)
+SELECT 'users', COALESCE(MAX(id), 0) + 51 FROM users
+UNION ALL SELECT 'skin_analysis', COALESCE(MAX(id), 0) + 51 FROM skin_analysis
+UNION ALL SELECT 'recommendations', COALESCE(MAX(id), 0) + 51 FROM recommendations
+UNION ALL SELECT 'appointments', COALESCE(MAX(id), 0) + 51 FROM appointments
+UNION ALL SELECT 'analysis_jobs', COALESCE(MAX(id), 0) + 51 FROM analysis_jobs
+UNION ALL SELECT 'clinics', COALESCE(MAX(id), 0) + 51 FROM clinics
+UNION ALL SELECT 'doctor_schedules', COALESCE(MAX(id), 0) + 51 FROM doctor_schedules
+UNION ALL SELECT 'appointment_reminders', COALESCE(MAX(id), 0) + 51 FROM appointment_reminders
+UNION ALL SELECT 'content_blocks', COALESCE(MAX(id), 0) + 51 FROM content_blocks
+UNION ALL SELECT 'products', COALESCE(MAX(id), 0) + 51 FROM products
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
 -- ============================================
 -- Views for Analytics (Optional)
 -- ============================================
@@ -183,6 +346,7 @@ LIMIT 50;
 DELIMITER //
 
 -- Procedure: Get user dashboard data
+-- The application serves GET /api/dashboard by running these four reads in parallel instead.
 CREATE PROCEDURE GetUserDashboard(IN userId BIGINT)
 BEGIN
     -- User info
@@ -201,6 +365,8 @@ BEGIN
 END //
 
 -- Procedure: Get analytics
+-- Full-table scans; the application serves GET /api/admin/analytics/summary from
+-- in-memory aggregates checkpointed to analytics_summary instead.
 CREATE PROCEDURE GetAnalytics()
 BEGIN
     -- Total users